@@ -20,7 +20,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -249,17 +251,31 @@ public class CartServiceImpl implements CartService {
             // User has existing non-empty cart - keep user cart, suggest adding guest items
             targetCart = userCart.get();
             
-            // Add guest cart items that don't already exist
+            // Add guest cart items that don't already exist; if product exists, keep user's quantity
+            List<CartItem> newItems = new ArrayList<>();
             for (CartItem guestItem : guestCart.get().getItems()) {
-                CartItem existingItem = targetCart.findItemByProductId(guestItem.getProductId());
-                if (existingItem == null) {
-                    // Product not in user cart, add it
-                    if (inventoryCheckEnabled && productValidationService.isProductAvailableForCart(
-                            guestItem.getProductId(), guestItem.getQuantity())) {
+                if (targetCart.findItemByProductId(guestItem.getProductId()) == null) {
+                    newItems.add(guestItem);
+                }
+            }
+            
+            if (inventoryCheckEnabled && !newItems.isEmpty()) {
+                // One availability call and one details call for all of them, not one per item
+                var availabilityByProduct = productValidationService.checkCartAvailability(newItems);
+                var detailsByProduct = currentDetails(newItems);
+                for (CartItem guestItem : newItems) {
+                    if (availabilityByProduct.get(guestItem.getProductId()).canSupply(guestItem.getQuantity())) {
+                        var details = detailsByProduct.get(guestItem.getProductId());
+                        if (details != null) {
+                            // Guest carts can be old: carry today's title, image and price over
+                            guestItem.setProductTitle(details.getTitle());
+                            guestItem.setProductImageUrl(details.getImageUrl());
+                            guestItem.setUnitPrice(details.getPrice());
+                            guestItem.updateSubtotal();
+                        }
                         targetCart.addItem(guestItem);
                     }
                 }
-                // If product exists, keep user's quantity (don't overwrite)
             }
             
             log.info("Merged guest cart items into existing user cart for user: {}", userId);
@@ -386,11 +402,23 @@ public class CartServiceImpl implements CartService {
         return cartRepository.save(cart);
     }
     
+    // Details are a refresh only: when ProductService cannot answer, items keep what they have
+    private Map<Long, ProductValidationService.ProductDetails> currentDetails(List<CartItem> items) {
+        try {
+            return productValidationService.getProductDetails(items.stream().map(CartItem::getProductId).toList());
+        } catch (Exception e) {
+            log.warn("Could not refresh details of {} merged cart items: {}", items.size(), e.getMessage());
+            return Map.of();
+        }
+    }
+    
     private void validateAndUpdateCartInventory(Cart cart) {
         boolean hasChanges = false;
         
+        // One round trip for the whole cart
+        var availabilityByProduct = productValidationService.checkCartAvailability(cart.getItems());
         for (CartItem item : cart.getItems()) {
-            var availability = productValidationService.checkProductAvailability(item.getProductId());
+            var availability = availabilityByProduct.get(item.getProductId());
             
             boolean wasAvailable = item.getIsAvailable();
             item.updateAvailability(
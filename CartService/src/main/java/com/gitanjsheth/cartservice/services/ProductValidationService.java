@@ -2,16 +2,25 @@ package com.gitanjsheth.cartservice.services;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gitanjsheth.cartservice.models.CartItem;
 import com.gitanjsheth.cartservice.repositories.CartCacheRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @Slf4j
@@ -24,6 +33,9 @@ public class ProductValidationService {
     @Value("${app.product-service.url}")
     private String productServiceUrl;
     
+    @Value("${app.service.token:}")
+    private String serviceToken;
+    
     public ProductValidationService(RestTemplate restTemplate, 
                                   CartCacheRepository cartCacheRepository,
                                   ObjectMapper objectMapper) {
@@ -96,24 +108,91 @@ public class ProductValidationService {
         }
     }
     
+    /**
+     * Availability for every item of a cart in one call to ProductService's set-based validator.
+     * Products missing from the response are reported unavailable.
+     */
+    public Map<Long, ProductAvailabilityInfo> checkCartAvailability(List<CartItem> items) {
+        Map<Long, ProductAvailabilityInfo> result = new HashMap<>();
+        if (items.isEmpty()) {
+            return result;
+        }
+        
+        try {
+            String url = productServiceUrl + "/products/validate-cart";
+            List<Map<String, Object>> lines = items.stream()
+                .map(item -> Map.<String, Object>of("productId", item.getProductId(), "quantity", item.getQuantity()))
+                .toList();
+            
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            headers.set("X-Service-Name", "CartService");
+            if (serviceToken != null && !serviceToken.isEmpty()) {
+                headers.set("X-Service-Token", serviceToken);
+            }
+            
+            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.POST,
+                new HttpEntity<>(Map.of("items", lines), headers), String.class);
+            
+            if (response.getStatusCode().is2xxSuccessful()) {
+                for (JsonNode line : objectMapper.readTree(response.getBody()).path("items")) {
+                    Long productId = line.get("productId").asLong();
+                    boolean isActive = line.get("isActive").asBoolean();
+                    boolean isOutOfStock = line.get("isOutOfStock").asBoolean();
+                    boolean allowBackorder = line.get("allowBackorder").asBoolean();
+                    int availableQuantity = line.get("availableQuantity").asInt();
+                    
+                    boolean isAvailable = isActive && (!isOutOfStock || allowBackorder);
+                    cartCacheRepository.cacheProductAvailability(productId, isAvailable, availableQuantity);
+                    result.put(productId, new ProductAvailabilityInfo(isAvailable, isOutOfStock, availableQuantity, allowBackorder));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error checking cart availability for {} items: {}", items.size(), e.getMessage());
+        }
+        
+        items.forEach(item -> result.putIfAbsent(item.getProductId(), new ProductAvailabilityInfo(false, true, 0)));
+        return result;
+    }
+    
     public ProductDetails getProductDetails(Long productId) {
+        ProductDetails details = getProductDetails(List.of(productId)).get(productId);
+        if (details == null) {
+            throw new RuntimeException("Failed to fetch product details: product not found: " + productId);
+        }
+        return details;
+    }
+    
+    /**
+     * Title, price and image of several products in one multi-get with a sparse fieldset.
+     * Products ProductService does not know are left out of the result.
+     */
+    public Map<Long, ProductDetails> getProductDetails(Collection<Long> productIds) {
+        Map<Long, ProductDetails> result = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return result;
+        }
+        
         try {
-            String url = productServiceUrl + "/products/" + productId;
+            String ids = productIds.stream().distinct().map(String::valueOf).collect(Collectors.joining(","));
+            String url = productServiceUrl + "/products?ids=" + ids + "&fields=title,price,imageURL";
             ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, null, String.class);
             
             if (response.getStatusCode().is2xxSuccessful()) {
-                JsonNode responseBody = objectMapper.readTree(response.getBody());
-                
-                String title = responseBody.get("title").asText();
-                BigDecimal price = new BigDecimal(responseBody.get("price").asText());
-                String imageUrl = responseBody.has("imageURL") ? responseBody.get("imageURL").asText() : null;
-                
-                return new ProductDetails(productId, title, price, imageUrl);
+                for (JsonNode product : objectMapper.readTree(response.getBody())) {
+                    Long productId = product.get("id").asLong();
+                    String title = product.get("title").asText();
+                    BigDecimal price = new BigDecimal(product.get("price").asText());
+                    String imageUrl = product.hasNonNull("imageURL") ? product.get("imageURL").asText() : null;
+                    
+                    result.put(productId, new ProductDetails(productId, title, price, imageUrl));
+                }
+                return result;
             }
             
-            throw new RuntimeException("Product not found: " + productId);
+            throw new RuntimeException("Product details request failed: " + response.getStatusCode());
         } catch (Exception e) {
-            log.error("Error fetching product details for product {}: {}", productId, e.getMessage());
+            log.error("Error fetching product details for {} products: {}", productIds.size(), e.getMessage());
             throw new RuntimeException("Failed to fetch product details", e);
         }
     }
@@ -124,16 +203,28 @@ public class ProductValidationService {
         private final boolean available;
         private final boolean outOfStock;
         private final int availableQuantity;
+        private final boolean allowBackorder;
         
         public ProductAvailabilityInfo(boolean available, boolean outOfStock, int availableQuantity) {
+            this(available, outOfStock, availableQuantity, false);
+        }
+        
+        public ProductAvailabilityInfo(boolean available, boolean outOfStock, int availableQuantity, boolean allowBackorder) {
             this.available = available;
             this.outOfStock = outOfStock;
             this.availableQuantity = availableQuantity;
+            this.allowBackorder = allowBackorder;
         }
         
         public boolean isAvailable() { return available; }
         public boolean isOutOfStock() { return outOfStock; }
         public int getAvailableQuantity() { return availableQuantity; }
+        public boolean isAllowBackorder() { return allowBackorder; }
+        
+        // Same rule as isProductAvailableForCart
+        public boolean canSupply(int quantity) {
+            return available && (allowBackorder || availableQuantity >= quantity);
+        }
     }
     
     public static class ProductDetails {
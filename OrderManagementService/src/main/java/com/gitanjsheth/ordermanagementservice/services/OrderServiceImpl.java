@@ -228,13 +228,9 @@ public class OrderServiceImpl implements OrderService {
         
         log.info("Reserving inventory for order {}", order.getOrderNumber());
         
-        // Reserve inventory for each item
-        List<Boolean> reservationResults = order.getItems().stream()
-            .map(item -> productIntegrationService.reserveInventory(
-                item.getProductId(), item.getQuantity()))
-            .collect(Collectors.toList());
-        
-        boolean allReserved = reservationResults.stream().allMatch(Boolean::booleanValue);
+        // Reserve all items in one all-or-nothing call, keyed by order id
+        boolean allReserved = productIntegrationService.reserveInventoryForOrder(
+            order.getId().toString(), order.getUserId(), toInventoryLines(order));
         
         List<InventoryEvent.InventoryItem> inventoryItems = order.getItems().stream()
             .map(item -> new InventoryEvent.InventoryItem(
@@ -269,12 +265,12 @@ public class OrderServiceImpl implements OrderService {
         
         log.info("Releasing inventory reservation for order {}", order.getOrderNumber());
         
+        productIntegrationService.releaseInventoryForOrder(order.getId().toString(), toInventoryLines(order));
+        
         List<InventoryEvent.InventoryItem> inventoryItems = order.getItems().stream()
-            .map(item -> {
-                productIntegrationService.releaseInventory(item.getProductId(), item.getQuantity());
-                return new InventoryEvent.InventoryItem(
-                    item.getProductId(), item.getQuantity(), "RELEASE");
-            }).collect(Collectors.toList());
+            .map(item -> new InventoryEvent.InventoryItem(
+                item.getProductId(), item.getQuantity(), "RELEASE"))
+            .collect(Collectors.toList());
         
         order.markInventoryAsReleased();
         orderRepository.save(order);
@@ -293,12 +289,12 @@ public class OrderServiceImpl implements OrderService {
         
         log.info("Confirming inventory usage for order {}", order.getOrderNumber());
         
+        productIntegrationService.confirmInventoryForOrder(order.getId().toString(), toInventoryLines(order));
+        
         List<InventoryEvent.InventoryItem> inventoryItems = order.getItems().stream()
-            .map(item -> {
-                productIntegrationService.confirmInventoryUsage(item.getProductId(), item.getQuantity());
-                return new InventoryEvent.InventoryItem(
-                    item.getProductId(), item.getQuantity(), "CONFIRM");
-            }).collect(Collectors.toList());
+            .map(item -> new InventoryEvent.InventoryItem(
+                item.getProductId(), item.getQuantity(), "CONFIRM"))
+            .collect(Collectors.toList());
         
         // Publish inventory event
         InventoryEvent event = new InventoryEvent(order.getId().toString(), "CONFIRM", inventoryItems);
@@ -431,6 +427,14 @@ public class OrderServiceImpl implements OrderService {
         return order;
     }
     
+    private List<Map<String, Object>> toInventoryLines(Order order) {
+        return order.getItems().stream()
+            .map(item -> Map.<String, Object>of(
+                "productId", item.getProductId(),
+                "quantity", item.getQuantity()))
+            .collect(Collectors.toList());
+    }
+    
     private String generateOrderNumber() {
         String timestamp = String.valueOf(System.currentTimeMillis());
         return orderNumberPrefix + "-" + timestamp.substring(timestamp.length() - 8);
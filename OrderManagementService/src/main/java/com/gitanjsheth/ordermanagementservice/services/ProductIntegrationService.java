@@ -10,6 +10,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -27,69 +28,48 @@ public class ProductIntegrationService {
     private String serviceToken;
     
     /**
-     * Reserve inventory for order items (24-hour hold)
+     * Reserve every item of an order in one call. ProductService reserves all lines or none.
      */
-    public boolean reserveInventory(Long productId, Integer quantity) {
+    public boolean reserveInventoryForOrder(String orderReference, Long userId, List<Map<String, Object>> items) {
         try {
-            String url = productServiceUrl + "/products/" + productId + "/inventory/reserve";
-            HttpHeaders headers = createServiceHeaders();
-            
-            Map<String, Object> request = Map.of("quantity", quantity);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-            
-            ResponseEntity<Map> response = restTemplate.exchange(
-                url, HttpMethod.POST, entity, Map.class);
-            
-            boolean success = (Boolean) response.getBody().get("success");
-            log.info("Inventory reservation for product {} quantity {}: {}", 
-                productId, quantity, success ? "SUCCESS" : "FAILED");
-            
+            Map<String, Object> result = postOrderInventory(orderReference, "reserve", userId, items);
+            boolean success = Boolean.TRUE.equals(result.get("success"));
+            if (success) {
+                log.info("Inventory reservation for order {} ({} items): SUCCESS", orderReference, items.size());
+            } else {
+                log.warn("Inventory reservation for order {} failed: {}", orderReference, result.get("lines"));
+            }
             return success;
             
         } catch (Exception e) {
-            log.error("Failed to reserve inventory for product {} quantity {}: {}", 
-                productId, quantity, e.getMessage());
+            log.error("Failed to reserve inventory for order {}: {}", orderReference, e.getMessage());
             return false;
         }
     }
     
     /**
-     * Release inventory reservation
+     * Release every hold of an order in one call
      */
-    public void releaseInventory(Long productId, Integer quantity) {
+    public void releaseInventoryForOrder(String orderReference, List<Map<String, Object>> items) {
         try {
-            String url = productServiceUrl + "/products/" + productId + "/inventory/release";
-            HttpHeaders headers = createServiceHeaders();
-            
-            Map<String, Object> request = Map.of("quantity", quantity);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-            
-            restTemplate.exchange(url, HttpMethod.POST, entity, Void.class);
-            log.info("Released inventory for product {} quantity {}", productId, quantity);
+            postOrderInventory(orderReference, "release", null, items);
+            log.info("Released inventory for order {} ({} items)", orderReference, items.size());
             
         } catch (Exception e) {
-            log.error("Failed to release inventory for product {} quantity {}: {}", 
-                productId, quantity, e.getMessage());
+            log.error("Failed to release inventory for order {}: {}", orderReference, e.getMessage());
         }
     }
     
     /**
-     * Confirm inventory usage (final stock deduction)
+     * Confirm inventory usage for every item of an order in one call
      */
-    public void confirmInventoryUsage(Long productId, Integer quantity) {
+    public void confirmInventoryForOrder(String orderReference, List<Map<String, Object>> items) {
         try {
-            String url = productServiceUrl + "/products/" + productId + "/inventory/confirm";
-            HttpHeaders headers = createServiceHeaders();
-            
-            Map<String, Object> request = Map.of("quantity", quantity);
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
-            
-            restTemplate.exchange(url, HttpMethod.POST, entity, Void.class);
-            log.info("Confirmed inventory usage for product {} quantity {}", productId, quantity);
+            postOrderInventory(orderReference, "confirm", null, items);
+            log.info("Confirmed inventory usage for order {} ({} items)", orderReference, items.size());
             
         } catch (Exception e) {
-            log.error("Failed to confirm inventory usage for product {} quantity {}: {}", 
-                productId, quantity, e.getMessage());
+            log.error("Failed to confirm inventory usage for order {}: {}", orderReference, e.getMessage());
         }
     }
     
@@ -116,6 +96,20 @@ public class ProductIntegrationService {
         }
     }
     
+    private Map<String, Object> postOrderInventory(String orderReference, String operation, Long userId,
+                                                   List<Map<String, Object>> items) {
+        String url = productServiceUrl + "/products/inventory/orders/" + orderReference + "/" + operation;
+        HttpHeaders headers = createServiceHeaders();
+        
+        Map<String, Object> request = new HashMap<>();
+        request.put("userId", userId);
+        request.put("items", items);
+        HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
+        
+        ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.POST, entity, Map.class);
+        return response.getBody() != null ? response.getBody() : Map.of();
+    }
+    
     private HttpHeaders createServiceHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.set("X-Service-Token", serviceToken);
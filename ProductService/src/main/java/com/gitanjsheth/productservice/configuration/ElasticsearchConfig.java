@@ -1,29 +1,35 @@
 package com.gitanjsheth.productservice.configuration;
 
-import org.elasticsearch.client.RestHighLevelClient;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.nio.reactor.IOReactorException;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.elasticsearch.client.ClientConfiguration;
-import org.springframework.data.elasticsearch.client.RestClients;
-import org.springframework.data.elasticsearch.config.AbstractElasticsearchConfiguration;
-import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
-import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchClients;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchConfiguration;
 import org.springframework.data.elasticsearch.repository.config.EnableElasticsearchRepositories;
 
 import java.time.Duration;
+import java.util.Arrays;
 
 /**
  * Elasticsearch Configuration for Product Service
  * Provides explicit configuration for Elasticsearch integration including:
  * - Connection settings and timeouts
- * - Index management
- * - Custom client configurations
+ * - All nodes from spring.elasticsearch.uris; the client round-robins requests across them and
+ *   takes a failing node out of rotation (retrying it with backoff) until it answers again
+ * - A sized connection pool whose usage is published as es.client.pool.* metrics
  * - Repository enablement
  */
 @Configuration
 @EnableElasticsearchRepositories(basePackages = "com.gitanjsheth.productservice.repositories")
-public class ElasticsearchConfig extends AbstractElasticsearchConfiguration {
+public class ElasticsearchConfig extends ElasticsearchConfiguration {
+
+    private final MeterRegistry meterRegistry;
 
     @Value("${spring.elasticsearch.uris:http://localhost:9200}")
     private String elasticsearchUris;
@@ -49,55 +55,91 @@ public class ElasticsearchConfig extends AbstractElasticsearchConfiguration {
     @Value("${spring.elasticsearch.number-of-replicas:0}")
     private int numberOfReplicas;
 
+    @Value("${app.elasticsearch.pool.max-total:100}")
+    private int maxConnectionsTotal;
+
+    @Value("${app.elasticsearch.pool.max-per-route:30}")
+    private int maxConnectionsPerRoute;
+
+    @Value("${app.elasticsearch.pool.keep-alive-ms:60000}")
+    private long keepAliveMs;
+
+    public ElasticsearchConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Override
-    @Bean
-    public RestHighLevelClient elasticsearchClient() {
+    public ClientConfiguration clientConfiguration() {
+        String[] hosts = extractHostsAndPorts(elasticsearchUris);
         ClientConfiguration.MaybeSecureClientConfigurationBuilder builder = ClientConfiguration.builder()
-                .connectedTo(extractHostAndPort(elasticsearchUris))
-                .withConnectTimeout(Duration.ofMillis(connectionTimeout))
+                .connectedTo(hosts);
+        ClientConfiguration.TerminalClientConfigurationBuilder terminal =
+                elasticsearchUris.contains("https://") ? builder.usingSsl() : builder;
+
+        terminal.withConnectTimeout(Duration.ofMillis(connectionTimeout))
                 .withSocketTimeout(Duration.ofMillis(socketTimeout));
 
         // Add authentication if credentials are provided
         if (username != null && !username.isEmpty() && password != null && !password.isEmpty()) {
-            builder.withBasicAuth(username, password);
+            terminal.withBasicAuth(username, password);
         }
 
-        // Add additional configurations
-        ClientConfiguration clientConfiguration = builder
-                .withClientConfigurer(RestClients.RestClientConfigurationCallback.from(clientBuilder -> {
-                    clientBuilder.setRequestConfigCallback(requestConfigBuilder -> requestConfigBuilder
-                            .setConnectTimeout(connectionTimeout)
-                            .setSocketTimeout(socketTimeout));
+        PoolingNHttpClientConnectionManager connectionManager = createConnectionManager();
+        return terminal
+                .withClientConfigurer(ElasticsearchClients.ElasticsearchHttpClientConfigurationCallback.from(clientBuilder -> {
+                    clientBuilder.setConnectionManager(connectionManager);
+                    clientBuilder.setKeepAliveStrategy((response, context) -> keepAliveMs);
                     return clientBuilder;
                 }))
                 .build();
+    }
 
-        return RestClients.create(clientConfiguration).rest();
+    /**
+     * Pool shared by all nodes: maxConnectionsPerRoute caps one node, maxConnectionsTotal the client.
+     */
+    private PoolingNHttpClientConnectionManager createConnectionManager() {
+        try {
+            IOReactorConfig reactorConfig = IOReactorConfig.custom()
+                    .setConnectTimeout(connectionTimeout)
+                    .setSoTimeout(socketTimeout)
+                    .build();
+            PoolingNHttpClientConnectionManager connectionManager =
+                    new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(reactorConfig));
+            connectionManager.setMaxTotal(maxConnectionsTotal);
+            connectionManager.setDefaultMaxPerRoute(maxConnectionsPerRoute);
+            registerPoolMetrics(connectionManager);
+            return connectionManager;
+        } catch (IOReactorException e) {
+            throw new IllegalStateException("Could not create Elasticsearch connection pool", e);
+        }
     }
 
-    @Bean
-    public ElasticsearchOperations elasticsearchTemplate() {
-        return new ElasticsearchRestTemplate(elasticsearchClient());
+    private void registerPoolMetrics(PoolingNHttpClientConnectionManager connectionManager) {
+        Gauge.builder("es.client.pool.leased", connectionManager, cm -> cm.getTotalStats().getLeased())
+                .description("Elasticsearch connections currently in use")
+                .register(meterRegistry);
+        Gauge.builder("es.client.pool.pending", connectionManager, cm -> cm.getTotalStats().getPending())
+                .description("Requests waiting for an Elasticsearch connection")
+                .register(meterRegistry);
+        Gauge.builder("es.client.pool.available", connectionManager, cm -> cm.getTotalStats().getAvailable())
+                .description("Idle pooled Elasticsearch connections")
+                .register(meterRegistry);
+        Gauge.builder("es.client.pool.saturation", connectionManager,
+                        cm -> (double) cm.getTotalStats().getLeased() / cm.getMaxTotal())
+                .description("Share of the Elasticsearch connection pool in use (1.0 = saturated)")
+                .register(meterRegistry);
     }
 
     /**
-     * Extract host and port from URI string
-     * Supports both single URI and comma-separated URIs
+     * Extract host:port of every node from a comma-separated URI list
      */
-    private String extractHostAndPort(String uris) {
-        if (uris.contains(",")) {
-            // Multiple URIs - take the first one for now
-            uris = uris.split(",")[0];
-        }
-        
-        // Remove protocol if present
-        if (uris.startsWith("http://")) {
-            uris = uris.substring(7);
-        } else if (uris.startsWith("https://")) {
-            uris = uris.substring(8);
-        }
-        
-        return uris;
+    private String[] extractHostsAndPorts(String uris) {
+        return Arrays.stream(uris.split(","))
+                .map(String::trim)
+                .filter(uri -> !uri.isEmpty())
+                .map(uri -> uri.replaceFirst("^https?://", ""))
+                .map(uri -> uri.endsWith("/") ? uri.substring(0, uri.length() - 1) : uri)
+                .toArray(String[]::new);
     }
 
     /**
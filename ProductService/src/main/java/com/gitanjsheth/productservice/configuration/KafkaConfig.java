@@ -0,0 +1,36 @@
+package com.gitanjsheth.productservice.configuration;
+
+import com.gitanjsheth.productservice.messaging.InventoryEventListener;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.ExponentialBackOff;
+
+/**
+ * Error handling for every @KafkaListener (Spring Boot wires this handler into its listener
+ * container factory). A poll that fails as a whole is retried with exponential backoff, since the
+ * usual cause is the database being briefly unavailable. Once the retries are used up, records of
+ * inventory.events are published to inventory.events.dlt; broadcast topics are not dead-lettered,
+ * as the periodic reload of each cache covers a missed message.
+ */
+@Configuration
+public class KafkaConfig {
+
+    @Bean
+    public DefaultErrorHandler kafkaErrorHandler(KafkaTemplate<String, Object> kafkaTemplate,
+                                                 @Value("${app.kafka.retry.initial-interval-ms:1000}") long initialIntervalMs,
+                                                 @Value("${app.kafka.retry.max-elapsed-ms:60000}") long maxElapsedMs) {
+        // Partition -1 lets the producer pick the dead-letter partition
+        DeadLetterPublishingRecoverer recoverer = new DeadLetterPublishingRecoverer(kafkaTemplate,
+                (record, exception) -> InventoryEventListener.TOPIC.equals(record.topic())
+                        ? new TopicPartition(InventoryEventListener.DEAD_LETTER_TOPIC, -1)
+                        : null);
+        ExponentialBackOff backOff = new ExponentialBackOff(initialIntervalMs, 2.0);
+        backOff.setMaxElapsedTime(maxElapsedMs);
+        return new DefaultErrorHandler(recoverer, backOff);
+    }
+}
@@ -0,0 +1,98 @@
+package com.gitanjsheth.productservice.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Read-replica routing, on when app.datasource.replicas.enabled=true.
+ * - The primary pool is the usual spring.datasource / spring.datasource.hikari one
+ * - Transactions marked @Transactional(readOnly = true) run on a replica (see ReplicaDataSource);
+ *   everything else - writes, stock reservations, locking reads - stays on the primary
+ * - The choice is made on first statement through LazyConnectionDataSourceProxy, by which time
+ *   the transaction's read-only flag is known; a read-only call that joins a write transaction
+ *   keeps using that transaction's primary connection
+ * - Replica health and lag are published as datasource.replicas.* metrics
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.datasource.replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    @Value("${app.datasource.replicas.urls}")
+    private List<String> replicaUrls;
+
+    @Value("${app.datasource.replicas.username:${spring.datasource.username:}}")
+    private String username;
+
+    @Value("${app.datasource.replicas.password:${spring.datasource.password:}}")
+    private String password;
+
+    @Value("${app.datasource.replicas.max-pool-size:10}")
+    private int maxPoolSize;
+
+    @Value("${app.datasource.replicas.connection-timeout-ms:1000}")
+    private long connectionTimeoutMs;
+
+    @Value("${app.datasource.replicas.max-lag-seconds:5}")
+    private long maxLagSeconds;
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, MeterRegistry meterRegistry) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + (i + 1));
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setDriverClassName(primaryDataSource.getDriverClassName());
+            Properties driverProperties = new Properties();
+            driverProperties.putAll(primaryDataSource.getDataSourceProperties());
+            replica.setDataSourceProperties(driverProperties);
+            replica.setMaximumPoolSize(maxPoolSize);
+            // Fail over to the next replica (or the primary) quickly instead of queueing on a dead one
+            replica.setConnectionTimeout(connectionTimeoutMs);
+            replica.setInitializationFailTimeout(-1);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        ReplicaDataSource replicaDataSource = new ReplicaDataSource(replicas, primaryDataSource, maxLagSeconds);
+
+        Gauge.builder("datasource.replicas.healthy", replicaDataSource, ReplicaDataSource::getHealthyReplicaCount)
+                .register(meterRegistry);
+        Gauge.builder("datasource.replicas.max_lag_seconds", replicaDataSource, ReplicaDataSource::getMaxReplicaLagSeconds)
+                .register(meterRegistry);
+        FunctionCounter.builder("datasource.replicas.fallback", replicaDataSource, ReplicaDataSource::getFallbackCount)
+                .description("Read-only connections served by the primary because no replica qualified")
+                .register(meterRegistry);
+        return replicaDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+}
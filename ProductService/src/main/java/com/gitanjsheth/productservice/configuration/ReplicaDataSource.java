@@ -0,0 +1,133 @@
+package com.gitanjsheth.productservice.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Connections for read-only transactions: round-robin over the MySQL replicas that are reachable
+ * and no further behind the primary than the allowed lag, falling back to the primary when none
+ * qualifies. Replication lag is sampled by checkLag(); a replica that fails to hand out a
+ * connection is skipped until the next check finds it healthy again.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+
+    private final List<Replica> replicas;
+    private final DataSource primary;
+    private final long maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public ReplicaDataSource(List<HikariDataSource> replicas, DataSource primary, long maxLagSeconds) {
+        this.replicas = replicas.stream().map(Replica::new).toList();
+        this.primary = primary;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) continue;
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.healthy = false;
+                log.warn("Replica {} unavailable, taking it out of rotation: {}", replica.name(), e.getMessage());
+            }
+        }
+        fallbacks.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    /**
+     * Sample every replica's lag; a replica whose replication is stopped (no lag reported) or
+     * behind by more than the allowed lag is left out until it catches up.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replicas.lag-check-interval-ms:5000}")
+    public void checkLag() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                Long lag = secondsBehindSource(connection);
+                boolean healthy = lag != null && lag <= maxLagSeconds;
+                if (healthy != replica.healthy) {
+                    log.info("Replica {} {} (lag {}s)", replica.name(), healthy ? "back in rotation" : "out of rotation", lag);
+                }
+                replica.lagSeconds = lag != null ? lag : -1;
+                replica.healthy = healthy;
+            } catch (SQLException e) {
+                if (replica.healthy) {
+                    log.warn("Replica {} lag check failed, taking it out of rotation: {}", replica.name(), e.getMessage());
+                }
+                replica.healthy = false;
+            }
+        }
+    }
+
+    public int getHealthyReplicaCount() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    public long getMaxReplicaLagSeconds() {
+        return replicas.stream().mapToLong(replica -> replica.lagSeconds).max().orElse(-1);
+    }
+
+    public long getFallbackCount() {
+        return fallbacks.get();
+    }
+
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    // SHOW REPLICA STATUS is MySQL 8.0.22+; older servers only know the SLAVE spelling.
+    // No row means the server is not replicating itself (e.g. a managed reader endpoint): no lag.
+    private static Long secondsBehindSource(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            try (ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                return rs.next() ? lag(rs, "Seconds_Behind_Source") : Long.valueOf(0);
+            } catch (SQLException e) {
+                try (ResultSet rs = statement.executeQuery("SHOW SLAVE STATUS")) {
+                    return rs.next() ? lag(rs, "Seconds_Behind_Master") : Long.valueOf(0);
+                }
+            }
+        }
+    }
+
+    private static Long lag(ResultSet rs, String column) throws SQLException {
+        long lag = rs.getLong(column);
+        return rs.wasNull() ? null : lag;
+    }
+
+    private static final class Replica {
+        private final HikariDataSource dataSource;
+        private volatile boolean healthy = true;
+        private volatile long lagSeconds = -1;
+
+        private Replica(HikariDataSource dataSource) {
+            this.dataSource = dataSource;
+        }
+
+        private String name() {
+            return dataSource.getPoolName();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.gitanjsheth.productservice.controllers;
+
+import com.gitanjsheth.productservice.dtos.BrowseResultDto;
+import com.gitanjsheth.productservice.services.BrowseService;
+import com.gitanjsheth.productservice.utils.ColumnarProductIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/products/browse")
+@CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080", "http://localhost:8081"})
+@RequiredArgsConstructor
+public class BrowseController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final BrowseService browseService;
+
+    /**
+     * Browse pages: category, price range and in-stock filters, sorted by price (price_asc or price_desc).
+     */
+    //localhost:8081/products/browse?category=Electronics&minPrice=100&maxPrice=500&inStock=true&sort=price_asc
+    @GetMapping
+    public ResponseEntity<BrowseResultDto> browse(@RequestParam(value = "category", required = false) String category,
+                                                  @RequestParam(value = "minPrice", required = false) Integer minPrice,
+                                                  @RequestParam(value = "maxPrice", required = false) Integer maxPrice,
+                                                  @RequestParam(value = "inStock", defaultValue = "false") boolean inStock,
+                                                  @RequestParam(value = "sort", defaultValue = "price_asc") String sort,
+                                                  @RequestParam(value = "page", defaultValue = "0") int page,
+                                                  @RequestParam(value = "size", defaultValue = "20") int size) {
+        ColumnarProductIndex.Sort order;
+        try {
+            order = ColumnarProductIndex.Sort.valueOf(sort.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return ResponseEntity.ok(browseService.browse(category, minPrice, maxPrice, inStock, order, page, size));
+    }
+}
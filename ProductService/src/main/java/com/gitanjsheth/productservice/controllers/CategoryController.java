@@ -3,12 +3,16 @@ package com.gitanjsheth.productservice.controllers;
 import com.gitanjsheth.productservice.exceptions.CategoryNotFoundException;
 import com.gitanjsheth.productservice.models.Category;
 import com.gitanjsheth.productservice.services.CategoryServiceInterface;
+import com.gitanjsheth.productservice.utils.CatalogVersion;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/categories")
@@ -17,6 +21,9 @@ public class CategoryController {
 
     private final CategoryServiceInterface categoryServiceInterface;
 
+    @Value("${app.http-cache.category-max-age-seconds:300}")
+    private long categoryMaxAgeSeconds;
+
     public CategoryController(CategoryServiceInterface categoryServiceInterface) {
         this.categoryServiceInterface = categoryServiceInterface;
     }
@@ -25,14 +32,14 @@ public class CategoryController {
     @GetMapping("/{id}")
     public ResponseEntity<Category> getSingleCategory(@PathVariable("id") Long categoryId) throws CategoryNotFoundException {
         Category category = categoryServiceInterface.getSingleCategory(categoryId);
-        return new ResponseEntity<>(category, HttpStatus.OK);
+        return cacheable(category, CatalogVersion.of("c" + categoryId, 1, category.getLastUpdatedAt()));
     }
 
     //localhost:8081/categories/
     @GetMapping("/")
     public ResponseEntity<List<Category>> getAllCategories() {
         List<Category> categories = categoryServiceInterface.getAllCategories();
-        return new ResponseEntity<>(categories, HttpStatus.OK);
+        return cacheable(categories, CatalogVersion.of("c", categories, Category::getLastUpdatedAt));
     }
 
     //localhost:8081/categories/
@@ -63,4 +70,16 @@ public class CategoryController {
         categoryServiceInterface.softDeleteCategory(categoryId);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
-} 
\ No newline at end of file
+
+    // Categories are served from memory, so the validators are computed from the body itself;
+    // Spring answers a matching If-None-Match/If-Modified-Since with 304 and no body
+    private <T> ResponseEntity<T> cacheable(T body, CatalogVersion version) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(version.getEtag())
+                .cacheControl(CacheControl.maxAge(categoryMaxAgeSeconds, TimeUnit.SECONDS).cachePublic());
+        if (version.getLastModifiedMillis() >= 0) {
+            response.lastModified(version.getLastModifiedMillis());
+        }
+        return response.body(body);
+    }
+}
@@ -1,5 +1,8 @@
 package com.gitanjsheth.productservice.controllers;
 
+import com.gitanjsheth.productservice.dtos.CartItemAvailabilityDto;
+import com.gitanjsheth.productservice.dtos.OrderInventoryRequestDto;
+import com.gitanjsheth.productservice.dtos.OrderInventoryResultDto;
 import com.gitanjsheth.productservice.dtos.ProductAvailabilityDto;
 import com.gitanjsheth.productservice.services.InventoryService;
 import jakarta.servlet.http.HttpServletRequest;
@@ -9,6 +12,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.function.Supplier;
+
 @RestController
 @RequestMapping("/products")
 @CrossOrigin(origins = {"http://localhost:3000", "http://localhost:8080", "http://localhost:8081", "http://localhost:8082"})
@@ -45,7 +50,7 @@ public class InventoryController {
         
         try {
             boolean success = inventoryService.reserveInventoryForCheckout(
-                productId, request.getQuantity(), request.getUserId());
+                productId, request.getQuantity(), request.getUserId(), request.getHoldReference());
             
             if (success) {
                 return ResponseEntity.ok().build();
@@ -68,7 +73,8 @@ public class InventoryController {
         }
         
         try {
-            inventoryService.releaseReservedInventory(productId, request.getQuantity(), request.getUserId());
+            inventoryService.releaseReservedInventory(productId, request.getQuantity(), request.getUserId(),
+                request.getHoldReference());
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             log.error("Error releasing inventory for product {}: {}", productId, e.getMessage());
@@ -86,7 +92,8 @@ public class InventoryController {
         }
         
         try {
-            inventoryService.confirmInventoryUsage(productId, request.getQuantity(), request.getUserId());
+            inventoryService.confirmInventoryUsage(productId, request.getQuantity(), request.getUserId(),
+                request.getHoldReference());
             return ResponseEntity.ok().build();
         } catch (Exception e) {
             log.error("Error confirming inventory usage for product {}: {}", productId, e.getMessage());
@@ -94,6 +101,31 @@ public class InventoryController {
         }
     }
     
+    // Order-level inventory operations (internal service endpoints) - one call covers every line item
+    @PostMapping("/inventory/orders/{orderReference}/reserve")
+    public ResponseEntity<OrderInventoryResultDto> reserveOrderInventory(@PathVariable String orderReference,
+                                                                        @RequestBody OrderInventoryRequestDto request,
+                                                                        HttpServletRequest httpRequest) {
+        return handleOrderInventory("reserve", orderReference, request, httpRequest,
+            () -> inventoryService.reserveInventoryForOrder(orderReference, request.getUserId(), request.getItems()));
+    }
+    
+    @PostMapping("/inventory/orders/{orderReference}/release")
+    public ResponseEntity<OrderInventoryResultDto> releaseOrderInventory(@PathVariable String orderReference,
+                                                                        @RequestBody OrderInventoryRequestDto request,
+                                                                        HttpServletRequest httpRequest) {
+        return handleOrderInventory("release", orderReference, request, httpRequest,
+            () -> inventoryService.releaseInventoryForOrder(orderReference, request.getItems()));
+    }
+    
+    @PostMapping("/inventory/orders/{orderReference}/confirm")
+    public ResponseEntity<OrderInventoryResultDto> confirmOrderInventory(@PathVariable String orderReference,
+                                                                        @RequestBody OrderInventoryRequestDto request,
+                                                                        HttpServletRequest httpRequest) {
+        return handleOrderInventory("confirm", orderReference, request, httpRequest,
+            () -> inventoryService.confirmInventoryForOrder(orderReference, request.getItems()));
+    }
+    
     // Validate multiple cart items (internal service endpoint)
     @PostMapping("/validate-cart")
     public ResponseEntity<java.util.Map<String, Object>> validateCart(@RequestBody java.util.Map<String, Object> body,
@@ -116,11 +148,18 @@ public class InventoryController {
                 validations.add(new com.gitanjsheth.productservice.services.InventoryService.CartItemValidation(pId, qty));
             }
 
-            boolean valid = inventoryService.validateCartItems(validations);
+            java.util.List<CartItemAvailabilityDto> availability = inventoryService.checkCartItems(validations);
+            java.util.List<String> errors = availability.stream()
+                .filter(item -> !item.getAvailable())
+                .map(item -> "Product " + item.getProductId() + ": " + item.getReason()
+                    + " (requested " + item.getRequestedQuantity() + ", available " + item.getAvailableQuantity() + ")")
+                .toList();
+            
             java.util.Map<String, Object> result = new java.util.HashMap<>();
-            result.put("valid", valid);
-            if (!valid) {
-                result.put("errors", java.util.List.of("One or more items are unavailable"));
+            result.put("valid", errors.isEmpty());
+            result.put("items", availability);
+            if (!errors.isEmpty()) {
+                result.put("errors", errors);
             }
             return ResponseEntity.ok(result);
         } catch (Exception e) {
@@ -129,6 +168,30 @@ public class InventoryController {
         }
     }
     
+    private ResponseEntity<OrderInventoryResultDto> handleOrderInventory(String operation, String orderReference,
+                                                                        OrderInventoryRequestDto request,
+                                                                        HttpServletRequest httpRequest,
+                                                                        Supplier<OrderInventoryResultDto> action) {
+        if (!isValidServiceRequest(httpRequest)) {
+            log.warn("Unauthorized order inventory {} request from {}", operation, httpRequest.getRemoteAddr());
+            return ResponseEntity.status(403).build();
+        }
+        if (request.getItems() == null || request.getItems().isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        try {
+            // Per-line results are returned either way; callers check the success flag
+            return ResponseEntity.ok(action.get());
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid order inventory {} request for order {}: {}", operation, orderReference, e.getMessage());
+            return ResponseEntity.badRequest().build();
+        } catch (Exception e) {
+            log.error("Error during order inventory {} for order {}: {}", operation, orderReference, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     /**
      * Validate that request is coming from authorized internal services
      */
@@ -197,6 +260,7 @@ public class InventoryController {
     public static class ReservationRequest {
         private Integer quantity;
         private Long userId;
+        private String holdReference; // Optional - order id; isolates holds of the same user
         
         public ReservationRequest() {}
         
@@ -210,5 +274,7 @@ public class InventoryController {
         public void setQuantity(Integer quantity) { this.quantity = quantity; }
         public Long getUserId() { return userId; }
         public void setUserId(Long userId) { this.userId = userId; }
+        public String getHoldReference() { return holdReference; }
+        public void setHoldReference(String holdReference) { this.holdReference = holdReference; }
     }
 }
\ No newline at end of file
@@ -1,19 +1,29 @@
 package com.gitanjsheth.productservice.controllers;
 
+import com.gitanjsheth.productservice.dtos.ProductDto;
 import com.gitanjsheth.productservice.exceptions.CategoryNotFoundException;
 import com.gitanjsheth.productservice.exceptions.ProductNotFoundException;
 import com.gitanjsheth.productservice.models.Product;
 import com.gitanjsheth.productservice.security.SecurityUtils;
 import com.gitanjsheth.productservice.security.UserPrincipal;
+import com.gitanjsheth.productservice.services.ProductQueryService;
 import com.gitanjsheth.productservice.services.ProductServiceInterface;
+import com.gitanjsheth.productservice.utils.CatalogVersion;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/products")
@@ -21,31 +31,73 @@ import java.util.List;
 public class ProductController {
 
     private final ProductServiceInterface productService;
+    private final ProductQueryService productQueryService;
 
-    public ProductController(@Qualifier("selfProductService") ProductServiceInterface productService) {
+    @Value("${app.products.multi-get.max-ids:200}")
+    private int maxMultiGetIds;
+
+    @Value("${app.http-cache.product-max-age-seconds:60}")
+    private long productMaxAgeSeconds;
+
+    @Value("${app.http-cache.product-list-max-age-seconds:30}")
+    private long productListMaxAgeSeconds;
+
+    public ProductController(@Qualifier("selfProductService") ProductServiceInterface productService,
+                             ProductQueryService productQueryService) {
         this.productService = productService;
+        this.productQueryService = productQueryService;
     }
 
+    // Reads return ProductDto projections (one query, category joined); writes still go through the entity service
+
     //localhost:8081/products/10
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getSingleProduct(@PathVariable("id") Long productId) throws ProductNotFoundException {
-        Product product = productService.getSingleProduct(productId);
-        return new ResponseEntity<>(product, HttpStatus.OK);
+    public ResponseEntity<ProductDto> getSingleProduct(@PathVariable("id") Long productId, WebRequest webRequest)
+            throws ProductNotFoundException {
+        CatalogVersion version = productQueryService.getProductVersion(productId);
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return notModified(productMaxAgeSeconds);
+        }
+        ProductDto product = productQueryService.getProduct(productId);
+        return ResponseEntity.ok().cacheControl(cacheControl(productMaxAgeSeconds)).body(product);
     }
 
     //localhost:8081/products
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
-        List<Product> products = productService.getAllProducts();
-        return new ResponseEntity<>(products, HttpStatus.OK);
+    public ResponseEntity<List<ProductDto>> getAllProducts(WebRequest webRequest) {
+        CatalogVersion version = productQueryService.getAllProductsVersion();
+        return conditional(webRequest, version, productListMaxAgeSeconds, productQueryService::getAllProducts);
+    }
+
+    //localhost:8081/products?ids=1,2,3&fields=title,price,imageURL
+    // Multi-get for service-to-service callers: one query, only the requested fields (id always included)
+    @GetMapping(params = "ids")
+    public ResponseEntity<List<Map<String, Object>>> getProductsByIds(
+            @RequestParam("ids") List<Long> productIds,
+            @RequestParam(value = "fields", required = false) Set<String> fields) {
+        if (productIds.isEmpty() || productIds.size() > maxMultiGetIds) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            List<Map<String, Object>> products = productQueryService.getProducts(productIds,
+                    fields != null ? fields : Set.of());
+            return new ResponseEntity<>(products, HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
     }
 
     //localhost:8081/products/category/{categoryId}
     @GetMapping("/category/{categoryId}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable("categoryId") Long categoryId) {
+    public ResponseEntity<List<ProductDto>> getProductsByCategory(@PathVariable("categoryId") Long categoryId,
+                                                                  WebRequest webRequest) {
         try {
-            List<Product> products = productService.getProductsByCategory(categoryId);
-            return new ResponseEntity<>(products, HttpStatus.OK);
+            CatalogVersion version = productQueryService.getProductsByCategoryVersion(categoryId);
+            if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+                return notModified(productListMaxAgeSeconds);
+            }
+            List<ProductDto> products = productQueryService.getProductsByCategory(categoryId);
+            return ResponseEntity.ok().cacheControl(cacheControl(productListMaxAgeSeconds)).body(products);
         } catch (CategoryNotFoundException e) {
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
@@ -53,9 +105,11 @@ public class ProductController {
 
     //localhost:8081/products/category/title/{categoryTitle}
     @GetMapping("/category/title/{categoryTitle}")
-    public ResponseEntity<List<Product>> getProductsByCategoryTitle(@PathVariable("categoryTitle") String categoryTitle) {
-        List<Product> products = productService.getProductsByCategoryTitle(categoryTitle);
-        return new ResponseEntity<>(products, HttpStatus.OK);
+    public ResponseEntity<List<ProductDto>> getProductsByCategoryTitle(@PathVariable("categoryTitle") String categoryTitle,
+                                                                       WebRequest webRequest) {
+        CatalogVersion version = productQueryService.getProductsByCategoryTitleVersion(categoryTitle);
+        return conditional(webRequest, version, productListMaxAgeSeconds,
+                () -> productQueryService.getProductsByCategoryTitle(categoryTitle));
     }
 
     //localhost:8081/products/
@@ -114,4 +168,23 @@ public class ProductController {
         productService.softDeleteById(productId);
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
+
+    // Conditional GET: the version is a single aggregate query, so a matching If-None-Match or
+    // If-Modified-Since gets its 304 before the body is queried. checkNotModified also writes the
+    // ETag and Last-Modified headers on the response.
+    private static <T> ResponseEntity<T> conditional(WebRequest webRequest, CatalogVersion version, long maxAgeSeconds,
+                                                     Supplier<T> body) {
+        if (webRequest.checkNotModified(version.getEtag(), version.getLastModifiedMillis())) {
+            return notModified(maxAgeSeconds);
+        }
+        return ResponseEntity.ok().cacheControl(cacheControl(maxAgeSeconds)).body(body.get());
+    }
+
+    private static <T> ResponseEntity<T> notModified(long maxAgeSeconds) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl(maxAgeSeconds)).build();
+    }
+
+    private static CacheControl cacheControl(long maxAgeSeconds) {
+        return CacheControl.maxAge(maxAgeSeconds, TimeUnit.SECONDS).cachePublic();
+    }
 }
@@ -0,0 +1,36 @@
+package com.gitanjsheth.productservice.controllers;
+
+import com.gitanjsheth.productservice.dtos.ProductImportResultDto;
+import com.gitanjsheth.productservice.services.ProductImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/products")
+@RequiredArgsConstructor
+public class ProductImportController {
+    private final ProductImportService productImportService;
+
+    /**
+     * Bulk ingest of a supplier catalog, one product per NDJSON line or CSV record (header row first).
+     * Rows that fail validation are skipped and reported with their line number.
+     */
+    //localhost:8081/products/import
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ProductImportResultDto> importProducts(HttpServletRequest request) throws IOException {
+        ProductImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        return ResponseEntity.ok(productImportService.importProducts(request.getInputStream(), format));
+    }
+}
@@ -1,27 +1,51 @@
 package com.gitanjsheth.productservice.controllers;
 
+import com.gitanjsheth.productservice.dtos.ReindexStatusDto;
+import com.gitanjsheth.productservice.dtos.SearchBenchmarkDto;
+import com.gitanjsheth.productservice.services.SearchReindexService;
 import com.gitanjsheth.productservice.services.SearchService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.Map;
+import java.util.List;
 
 @RestController
 @RequestMapping("/admin/search")
 @RequiredArgsConstructor
 public class SearchAdminController {
+    private final SearchReindexService searchReindexService;
     private final SearchService searchService;
 
+    /**
+     * Starts a background rebuild into a fresh index; poll /reindex/status for progress.
+     */
     @PostMapping("/reindex")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Map<String, Object>> reindexAll() {
-        long count = searchService.reindexAll();
-        return ResponseEntity.ok(Map.of("indexed", count));
+    public ResponseEntity<ReindexStatusDto> reindexAll() {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(searchReindexService.startReindex());
     }
-}
 
+    @GetMapping("/reindex/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ReindexStatusDto> getReindexStatus() {
+        return ResponseEntity.ok(searchReindexService.getStatus());
+    }
 
+    /**
+     * Compares uncached query latency of Elasticsearch and the embedded index (when enabled).
+     */
+    @GetMapping("/benchmark")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<SearchBenchmarkDto>> benchmark(
+            @RequestParam(value = "q", defaultValue = "") String query,
+            @RequestParam(value = "iterations", defaultValue = "50") int iterations) {
+        return ResponseEntity.ok(searchService.benchmark(query, Math.max(1, Math.min(iterations, 1000))));
+    }
+}
@@ -1,28 +1,84 @@
 package com.gitanjsheth.productservice.controllers;
 
-import com.gitanjsheth.productservice.models.SearchAnalytics;
-import com.gitanjsheth.productservice.repositories.SearchAnalyticsRepository;
+import com.gitanjsheth.productservice.dtos.LatencyPercentilesDto;
+import com.gitanjsheth.productservice.dtos.QueryStatsDto;
+import com.gitanjsheth.productservice.dtos.SearchAnalyticsEventPageDto;
+import com.gitanjsheth.productservice.services.SearchAnalyticsReportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Time ranges default to the last 24 hours; from/to are ISO date-times (from inclusive, to exclusive).
+ */
 @RestController
 @RequestMapping("/admin/search-analytics")
 @RequiredArgsConstructor
 public class SearchAnalyticsController {
 
-    private final SearchAnalyticsRepository repository;
+    private static final int MAX_PAGE_SIZE = 500;
 
+    private final SearchAnalyticsReportService reportService;
+
+    /**
+     * Raw events, keyset-paginated by id for drill-down.
+     */
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<SearchAnalytics>> list() {
-        return ResponseEntity.ok(repository.findAll());
+    public ResponseEntity<SearchAnalyticsEventPageDto> list(
+            @RequestParam(value = "afterId", required = false) Long afterId,
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "query", required = false) String query,
+            @RequestParam(value = "size", defaultValue = "100") int size) {
+        return ResponseEntity.ok(reportService.getEvents(afterId, fromOrDefault(from), toOrDefault(to), query, clampSize(size)));
+    }
+
+    @GetMapping("/top-queries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<QueryStatsDto>> topQueries(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(reportService.getTopQueries(fromOrDefault(from), toOrDefault(to), Math.max(page, 0), clampSize(size)));
+    }
+
+    @GetMapping("/zero-result-queries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<QueryStatsDto>> zeroResultQueries(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "page", defaultValue = "0") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(reportService.getZeroResultQueries(fromOrDefault(from), toOrDefault(to), Math.max(page, 0), clampSize(size)));
     }
-}
 
+    @GetMapping("/latency")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<LatencyPercentilesDto> latency(
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok(reportService.getLatencyPercentiles(fromOrDefault(from), toOrDefault(to)));
+    }
+
+    private LocalDateTime fromOrDefault(LocalDateTime from) {
+        return from != null ? from : LocalDateTime.now().minusDays(1);
+    }
 
+    private LocalDateTime toOrDefault(LocalDateTime to) {
+        return to != null ? to : LocalDateTime.now().plusMinutes(1);
+    }
+
+    private int clampSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+}
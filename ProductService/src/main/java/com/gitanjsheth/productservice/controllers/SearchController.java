@@ -1,11 +1,12 @@
 package com.gitanjsheth.productservice.controllers;
 
-import com.gitanjsheth.productservice.models.ProductSearchDocument;
+import com.gitanjsheth.productservice.dtos.SearchFiltersDto;
+import com.gitanjsheth.productservice.dtos.SearchResultDto;
+import com.gitanjsheth.productservice.services.AutocompleteService;
 import com.gitanjsheth.productservice.services.SearchService;
 import com.gitanjsheth.productservice.services.SearchAnalyticsService;
 import lombok.RequiredArgsConstructor;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,14 +20,28 @@ public class SearchController {
 
     private final SearchService searchService;
     private final SearchAnalyticsService analyticsService;
+    private final AutocompleteService autocompleteService;
 
+    /**
+     * Full-text search with optional filters; category and price facet counts come back in the same response.
+     */
     @GetMapping
-    public ResponseEntity<Page<ProductSearchDocument>> search(@RequestParam("q") String query,
-                                                             @RequestParam(value = "page", defaultValue = "0") int page,
-                                                             @RequestParam(value = "size", defaultValue = "10") int size,
-                                                             HttpServletRequest request) {
+    public ResponseEntity<SearchResultDto> search(@RequestParam(value = "q", defaultValue = "") String query,
+                                                  @RequestParam(value = "category", required = false) String category,
+                                                  @RequestParam(value = "minPrice", required = false) Integer minPrice,
+                                                  @RequestParam(value = "maxPrice", required = false) Integer maxPrice,
+                                                  @RequestParam(value = "inStock", defaultValue = "false") boolean inStock,
+                                                  @RequestParam(value = "page", defaultValue = "0") int page,
+                                                  @RequestParam(value = "size", defaultValue = "10") int size,
+                                                  HttpServletRequest request) {
+        SearchFiltersDto filters = new SearchFiltersDto();
+        filters.setCategory(category);
+        filters.setMinPrice(minPrice);
+        filters.setMaxPrice(maxPrice);
+        filters.setInStock(inStock);
+
         long start = System.currentTimeMillis();
-        Page<ProductSearchDocument> result = searchService.search(query, page, size);
+        SearchResultDto result = searchService.search(query, filters, page, size);
         long elapsed = System.currentTimeMillis() - start;
         analyticsService.record(query, elapsed, (int) result.getTotalElements(),
                 request.getHeader("User-Agent"), request.getRemoteAddr());
@@ -38,7 +53,7 @@ public class SearchController {
                                                      @RequestParam(value = "size", defaultValue = "10") int size,
                                                      HttpServletRequest request) {
         long start = System.currentTimeMillis();
-        List<String> suggestions = searchService.autocomplete(prefix, size);
+        List<String> suggestions = autocompleteService.complete(prefix, size);
         long elapsed = System.currentTimeMillis() - start;
         analyticsService.record(prefix, elapsed, suggestions.size(),
                 request.getHeader("User-Agent"), request.getRemoteAddr());
@@ -0,0 +1,19 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of GET /products/browse, with the paging field names of Spring's Page JSON.
+ */
+@Getter
+@Setter
+public class BrowseResultDto {
+    private List<ProductDto> content;
+    private int number;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+}
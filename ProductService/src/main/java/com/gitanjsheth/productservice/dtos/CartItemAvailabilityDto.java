@@ -0,0 +1,39 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Per-line result of a cart validation. shortfall is how many units are missing for the
+ * requested quantity (0 when available or backorder is allowed).
+ */
+@Getter
+@Setter
+public class CartItemAvailabilityDto {
+    
+    private Long productId;
+    private Integer requestedQuantity;
+    private Boolean available;
+    private Boolean isActive;
+    private Boolean isOutOfStock;
+    private Boolean allowBackorder;
+    private Integer availableQuantity;
+    private Integer shortfall;
+    private String reason;
+    
+    public CartItemAvailabilityDto() {}
+    
+    public CartItemAvailabilityDto(Long productId, Integer requestedQuantity, Boolean available,
+                                   Boolean isActive, Boolean isOutOfStock, Boolean allowBackorder,
+                                   Integer availableQuantity, Integer shortfall, String reason) {
+        this.productId = productId;
+        this.requestedQuantity = requestedQuantity;
+        this.available = available;
+        this.isActive = isActive;
+        this.isOutOfStock = isOutOfStock;
+        this.allowBackorder = allowBackorder;
+        this.availableQuantity = availableQuantity;
+        this.shortfall = shortfall;
+        this.reason = reason;
+    }
+}
@@ -0,0 +1,18 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CategorySummaryDto {
+    private Long id;
+    private String title;
+
+    public CategorySummaryDto() {}
+
+    public CategorySummaryDto(Long id, String title) {
+        this.id = id;
+        this.title = title;
+    }
+}
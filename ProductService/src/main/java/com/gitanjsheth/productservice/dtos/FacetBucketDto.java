@@ -0,0 +1,22 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class FacetBucketDto {
+    private String key;
+    private long count;
+    private Integer from; // price facets only, inclusive
+    private Integer to;   // price facets only, exclusive
+
+    public FacetBucketDto() {}
+
+    public FacetBucketDto(String key, long count, Integer from, Integer to) {
+        this.key = key;
+        this.count = count;
+        this.from = from;
+        this.to = to;
+    }
+}
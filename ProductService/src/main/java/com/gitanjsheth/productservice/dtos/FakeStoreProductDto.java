@@ -1,11 +1,13 @@
 package com.gitanjsheth.productservice.dtos;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.gitanjsheth.productservice.models.Category;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
+@JsonIgnoreProperties(ignoreUnknown = true) // FakeStore also sends a rating object
 public class FakeStoreProductDto {
     private Long id;
     private String title;
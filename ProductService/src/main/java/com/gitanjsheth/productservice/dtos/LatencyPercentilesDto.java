@@ -0,0 +1,23 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Latency percentiles estimated from the rollup histograms; each value is the upper bound of
+ * the bucket the percentile falls in (the observed maximum for the open-ended last bucket).
+ */
+@Getter
+@Setter
+public class LatencyPercentilesDto {
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private long searchCount;
+    private long p50Ms;
+    private long p90Ms;
+    private long p95Ms;
+    private long p99Ms;
+    private long maxLatencyMs;
+}
@@ -0,0 +1,18 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class OrderInventoryItemDto {
+    private Long productId;
+    private Integer quantity;
+
+    public OrderInventoryItemDto() {}
+
+    public OrderInventoryItemDto(Long productId, Integer quantity) {
+        this.productId = productId;
+        this.quantity = quantity;
+    }
+}
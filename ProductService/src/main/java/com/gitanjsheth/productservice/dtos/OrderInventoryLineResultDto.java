@@ -0,0 +1,25 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class OrderInventoryLineResultDto {
+    private Long productId;
+    private Integer quantity;
+    private boolean success;
+    private Integer availableQuantity;
+    private String message;
+
+    public OrderInventoryLineResultDto() {}
+
+    public OrderInventoryLineResultDto(Long productId, Integer quantity, boolean success,
+                                       Integer availableQuantity, String message) {
+        this.productId = productId;
+        this.quantity = quantity;
+        this.success = success;
+        this.availableQuantity = availableQuantity;
+        this.message = message;
+    }
+}
@@ -0,0 +1,13 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class OrderInventoryRequestDto {
+    private Long userId;
+    private List<OrderInventoryItemDto> items;
+}
@@ -0,0 +1,22 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class OrderInventoryResultDto {
+    private String orderReference;
+    private boolean success;
+    private List<OrderInventoryLineResultDto> lines;
+
+    public OrderInventoryResultDto() {}
+
+    public OrderInventoryResultDto(String orderReference, boolean success, List<OrderInventoryLineResultDto> lines) {
+        this.orderReference = orderReference;
+        this.success = success;
+        this.lines = lines;
+    }
+}
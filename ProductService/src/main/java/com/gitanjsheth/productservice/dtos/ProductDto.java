@@ -0,0 +1,50 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Read model for product endpoints, filled straight from a JPQL constructor expression
+ * (see ProductRepository.PRODUCT_DTO_SELECT): no managed entities, no lazy category loads.
+ * Field names match the Product JSON that clients already read.
+ */
+@Getter
+@Setter
+public class ProductDto {
+    private Long id;
+    private String title;
+    private Integer price;
+    private String description;
+    private String imageURL;
+    private CategorySummaryDto category;
+    private Integer stockQuantity;
+    private Integer reservedQuantity;
+    private Integer availableQuantity;
+    private Boolean isOutOfStock;
+    private Boolean showWhenOutOfStock;
+    private Boolean allowBackorder;
+    private Integer lowStockThreshold;
+    private Boolean isActive;
+
+    public ProductDto() {}
+
+    public ProductDto(Long id, String title, Integer price, String description, String imageURL,
+                      Long categoryId, String categoryTitle, Integer stockQuantity, Integer reservedQuantity,
+                      Boolean isOutOfStock, Boolean showWhenOutOfStock, Boolean allowBackorder,
+                      Integer lowStockThreshold, Boolean isActive) {
+        this.id = id;
+        this.title = title;
+        this.price = price;
+        this.description = description;
+        this.imageURL = imageURL;
+        this.category = categoryId != null ? new CategorySummaryDto(categoryId, categoryTitle) : null;
+        this.stockQuantity = stockQuantity;
+        this.reservedQuantity = reservedQuantity;
+        this.availableQuantity = stockQuantity - reservedQuantity;
+        this.isOutOfStock = isOutOfStock;
+        this.showWhenOutOfStock = showWhenOutOfStock;
+        this.allowBackorder = allowBackorder;
+        this.lowStockThreshold = lowStockThreshold;
+        this.isActive = isActive;
+    }
+}
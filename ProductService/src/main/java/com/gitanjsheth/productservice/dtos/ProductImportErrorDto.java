@@ -0,0 +1,18 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class ProductImportErrorDto {
+    private long line; // 1-based line number in the uploaded stream
+    private String message;
+
+    public ProductImportErrorDto() {}
+
+    public ProductImportErrorDto(long line, String message) {
+        this.line = line;
+        this.message = message;
+    }
+}
@@ -0,0 +1,16 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+@Setter
+public class ProductImportResultDto {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private List<ProductImportErrorDto> errors = new ArrayList<>(); // first app.products.import.max-errors failures
+}
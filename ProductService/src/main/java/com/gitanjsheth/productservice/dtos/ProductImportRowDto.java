@@ -0,0 +1,24 @@
+package com.gitanjsheth.productservice.dtos;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One product in a bulk import (an NDJSON line or a CSV record; CSV headers use these names).
+ */
+@Getter
+@Setter
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ProductImportRowDto {
+    private String title;
+    private Integer price;
+    private String description;
+    private String imageURL;
+    private String category; // category title; created if it does not exist yet
+    private Integer stockQuantity;
+    private Integer lowStockThreshold;
+    private Boolean allowBackorder;
+    private Boolean showWhenOutOfStock;
+    private Boolean isActive;
+}
@@ -0,0 +1,15 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class QueryStatsDto {
+    private String query;
+    private long searchCount;
+    private long zeroResultCount;
+    private double zeroResultRate;
+    private double averageLatencyMs;
+    private long maxLatencyMs;
+}
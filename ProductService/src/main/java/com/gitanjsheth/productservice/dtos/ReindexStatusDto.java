@@ -0,0 +1,20 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+public class ReindexStatusDto {
+    private String state; // IDLE, RUNNING, COMPLETED, FAILED
+    private String targetIndex;
+    private String alias;
+    private long totalProducts;
+    private long indexedDocuments;
+    private long inFlightBulkRequests;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
@@ -0,0 +1,17 @@
+package com.gitanjsheth.productservice.dtos;
+
+import com.gitanjsheth.productservice.models.SearchAnalytics;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One keyset page of raw analytics rows; pass nextAfterId back as afterId for the next page.
+ */
+@Getter
+@Setter
+public class SearchAnalyticsEventPageDto {
+    private List<SearchAnalytics> items;
+    private Long nextAfterId; // null on the last page
+}
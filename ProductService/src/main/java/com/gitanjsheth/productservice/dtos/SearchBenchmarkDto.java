@@ -0,0 +1,16 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class SearchBenchmarkDto {
+    private String backend; // elasticsearch, embedded
+    private int iterations;
+    private double averageMs;
+    private double p50Ms;
+    private double p99Ms;
+    private double maxMs;
+    private long totalHits;
+}
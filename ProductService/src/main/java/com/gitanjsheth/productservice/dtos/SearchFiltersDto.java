@@ -0,0 +1,27 @@
+package com.gitanjsheth.productservice.dtos;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Structured /search filters; all optional. inStock keeps only active products with
+ * availableQuantity > 0.
+ */
+@Getter
+@Setter
+public class SearchFiltersDto {
+    private String category;
+    private Integer minPrice;
+    private Integer maxPrice;
+    private boolean inStock;
+
+    public boolean isEmpty() {
+        return category == null && minPrice == null && maxPrice == null && !inStock;
+    }
+
+    // Stable textual form, used in cache keys
+    public String toKey() {
+        return (category != null ? category : "") + "|" + (minPrice != null ? minPrice : "")
+                + "|" + (maxPrice != null ? maxPrice : "") + "|" + inStock;
+    }
+}
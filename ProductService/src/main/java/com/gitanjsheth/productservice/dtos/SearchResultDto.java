@@ -0,0 +1,25 @@
+package com.gitanjsheth.productservice.dtos;
+
+import com.gitanjsheth.productservice.models.ProductSearchDocument;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * One page of search hits plus facet counts over all matching products.
+ * Paging fields keep the names of Spring's Page JSON so existing clients keep working.
+ */
+@Getter
+@Setter
+public class SearchResultDto {
+    private List<ProductSearchDocument> content;
+    private int number;
+    private int size;
+    private long totalElements;
+    private int totalPages;
+    private List<FacetBucketDto> categoryFacets;
+    private List<FacetBucketDto> priceFacets;
+    private boolean partial;  // some shards timed out or failed; hits and counts may be incomplete
+    private boolean fallback; // served by the embedded index or database title lookup while Elasticsearch is unavailable
+}
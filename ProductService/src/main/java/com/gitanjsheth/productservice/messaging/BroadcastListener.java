@@ -0,0 +1,29 @@
+package com.gitanjsheth.productservice.messaging;
+
+import org.springframework.core.annotation.AliasFor;
+import org.springframework.kafka.annotation.KafkaListener;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * A @KafkaListener that every instance runs for itself: each listener joins its own consumer
+ * group (a fresh ${random.uuid} per start), so every instance sees every message, and a new group
+ * starts at the latest offset rather than replaying the topic. Used for cache invalidation
+ * broadcasts, where the periodic reload of each cache covers anything missed while down.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@KafkaListener(groupId = "product-service-${random.uuid}", properties = "auto.offset.reset=latest")
+public @interface BroadcastListener {
+
+    @AliasFor(annotation = KafkaListener.class, attribute = "id")
+    String id();
+
+    @AliasFor(annotation = KafkaListener.class, attribute = "topics")
+    String[] topics();
+}
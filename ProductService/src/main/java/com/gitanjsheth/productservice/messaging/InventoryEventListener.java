@@ -1,11 +1,21 @@
 package com.gitanjsheth.productservice.messaging;
 
+import com.gitanjsheth.productservice.dtos.OrderInventoryItemDto;
+import com.gitanjsheth.productservice.dtos.OrderInventoryResultDto;
+import com.gitanjsheth.productservice.models.InventoryAction;
 import com.gitanjsheth.productservice.services.InventoryService;
+import com.gitanjsheth.productservice.services.InventoryService.OrderInventoryCommand;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -14,48 +24,134 @@ import java.util.Map;
 @Slf4j
 public class InventoryEventListener {
 
+    public static final String TOPIC = "inventory.events";
+    public static final String DEAD_LETTER_TOPIC = "inventory.events.dlt";
+
     private final InventoryService inventoryService;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
 
-    @KafkaListener(topics = "inventory.events", groupId = "product-service")
-    public void handleInventoryEvent(Map<String, Object> event) {
-        try {
-            String eventType = (String) event.get("eventType");
-            String orderId = (String) event.get("orderId");
-            List<Map<String, Object>> items = (List<Map<String, Object>>) event.get("items");
+    /**
+     * Consumes a whole poll at once. Events are turned into one command per (orderId, action) and
+     * applied in a single transaction, so each product gets one update per batch. An event that
+     * cannot be read is dead-lettered on its own. If the batch transaction fails, its commands are
+     * retried one by one to isolate the bad one; only when every command fails (e.g. the database
+     * is down) does the failure propagate, and the container's error handler (see KafkaConfig)
+     * retries the poll with backoff before dead-lettering it. The (orderId, action) ledger makes
+     * redelivery and the retries harmless.
+     */
+    @KafkaListener(topics = TOPIC, groupId = "product-service", batch = "true")
+    public void handleInventoryEvents(List<Map<String, Object>> events) {
+        List<OrderInventoryCommand> commands = new ArrayList<>();
+        for (Map<String, Object> event : events) {
+            try {
+                commands.addAll(toCommands(event));
+            } catch (Exception e) {
+                log.error("Dead-lettering malformed inventory event: {}", event, e);
+                deadLetter(event, e);
+            }
+        }
 
-            log.info("Received inventory event {} for order {} with {} items", eventType, orderId, items != null ? items.size() : 0);
+        log.info("Received {} inventory events ({} commands)", events.size(), commands.size());
+        if (commands.isEmpty()) {
+            return;
+        }
 
-            if (items == null) {
-                return;
-            }
+        List<OrderInventoryResultDto> results;
+        try {
+            results = inventoryService.applyOrderCommands(commands);
+        } catch (RuntimeException batchFailure) {
+            log.warn("Inventory batch of {} commands failed, retrying one by one: {}",
+                    commands.size(), batchFailure.getMessage());
+            results = applyOneByOne(commands, batchFailure);
+        }
+        results.stream()
+                .filter(result -> !result.isSuccess())
+                .forEach(result -> log.warn("Inventory command rejected for order {}: {}",
+                        result.getOrderReference(), result.getLines()));
+    }
 
-            for (Map<String, Object> item : items) {
-                Long productId = ((Number) item.get("productId")).longValue();
-                Integer quantity = ((Number) item.get("quantity")).intValue();
-                String action = (String) item.get("action");
-
-                switch (action) {
-                    case "RESERVE":
-                        // Use orderId hash to create a stable, segregated hold key when userId is unavailable
-                        Long holdKeyUserId = orderId != null ? Math.abs(orderId.hashCode()) + 0L : -1L;
-                        inventoryService.reserveInventoryForCheckout(productId, quantity, holdKeyUserId);
-                        break;
-                    case "RELEASE":
-                        Long releaseKeyUserId = orderId != null ? Math.abs(orderId.hashCode()) + 0L : -1L;
-                        inventoryService.releaseReservedInventory(productId, quantity, releaseKeyUserId);
-                        break;
-                    case "CONFIRM":
-                        Long confirmKeyUserId = orderId != null ? Math.abs(orderId.hashCode()) + 0L : -1L;
-                        inventoryService.confirmInventoryUsage(productId, quantity, confirmKeyUserId);
-                        break;
-                    default:
-                        log.warn("Unknown inventory action: {}", action);
-                }
+    private List<OrderInventoryResultDto> applyOneByOne(List<OrderInventoryCommand> commands, RuntimeException batchFailure) {
+        List<OrderInventoryResultDto> results = new ArrayList<>();
+        Map<OrderInventoryCommand, Exception> failed = new LinkedHashMap<>();
+        for (OrderInventoryCommand command : commands) {
+            try {
+                results.addAll(inventoryService.applyOrderCommands(List.of(command)));
+            } catch (Exception e) {
+                failed.put(command, e);
             }
+        }
+        if (failed.size() == commands.size()) {
+            throw batchFailure;
+        }
+        failed.forEach((command, e) -> {
+            log.error("Dead-lettering inventory command {} for order {}", command.getAction(), command.getOrderReference(), e);
+            deadLetter(toEvent(command), e);
+        });
+        return results;
+    }
+
+    // Same shape as the error handler's dead letters: the event as is, the cause in the DLT headers
+    private void deadLetter(Map<String, Object> event, Exception cause) {
+        ProducerRecord<String, Object> record = new ProducerRecord<>(DEAD_LETTER_TOPIC, event);
+        record.headers().add(KafkaHeaders.DLT_EXCEPTION_FQCN, cause.getClass().getName().getBytes(StandardCharsets.UTF_8));
+        record.headers().add(KafkaHeaders.DLT_EXCEPTION_MESSAGE,
+                String.valueOf(cause.getMessage()).getBytes(StandardCharsets.UTF_8));
+        try {
+            kafkaTemplate.send(record);
         } catch (Exception e) {
-            log.error("Failed to process inventory event: {}", event, e);
+            log.error("Could not dead-letter inventory event {}: {}", event, e.getMessage());
         }
     }
-}
 
+    // Same shape as an inventory.events message, so a dead-lettered command can be replayed as is
+    private static Map<String, Object> toEvent(OrderInventoryCommand command) {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (OrderInventoryItemDto item : command.getItems()) {
+            items.add(Map.of("productId", item.getProductId(), "quantity", item.getQuantity(),
+                    "action", command.getAction().name()));
+        }
+        return Map.of("orderId", command.getOrderReference(), "items", items);
+    }
+
+    private List<OrderInventoryCommand> toCommands(Map<String, Object> event) {
+        String eventType = (String) event.get("eventType");
+        String orderId = (String) event.get("orderId");
+        List<Map<String, Object>> items = (List<Map<String, Object>>) event.get("items");
+
+        if (items == null || items.isEmpty()) {
+            return List.of();
+        }
+        if (orderId == null) {
+            // Without an order id there is nothing to key holds or idempotency on
+            log.warn("Ignoring inventory event {} without orderId", eventType);
+            return List.of();
+        }
+
+        Map<InventoryAction, List<OrderInventoryItemDto>> itemsByAction = new LinkedHashMap<>();
+        for (Map<String, Object> item : items) {
+            String action = (String) item.get("action");
+            InventoryAction inventoryAction;
+            try {
+                inventoryAction = InventoryAction.valueOf(action);
+            } catch (IllegalArgumentException | NullPointerException e) {
+                log.warn("Unknown inventory action: {}", action);
+                continue;
+            }
+            // One bad line rejects the whole event: applying the rest would reserve part of an order
+            if (!(item.get("productId") instanceof Number productId) || productId.longValue() <= 0) {
+                throw new IllegalArgumentException("Invalid productId: " + item.get("productId"));
+            }
+            if (!(item.get("quantity") instanceof Number quantity) || quantity.intValue() <= 0
+                    || quantity.doubleValue() != quantity.intValue()) {
+                throw new IllegalArgumentException("Invalid quantity for product " + productId + ": " + item.get("quantity"));
+            }
+            itemsByAction.computeIfAbsent(inventoryAction, key -> new ArrayList<>())
+                    .add(new OrderInventoryItemDto(productId.longValue(), quantity.intValue()));
+        }
 
+        List<OrderInventoryCommand> commands = new ArrayList<>();
+        itemsByAction.forEach((action, actionItems) ->
+                commands.add(new OrderInventoryCommand(orderId, action, null, actionItems)));
+        return commands;
+    }
+}
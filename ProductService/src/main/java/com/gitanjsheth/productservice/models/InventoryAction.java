@@ -0,0 +1,17 @@
+package com.gitanjsheth.productservice.models;
+
+public enum InventoryAction {
+    RESERVE("Reserved"),
+    RELEASE("Released"),
+    CONFIRM("Confirmed");
+
+    private final String pastTense;
+
+    InventoryAction(String pastTense) {
+        this.pastTense = pastTense;
+    }
+
+    public String getPastTense() {
+        return pastTense;
+    }
+}
@@ -0,0 +1,42 @@
+package com.gitanjsheth.productservice.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Durable record of reserved stock. One row per reservation so that holds survive restarts
+ * and two orders from the same user never overwrite each other.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "inventory_hold", indexes = {
+        @Index(name = "idx_inventory_hold_expires_at", columnList = "expires_at"),
+        @Index(name = "idx_inventory_hold_product_user", columnList = "product_id, user_id")
+})
+public class InventoryHold extends BaseModel {
+
+    @Column(name = "hold_key", unique = true, nullable = false)
+    private String holdKey; // productId:holdReference
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "hold_reference", nullable = false)
+    private String holdReference; // Order id when known, generated otherwise
+
+    @Column(nullable = false)
+    private Integer quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,37 @@
+package com.gitanjsheth.productservice.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Idempotency ledger: an order-level inventory action is applied at most once, whether it
+ * arrives over HTTP, from Kafka, or as a redelivery of either.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "processed_inventory_action", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_processed_inventory_action", columnNames = {"order_reference", "action"})
+})
+public class ProcessedInventoryAction extends BaseModel {
+
+    @Column(name = "order_reference", nullable = false)
+    private String orderReference;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private InventoryAction action;
+
+    public ProcessedInventoryAction(String orderReference, InventoryAction action) {
+        this.orderReference = orderReference;
+        this.action = action;
+    }
+}
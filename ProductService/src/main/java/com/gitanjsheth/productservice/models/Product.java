@@ -2,7 +2,10 @@ package com.gitanjsheth.productservice.models;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.Table;
 import jakarta.validation.constraints.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,6 +15,11 @@ import org.hibernate.annotations.Where;
 @Getter
 @Setter
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_product_last_updated_at", columnList = "lastUpdatedAt"),
+        @Index(name = "idx_product_is_out_of_stock", columnList = "is_out_of_stock"),
+        @Index(name = "idx_product_is_low_stock", columnList = "is_low_stock")
+})
 @Where(clause = "deleted = false")
 @SQLDelete(sql = "UPDATE product SET deleted = true WHERE id = ?")
 public class Product extends BaseModel {
@@ -59,6 +67,9 @@ public class Product extends BaseModel {
     @Min(value = 0, message = "Low stock threshold cannot be negative")
     private Integer lowStockThreshold = 10;
     
+    @Column(name = "is_low_stock", nullable = false)
+    private Boolean isLowStock = false; // stockQuantity <= lowStockThreshold, kept in sync on every stock write
+    
     @Column(name = "is_active", nullable = false)
     private Boolean isActive = true; // Product visibility toggle
     
@@ -72,6 +83,18 @@ public class Product extends BaseModel {
         this.isOutOfStock = getAvailableQuantity() <= 0;
     }
     
+    // Auto-update low stock status
+    public void updateLowStockStatus() {
+        this.isLowStock = lowStockThreshold != null && stockQuantity <= lowStockThreshold;
+    }
+    
+    // New rows start with flags that match their stock
+    @PrePersist
+    void initStockStatus() {
+        updateOutOfStockStatus();
+        updateLowStockStatus();
+    }
+    
     // Check if product can be added to cart
     public boolean isAvailableForCart(Integer requestedQuantity) {
         return isActive && 
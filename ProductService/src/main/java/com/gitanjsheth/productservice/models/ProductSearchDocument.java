@@ -11,9 +11,10 @@ import org.springframework.data.elasticsearch.annotations.FieldType;
 @Getter
 @Setter
 @NoArgsConstructor
-@Document(indexName = "products")
+@Document(indexName = "products", createIndex = false) // created by the reindex flow, behind an alias
 public class ProductSearchDocument {
 
+    // Always the product id, so index, update and delete address the document directly
     @Id
     private String id;
 
@@ -37,6 +38,23 @@ public class ProductSearchDocument {
 
     @Field(type = FieldType.Boolean)
     private Boolean isActive;
+
+    public static String documentId(Long productId) {
+        return String.valueOf(productId);
+    }
+
+    public static ProductSearchDocument from(Product product) {
+        ProductSearchDocument doc = new ProductSearchDocument();
+        doc.setId(documentId(product.getId()));
+        doc.setProductId(product.getId());
+        doc.setTitle(product.getTitle());
+        doc.setDescription(product.getDescription());
+        doc.setCategory(product.getCategory() != null ? product.getCategory().getTitle() : null);
+        doc.setPrice(product.getPrice());
+        doc.setAvailableQuantity(product.getAvailableQuantity());
+        doc.setIsActive(Boolean.TRUE.equals(product.getIsActive()));
+        return doc;
+    }
 }
 
 
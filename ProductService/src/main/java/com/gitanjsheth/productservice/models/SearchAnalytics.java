@@ -2,12 +2,17 @@ package com.gitanjsheth.productservice.models;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
 
 @Getter
 @Setter
 @Entity
+@Table(name = "search_analytics", indexes = {
+        @Index(name = "idx_search_analytics_created_at", columnList = "created_at")
+})
 public class SearchAnalytics extends BaseModel {
 
     @Column(nullable = false)
@@ -0,0 +1,71 @@
+package com.gitanjsheth.productservice.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Per-minute, per-query search statistics maintained by the analytics writer.
+ * Latency is kept as a fixed-bucket histogram so rollups can be summed over any time range.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "search_analytics_rollup", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_search_rollup_minute_query", columnNames = {"minute_bucket", "query"})
+}, indexes = {
+        @Index(name = "idx_search_rollup_minute", columnList = "minute_bucket")
+})
+public class SearchAnalyticsRollup extends BaseModel {
+
+    // Upper bounds (inclusive) of the latency buckets; the last column counts everything slower
+    public static final long[] LATENCY_BUCKET_BOUNDS_MS = {10, 25, 50, 100, 250, 500, 1000};
+
+    @Column(name = "minute_bucket", nullable = false)
+    private LocalDateTime minuteBucket;
+
+    @Column(nullable = false)
+    private String query;
+
+    @Column(name = "search_count", nullable = false)
+    private Long searchCount;
+
+    @Column(name = "zero_result_count", nullable = false)
+    private Long zeroResultCount;
+
+    @Column(name = "total_latency_ms", nullable = false)
+    private Long totalLatencyMs;
+
+    @Column(name = "max_latency_ms", nullable = false)
+    private Long maxLatencyMs;
+
+    @Column(name = "latency_le_10ms", nullable = false)
+    private Long latencyLe10ms;
+
+    @Column(name = "latency_le_25ms", nullable = false)
+    private Long latencyLe25ms;
+
+    @Column(name = "latency_le_50ms", nullable = false)
+    private Long latencyLe50ms;
+
+    @Column(name = "latency_le_100ms", nullable = false)
+    private Long latencyLe100ms;
+
+    @Column(name = "latency_le_250ms", nullable = false)
+    private Long latencyLe250ms;
+
+    @Column(name = "latency_le_500ms", nullable = false)
+    private Long latencyLe500ms;
+
+    @Column(name = "latency_le_1000ms", nullable = false)
+    private Long latencyLe1000ms;
+
+    @Column(name = "latency_gt_1000ms", nullable = false)
+    private Long latencyGt1000ms;
+}
@@ -0,0 +1,28 @@
+package com.gitanjsheth.productservice.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Pending search index change, written in the same transaction as the product write.
+ * Rows only name the product; the relay reads its current state, so a product that no longer
+ * exists (deleted or soft-deleted) is removed from the index.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "search_outbox")
+public class SearchOutboxEntry extends BaseModel {
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    public SearchOutboxEntry(Long productId) {
+        this.productId = productId;
+    }
+}
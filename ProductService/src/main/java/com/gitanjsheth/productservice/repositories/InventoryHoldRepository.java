@@ -0,0 +1,34 @@
+package com.gitanjsheth.productservice.repositories;
+
+import com.gitanjsheth.productservice.models.InventoryHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventoryHoldRepository extends JpaRepository<InventoryHold, Long> {
+
+    Optional<InventoryHold> findByHoldKey(String holdKey);
+
+    // Oldest hold first - used when callers release by user without a hold reference
+    Optional<InventoryHold> findFirstByProductIdAndUserIdOrderByExpiresAtAsc(Long productId, Long userId);
+
+    List<InventoryHold> findByExpiresAtBefore(LocalDateTime cutoff);
+
+    List<InventoryHold> findByHoldReferenceIn(Collection<String> holdReferences);
+
+    // Conditional delete - a return value of 1 means this caller owns the release
+    @Modifying
+    @Query("DELETE FROM InventoryHold h WHERE h.holdKey = ?1")
+    int deleteByHoldKey(String holdKey);
+
+    @Modifying
+    @Query("DELETE FROM InventoryHold h WHERE h.holdKey IN ?1")
+    int deleteByHoldKeyIn(Collection<String> holdKeys);
+}
@@ -0,0 +1,23 @@
+package com.gitanjsheth.productservice.repositories;
+
+import com.gitanjsheth.productservice.models.ProcessedInventoryAction;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProcessedInventoryActionRepository extends JpaRepository<ProcessedInventoryAction, Long> {
+
+    List<ProcessedInventoryAction> findByOrderReferenceIn(Collection<String> orderReferences);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ProcessedInventoryAction a WHERE a.createdAt < ?1")
+    int deleteProcessedBefore(LocalDateTime cutoff);
+}
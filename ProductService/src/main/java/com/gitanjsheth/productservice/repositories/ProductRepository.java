@@ -1,7 +1,11 @@
 package com.gitanjsheth.productservice.repositories;
 
+import com.gitanjsheth.productservice.dtos.ProductDto;
 import com.gitanjsheth.productservice.models.Category;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -9,12 +13,60 @@ import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import com.gitanjsheth.productservice.models.Product;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
 
+    // Read path for the product endpoints: one query with the category joined, rows built as DTOs
+    String PRODUCT_DTO_SELECT = "SELECT new com.gitanjsheth.productservice.dtos.ProductDto("
+            + "p.id, p.title, p.price, p.description, p.imageURL, c.id, c.title, p.stockQuantity, p.reservedQuantity, "
+            + "p.isOutOfStock, p.showWhenOutOfStock, p.allowBackorder, p.lowStockThreshold, p.isActive) "
+            + "FROM Product p LEFT JOIN p.category c ";
+
+    // Row count and latest change of what a read endpoint would return (HTTP ETag/Last-Modified);
+    // answered from the last_updated_at index without reading the rows
+    interface CatalogStamp {
+        long getCount();
+
+        LocalDateTime getLastUpdatedAt();
+    }
+
+    String CATALOG_STAMP_SELECT = "SELECT COUNT(p) AS count, MAX(p.lastUpdatedAt) AS lastUpdatedAt FROM Product p ";
+
+    @Query(CATALOG_STAMP_SELECT + "WHERE p.id = ?1")
+    CatalogStamp findStampById(Long productId);
+
+    @Query(CATALOG_STAMP_SELECT)
+    CatalogStamp findStamp();
+
+    @Query(CATALOG_STAMP_SELECT + "WHERE p.category.id = ?1")
+    CatalogStamp findStampByCategoryId(Long categoryId);
+
+    @Query(CATALOG_STAMP_SELECT + "WHERE p.category.title = ?1")
+    CatalogStamp findStampByCategoryTitle(String categoryTitle);
+
+    @Query(PRODUCT_DTO_SELECT + "WHERE p.id = ?1")
+    Optional<ProductDto> findDtoById(Long productId);
+
+    @Query(PRODUCT_DTO_SELECT + "ORDER BY p.id")
+    List<ProductDto> findAllDtos();
+
+    @Query(PRODUCT_DTO_SELECT + "WHERE p.id IN ?1")
+    List<ProductDto> findDtosByIdIn(Collection<Long> productIds);
+
+    @Query(PRODUCT_DTO_SELECT + "WHERE p.id > ?1 ORDER BY p.id")
+    List<ProductDto> findDtoPageAfterId(Long lastSeenId, Pageable pageable);
+
+    @Query(PRODUCT_DTO_SELECT + "WHERE c.id = ?1 ORDER BY p.id")
+    List<ProductDto> findDtosByCategoryId(Long categoryId);
+
+    @Query(PRODUCT_DTO_SELECT + "WHERE c.title = ?1 ORDER BY p.id")
+    List<ProductDto> findDtosByCategoryTitle(String categoryTitle);
+
     // findById and findAll now automatically exclude soft-deleted products via @Where annotation
 
     // These queries now automatically exclude soft-deleted products via @Where annotation
@@ -49,8 +101,37 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Inventory management queries
     List<Product> findByIsOutOfStockTrue();
     
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity <= p.lowStockThreshold AND p.isActive = true")
-    List<Product> findLowStockProducts();
+    // Stock level flags (indexed) behind the in-memory low/out-of-stock sets
+    @Query("SELECT p.id FROM Product p WHERE p.isOutOfStock = true")
+    List<Long> findOutOfStockIds();
+
+    @Query("SELECT p.id FROM Product p WHERE p.isLowStock = true")
+    List<Long> findLowStockIds();
+
+    // Bring the stock level flags in line for rows written before they existed or outside the entity
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.isLowStock = true WHERE p.isLowStock = false AND p.stockQuantity <= p.lowStockThreshold")
+    int markLowStock();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.isLowStock = false WHERE p.isLowStock = true "
+            + "AND (p.lowStockThreshold IS NULL OR p.stockQuantity > p.lowStockThreshold)")
+    int clearLowStock();
+
+    // The out-of-stock flag is part of product responses, so a correction counts as a change
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.isOutOfStock = true, p.lastUpdatedAt = CURRENT_TIMESTAMP "
+            + "WHERE p.isOutOfStock = false AND p.stockQuantity - p.reservedQuantity <= 0")
+    int markOutOfStock();
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Product p SET p.isOutOfStock = false, p.lastUpdatedAt = CURRENT_TIMESTAMP "
+            + "WHERE p.isOutOfStock = true AND p.stockQuantity - p.reservedQuantity > 0")
+    int clearOutOfStock();
     
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND (p.isOutOfStock = false OR p.allowBackorder = true)")
     List<Product> findAvailableProducts();
@@ -58,4 +139,42 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p WHERE p.isActive = true AND p.showWhenOutOfStock = true")
     List<Product> findDisplayableProducts();
 
+    // Keyset pagination for streaming the catalog (search reindex); category fetched in the same query
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id > ?1 ORDER BY p.id")
+    List<Product> findPageAfterId(Long lastSeenId, Pageable pageable);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.lastUpdatedAt >= ?1")
+    List<Product> findUpdatedSince(LocalDateTime since);
+
+    @Query("SELECT p.id FROM Product p WHERE p.lastUpdatedAt >= ?1")
+    List<Long> findIdsUpdatedSince(LocalDateTime since);
+
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category WHERE p.id IN ?1")
+    List<Product> findAllWithCategoryByIdIn(Collection<Long> ids);
+
+    // Degraded /search while Elasticsearch is unavailable: bounded title match, same filters
+    @Query("SELECT p FROM Product p LEFT JOIN FETCH p.category c "
+            + "WHERE (:title = '' OR LOWER(p.title) LIKE LOWER(CONCAT('%', :title, '%'))) "
+            + "AND (:category IS NULL OR c.title = :category) "
+            + "AND (:minPrice IS NULL OR p.price >= :minPrice) "
+            + "AND (:maxPrice IS NULL OR p.price <= :maxPrice) "
+            + "AND (:inStock = false OR (p.isActive = true AND p.stockQuantity - p.reservedQuantity > 0)) "
+            + "ORDER BY p.id")
+    List<Product> searchByTitleFallback(@Param("title") String title,
+                                        @Param("category") String category,
+                                        @Param("minPrice") Integer minPrice,
+                                        @Param("maxPrice") Integer maxPrice,
+                                        @Param("inStock") boolean inStock,
+                                        Pageable pageable);
+
+    // Row locks for reservation paths (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id = ?1")
+    Optional<Product> findByIdForUpdate(Long productId);
+
+    // Locks are taken in id order so concurrent multi-product reservations cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Product p WHERE p.id IN ?1 ORDER BY p.id")
+    List<Product> findAllByIdForUpdate(Collection<Long> productIds);
+
 }
@@ -1,11 +1,19 @@
 package com.gitanjsheth.productservice.repositories;
 
 import com.gitanjsheth.productservice.models.SearchAnalytics;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 @Repository
 public interface SearchAnalyticsRepository extends JpaRepository<SearchAnalytics, Long> {
-}
-
 
+    // Keyset page for drill-down; query is optional
+    @Query("SELECT a FROM SearchAnalytics a WHERE a.id > ?1 AND a.createdAt >= ?2 AND a.createdAt < ?3 " +
+            "AND (?4 IS NULL OR a.query = ?4) ORDER BY a.id")
+    List<SearchAnalytics> findPageAfterId(Long afterId, LocalDateTime from, LocalDateTime to, String query, Pageable pageable);
+}
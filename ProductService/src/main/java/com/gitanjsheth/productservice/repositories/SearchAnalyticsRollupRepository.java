@@ -0,0 +1,41 @@
+package com.gitanjsheth.productservice.repositories;
+
+import com.gitanjsheth.productservice.models.SearchAnalyticsRollup;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SearchAnalyticsRollupRepository extends JpaRepository<SearchAnalyticsRollup, Long> {
+
+    // Rows: [query, searches, zero-result searches, total latency, max latency]
+    @Query("SELECT r.query, SUM(r.searchCount), SUM(r.zeroResultCount), SUM(r.totalLatencyMs), MAX(r.maxLatencyMs) " +
+            "FROM SearchAnalyticsRollup r WHERE r.minuteBucket >= ?1 AND r.minuteBucket < ?2 " +
+            "GROUP BY r.query ORDER BY SUM(r.searchCount) DESC, r.query")
+    List<Object[]> findTopQueries(LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    @Query("SELECT r.query, SUM(r.searchCount), SUM(r.zeroResultCount), SUM(r.totalLatencyMs), MAX(r.maxLatencyMs) " +
+            "FROM SearchAnalyticsRollup r WHERE r.minuteBucket >= ?1 AND r.minuteBucket < ?2 " +
+            "GROUP BY r.query HAVING SUM(r.zeroResultCount) > 0 ORDER BY SUM(r.zeroResultCount) DESC, r.query")
+    List<Object[]> findZeroResultQueries(LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    // [query, searches] pairs, used to rank autocomplete suggestions; callers normalize and merge the queries
+    @Query("SELECT r.query, SUM(r.searchCount) FROM SearchAnalyticsRollup r WHERE r.minuteBucket >= ?1 GROUP BY r.query")
+    List<Object[]> countQueriesSince(LocalDateTime since);
+
+    // Most searched normalized queries, used to pre-warm the search result cache
+    @Query("SELECT LOWER(TRIM(r.query)) FROM SearchAnalyticsRollup r WHERE r.minuteBucket >= ?1 " +
+            "GROUP BY LOWER(TRIM(r.query)) ORDER BY SUM(r.searchCount) DESC")
+    List<String> findTopQueriesSince(LocalDateTime since, Pageable pageable);
+
+    // Single row: [searches, max latency, bucket counts in LATENCY_BUCKET_BOUNDS_MS order..., slower than last bound]
+    @Query("SELECT SUM(r.searchCount), MAX(r.maxLatencyMs), SUM(r.latencyLe10ms), SUM(r.latencyLe25ms), " +
+            "SUM(r.latencyLe50ms), SUM(r.latencyLe100ms), SUM(r.latencyLe250ms), SUM(r.latencyLe500ms), " +
+            "SUM(r.latencyLe1000ms), SUM(r.latencyGt1000ms) " +
+            "FROM SearchAnalyticsRollup r WHERE r.minuteBucket >= ?1 AND r.minuteBucket < ?2")
+    List<Object[]> sumLatencyHistogram(LocalDateTime from, LocalDateTime to);
+}
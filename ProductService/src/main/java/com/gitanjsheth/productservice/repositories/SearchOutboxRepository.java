@@ -0,0 +1,31 @@
+package com.gitanjsheth.productservice.repositories;
+
+import com.gitanjsheth.productservice.models.SearchOutboxEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SearchOutboxRepository extends JpaRepository<SearchOutboxEntry, Long> {
+
+    /**
+     * Lock the oldest rows for relaying, in the caller's transaction. NOWAIT fails straight away
+     * while another instance holds them, so one instance relays at a time and batches reach the
+     * index in id order.
+     */
+    @Query(value = "SELECT * FROM search_outbox ORDER BY id LIMIT ?1 FOR UPDATE NOWAIT", nativeQuery = true)
+    List<SearchOutboxEntry> claimOldest(int limit);
+
+    Optional<SearchOutboxEntry> findFirstByOrderByIdAsc();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM SearchOutboxEntry e WHERE e.id IN ?1")
+    int deleteByIdIn(Collection<Long> ids);
+}
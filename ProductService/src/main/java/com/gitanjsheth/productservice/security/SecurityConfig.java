@@ -35,6 +35,7 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/products").permitAll()
                 .requestMatchers(HttpMethod.GET, "/products/").permitAll() 
                 .requestMatchers(HttpMethod.GET, "/products/{id:[0-9]+}").permitAll()
+                .requestMatchers(HttpMethod.GET, "/products/browse").permitAll()
                 .requestMatchers(HttpMethod.GET, "/categories/**").permitAll()
                 
                 // Product availability - public read access
@@ -42,6 +43,8 @@ public class SecurityConfig {
                 
                 // Internal service endpoints - validated via service token in controller
                 .requestMatchers(HttpMethod.POST, "/products/{id:[0-9]+}/inventory/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/products/inventory/orders/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/products/validate-cart").permitAll()
                 
                 // User-specific endpoints - require authentication (any role)
                 .requestMatchers("/products/wishlist", "/products/wishlist/**", "/products/user/**", "/products/me").authenticated()
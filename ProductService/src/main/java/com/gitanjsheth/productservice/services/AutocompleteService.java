@@ -0,0 +1,159 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.repositories.SearchAnalyticsRollupRepository;
+import com.gitanjsheth.productservice.utils.CompletionTrie;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process autocomplete over active product titles, answered without calling Elasticsearch.
+ * Titles are ranked by how often their words were searched recently (the per-minute search rollups).
+ * The trie is rebuilt in the background on a schedule to pick up new query frequencies and
+ * patched incrementally by the search outbox relay whenever products are (re)indexed or removed,
+ * on the relaying instance directly and on the others from its product.changes announcement.
+ */
+@Service
+@Slf4j
+public class AutocompleteService {
+
+    private final ProductRepository productRepository;
+    private final SearchAnalyticsRollupRepository searchAnalyticsRollupRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private CompletionTrie trie;
+    private Map<String, Long> queryCounts = Map.of();
+    private Map<String, Long> tokenCounts = Map.of();
+
+    @Value("${app.search.autocomplete.top-k:10}")
+    private int topK;
+
+    @Value("${app.search.autocomplete.max-key-length:32}")
+    private int maxKeyLength;
+
+    @Value("${app.search.autocomplete.popularity-window-days:30}")
+    private int popularityWindowDays;
+
+    @Value("${app.search.reindex.page-size:500}")
+    private int pageSize;
+
+    public AutocompleteService(ProductRepository productRepository,
+                               SearchAnalyticsRollupRepository searchAnalyticsRollupRepository) {
+        this.productRepository = productRepository;
+        this.searchAnalyticsRollupRepository = searchAnalyticsRollupRepository;
+    }
+
+    public List<String> complete(String prefix, int size) {
+        lock.readLock().lock();
+        try {
+            return trie == null ? List.of() : trie.complete(prefix, Math.min(size, topK));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.search.autocomplete.refresh-interval-ms:600000}",
+            fixedDelayString = "${app.search.autocomplete.refresh-interval-ms:600000}")
+    public void rebuild() {
+        try {
+            Map<String, Long> counts = loadQueryCounts();
+            Map<String, Long> tokens = tokenCounts(counts);
+            CompletionTrie fresh = new CompletionTrie(topK, maxKeyLength);
+
+            long lastSeenId = 0L;
+            List<Product> page;
+            do {
+                page = productRepository.findPageAfterId(lastSeenId, PageRequest.of(0, pageSize));
+                for (Product product : page) {
+                    if (Boolean.TRUE.equals(product.getIsActive())) {
+                        fresh.put(product.getId(), product.getTitle(), weightOf(product.getTitle(), counts, tokens));
+                    }
+                }
+                if (!page.isEmpty()) {
+                    lastSeenId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == pageSize);
+
+            lock.writeLock().lock();
+            try {
+                trie = fresh;
+                queryCounts = counts;
+                tokenCounts = tokens;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.info("Autocomplete index rebuilt with {} titles", fresh.size());
+        } catch (Exception e) {
+            log.warn("Autocomplete rebuild failed, keeping previous index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Apply a batch of index changes (called by the search outbox relay, or for a batch another
+     * instance relayed).
+     */
+    public void onProductsChanged(List<Product> indexed, Collection<Long> removedIds) {
+        lock.writeLock().lock();
+        try {
+            if (trie == null) return;
+            for (Product product : indexed) {
+                if (Boolean.TRUE.equals(product.getIsActive())) {
+                    trie.put(product.getId(), product.getTitle(), weightOf(product.getTitle(), queryCounts, tokenCounts));
+                } else {
+                    trie.remove(product.getId());
+                }
+            }
+            for (Long productId : removedIds) {
+                trie.remove(productId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<String, Long> loadQueryCounts() {
+        LocalDateTime since = LocalDateTime.now().minusDays(popularityWindowDays);
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : searchAnalyticsRollupRepository.countQueriesSince(since)) {
+            String query = CompletionTrie.normalize((String) row[0]);
+            if (!query.isEmpty()) {
+                counts.merge(query, ((Number) row[1]).longValue(), Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private Map<String, Long> tokenCounts(Map<String, Long> counts) {
+        Map<String, Long> tokens = new HashMap<>();
+        counts.forEach((query, count) -> {
+            for (String token : query.split(" ")) {
+                tokens.merge(token, count, Long::sum);
+            }
+        });
+        return tokens;
+    }
+
+    // Exact title searches count most; each searched word in the title adds its frequency
+    private long weightOf(String title, Map<String, Long> counts, Map<String, Long> tokenCounts) {
+        String normalized = CompletionTrie.normalize(title);
+        long weight = 1 + 10 * counts.getOrDefault(normalized, 0L);
+        for (String token : normalized.split(" ")) {
+            weight += tokenCounts.getOrDefault(token, 0L);
+        }
+        return weight;
+    }
+}
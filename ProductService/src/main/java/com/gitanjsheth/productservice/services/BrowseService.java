@@ -0,0 +1,188 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.BrowseResultDto;
+import com.gitanjsheth.productservice.dtos.ProductDto;
+import com.gitanjsheth.productservice.messaging.BroadcastListener;
+import com.gitanjsheth.productservice.models.Category;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.utils.ChangeWatermark;
+import com.gitanjsheth.productservice.utils.ColumnarProductIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Category / price range / in-stock browsing with price sort, answered from an in-memory
+ * ColumnarProductIndex of the active products instead of MySQL or Elasticsearch. Only the page's
+ * rows are then read, with one id lookup. The index is built at startup and kept current from
+ * product.changes (catalog writes) and inventory.stock-levels (in-stock crossings). A short
+ * last_updated_at poll picks up rows whose events were lost, and a periodic rebuild covers the rest
+ * (e.g. a missed soft delete).
+ */
+@Service
+@Slf4j
+public class BrowseService {
+
+    private final ProductRepository productRepository;
+    private final CategoryCache categoryCache;
+    private final Set<Long> changedDuringRebuild = new HashSet<>();
+    private volatile ColumnarProductIndex index = new ColumnarProductIndex();
+    private boolean rebuilding;
+    private final ChangeWatermark changes = new ChangeWatermark();
+
+    @Value("${app.browse-index.page-size:1000}")
+    private int pageSize;
+
+    public BrowseService(ProductRepository productRepository, CategoryCache categoryCache) {
+        this.productRepository = productRepository;
+        this.categoryCache = categoryCache;
+    }
+
+    /**
+     * Category is matched by title; an unknown category has no products.
+     */
+    public BrowseResultDto browse(String categoryTitle, Integer minPrice, Integer maxPrice, boolean inStock,
+                                  ColumnarProductIndex.Sort sort, int page, int size) {
+        Long categoryId = null;
+        if (categoryTitle != null && !categoryTitle.isBlank()) {
+            Optional<Category> category = categoryCache.findByTitle(categoryTitle);
+            if (category.isEmpty()) {
+                return toResult(List.of(), 0, page, size);
+            }
+            categoryId = category.get().getId();
+        }
+
+        ColumnarProductIndex.Page hits = index.query(categoryId, minPrice, maxPrice, inStock, sort,
+                (int) Math.min((long) page * size, Integer.MAX_VALUE), size);
+        List<Long> productIds = new ArrayList<>(hits.getProductIds().length);
+        for (long productId : hits.getProductIds()) {
+            productIds.add(productId);
+        }
+        Map<Long, ProductDto> byId = productIds.isEmpty() ? Map.of() : productRepository.findDtosByIdIn(productIds).stream()
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+        List<ProductDto> products = productIds.stream().map(byId::get).filter(Objects::nonNull).toList();
+        return toResult(products, hits.getTotalMatches(), page, size);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.browse-index.rebuild-interval-ms:900000}",
+            fixedDelayString = "${app.browse-index.rebuild-interval-ms:900000}")
+    public void rebuild() {
+        synchronized (changedDuringRebuild) {
+            rebuilding = true;
+        }
+        try {
+            ColumnarProductIndex rebuilt = new ColumnarProductIndex();
+            long lastSeenId = 0L;
+            List<ProductDto> page;
+            do {
+                page = productRepository.findDtoPageAfterId(lastSeenId, PageRequest.of(0, pageSize));
+                page.forEach(product -> apply(rebuilt, product));
+                if (!page.isEmpty()) {
+                    lastSeenId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == pageSize);
+            index = rebuilt;
+            log.info("Browse index built with {} active products", rebuilt.size());
+        } catch (Exception e) {
+            log.warn("Browse index rebuild failed, keeping the current index: {}", e.getMessage());
+        } finally {
+            Set<Long> changed;
+            synchronized (changedDuringRebuild) {
+                rebuilding = false;
+                changed = new HashSet<>(changedDuringRebuild);
+                changedDuringRebuild.clear();
+            }
+            // Changes that raced the rebuild may be missing from the pages it read
+            refresh(changed);
+        }
+    }
+
+    @BroadcastListener(id = "browse-product-changes", topics = CatalogSnapshotService.TOPIC)
+    public void handleProductChanges(Map<String, Object> event) {
+        if (!(event.get("productIds") instanceof Collection<?> ids)) return;
+        Set<Long> productIds = new HashSet<>();
+        for (Object id : ids) {
+            if (id instanceof Number number) productIds.add(number.longValue());
+        }
+        refresh(productIds);
+    }
+
+    @BroadcastListener(id = "browse-stock-levels", topics = StockLevelTracker.TOPIC)
+    public void handleStockLevelEvent(Map<String, Object> event) {
+        if (!(event.get("productId") instanceof Number productId)) return;
+        index.setInStock(productId.longValue(), !Boolean.TRUE.equals(event.get("outOfStock")));
+        recordIfRebuilding(Set.of(productId.longValue()));
+    }
+
+    @Scheduled(fixedDelayString = "${app.browse-index.delta-poll-ms:5000}")
+    public void pollChanges() {
+        try {
+            changes.poll(productRepository::findIdsUpdatedSince, this::refresh);
+        } catch (Exception e) {
+            log.warn("Browse index change poll failed: {}", e.getMessage());
+        }
+    }
+
+    // False when the rows could not be read; the caller's ids are then still stale
+    private boolean refresh(Set<Long> productIds) {
+        if (productIds.isEmpty()) return true;
+        recordIfRebuilding(productIds);
+        try {
+            ColumnarProductIndex current = index;
+            Set<Long> missing = new HashSet<>(productIds);
+            for (ProductDto product : productRepository.findDtosByIdIn(productIds)) {
+                missing.remove(product.getId());
+                apply(current, product);
+            }
+            missing.forEach(current::remove);
+            return true;
+        } catch (Exception e) {
+            log.warn("Could not refresh {} products in the browse index: {}", productIds.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    private void recordIfRebuilding(Set<Long> productIds) {
+        synchronized (changedDuringRebuild) {
+            if (rebuilding) {
+                changedDuringRebuild.addAll(productIds);
+            }
+        }
+    }
+
+    // Inactive or uncategorised products are not browsable; in stock matches search (available > 0)
+    private static void apply(ColumnarProductIndex target, ProductDto product) {
+        if (!Boolean.TRUE.equals(product.getIsActive()) || product.getCategory() == null || product.getPrice() == null) {
+            target.remove(product.getId());
+            return;
+        }
+        target.upsert(product.getId(), product.getPrice(), product.getCategory().getId(),
+                product.getAvailableQuantity() > 0);
+    }
+
+    private static BrowseResultDto toResult(List<ProductDto> products, long total, int page, int size) {
+        BrowseResultDto result = new BrowseResultDto();
+        result.setContent(products);
+        result.setNumber(page);
+        result.setSize(size);
+        result.setTotalElements(total);
+        result.setTotalPages((int) ((total + size - 1) / size));
+        return result;
+    }
+}
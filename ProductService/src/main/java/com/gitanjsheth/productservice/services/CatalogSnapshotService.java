@@ -0,0 +1,206 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.ProductDto;
+import com.gitanjsheth.productservice.messaging.BroadcastListener;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.utils.CatalogSnapshotFile;
+import com.gitanjsheth.productservice.utils.ChangeWatermark;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serves single-product reads from a memory-mapped catalog snapshot (see CatalogSnapshotFile)
+ * for a while after startup, so a freshly deployed instance does not send every read to MySQL.
+ * - Nodes with app.catalog-snapshot.generate=true rewrite the snapshot periodically
+ * - Every node maps the latest snapshot at startup and answers from it for serve-for-ms
+ * - Products changed since the snapshot was taken are marked stale and read from the database:
+ *   catalog and stock writes arrive on product.changes (replayed from the snapshot's timestamp),
+ *   and polling the last_updated_at index catches anything written without an announcement
+ */
+@Service
+@Slf4j
+public class CatalogSnapshotService implements ConsumerSeekAware {
+
+    public static final String TOPIC = "product.changes";
+
+    private final ProductRepository productRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final Set<Long> staleIds = ConcurrentHashMap.newKeySet();
+    private volatile CatalogSnapshotFile snapshot;
+    private volatile long serveUntilMillis;
+    private final ChangeWatermark changes = new ChangeWatermark();
+
+    @Value("${app.catalog-snapshot.path:./data/catalog.snapshot}")
+    private Path snapshotPath;
+
+    @Value("${app.catalog-snapshot.serve-for-ms:600000}")
+    private long serveForMs;
+
+    @Value("${app.catalog-snapshot.generate:false}")
+    private boolean generateEnabled;
+
+    @Value("${app.catalog-snapshot.page-size:1000}")
+    private int pageSize;
+
+    public CatalogSnapshotService(ProductRepository productRepository, KafkaTemplate<String, Object> kafkaTemplate) {
+        this.productRepository = productRepository;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Mapped before the listener containers start, so the change stream can be replayed from the
+     * snapshot's timestamp.
+     */
+    @PostConstruct
+    public void load() {
+        if (serveForMs <= 0 || !Files.isRegularFile(snapshotPath)) {
+            return;
+        }
+        try {
+            CatalogSnapshotFile loaded = CatalogSnapshotFile.open(snapshotPath);
+            changes.resetTo(loaded.getAsOfMillis());
+            serveUntilMillis = System.currentTimeMillis() + serveForMs;
+            snapshot = loaded;
+            log.info("Mapped catalog snapshot with {} products taken at {}",
+                    loaded.size(), Instant.ofEpochMilli(loaded.getAsOfMillis()));
+        } catch (Exception e) {
+            log.warn("Could not map catalog snapshot {}: {}", snapshotPath, e.getMessage());
+        }
+    }
+
+    /**
+     * The product as of the snapshot, or null when it is not served from the snapshot (none
+     * mapped, serving window over, product missing or changed since).
+     */
+    public ProductDto find(Long productId) {
+        CatalogSnapshotFile current = servingSnapshot(productId);
+        return current != null ? current.find(productId) : null;
+    }
+
+    /**
+     * When the snapshot find serves this product from was taken, or -1 when it is not served from
+     * the snapshot. The product's lastUpdatedAt is no later than that.
+     */
+    public long servedAsOfMillis(Long productId) {
+        CatalogSnapshotFile current = servingSnapshot(productId);
+        return current != null && current.find(productId) != null ? current.getAsOfMillis() : -1;
+    }
+
+    private CatalogSnapshotFile servingSnapshot(Long productId) {
+        CatalogSnapshotFile current = snapshot;
+        if (current == null || staleIds.contains(productId)) {
+            return null;
+        }
+        if (System.currentTimeMillis() > serveUntilMillis) {
+            release();
+            return null;
+        }
+        return current;
+    }
+
+    /**
+     * Announce committed catalog changes to every instance's snapshot (called after commit by
+     * SearchOutboxService.enqueueAll, which every product create, update and delete goes through).
+     */
+    public void publishChanges(Collection<Long> productIds) {
+        if (productIds.isEmpty()) return;
+        staleIds.addAll(productIds);
+        try {
+            kafkaTemplate.send(TOPIC, Map.of("productIds", List.copyOf(productIds)));
+        } catch (Exception e) {
+            log.warn("Could not announce {} product changes: {}", productIds.size(), e.getMessage());
+        }
+    }
+
+    @BroadcastListener(id = "catalog-snapshot", topics = TOPIC)
+    public void handleProductChanges(Map<String, Object> event) {
+        if (snapshot == null || !(event.get("productIds") instanceof Collection<?> productIds)) {
+            return;
+        }
+        for (Object productId : productIds) {
+            if (productId instanceof Number id) {
+                staleIds.add(id.longValue());
+            }
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        CatalogSnapshotFile current = snapshot;
+        if (current != null) {
+            callback.seekToTimestamp(assignments.keySet(), current.getAsOfMillis() - ChangeWatermark.OVERLAP_MS);
+        }
+    }
+
+    // Safety net for writes that were not announced (bulk import, lost sends); the indexed timestamp finds them
+    @Scheduled(fixedDelayString = "${app.catalog-snapshot.delta-poll-ms:2000}")
+    public void pollChanges() {
+        if (snapshot == null) return;
+        if (System.currentTimeMillis() > serveUntilMillis) {
+            release();
+            return;
+        }
+        try {
+            changes.poll(productRepository::findIdsUpdatedSince, changed -> {
+                staleIds.addAll(changed);
+                return true;
+            });
+        } catch (Exception e) {
+            log.warn("Catalog snapshot change poll failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Write a fresh snapshot by walking the catalog in id order; the file is replaced atomically
+     * and picked up by instances that start after it.
+     */
+    @Scheduled(initialDelayString = "${app.catalog-snapshot.interval-ms:900000}",
+            fixedDelayString = "${app.catalog-snapshot.interval-ms:900000}")
+    public void generate() {
+        if (!generateEnabled) return;
+        long asOfMillis = System.currentTimeMillis();
+        try (CatalogSnapshotFile.Writer writer = new CatalogSnapshotFile.Writer(snapshotPath, asOfMillis)) {
+            long lastSeenId = 0L;
+            List<ProductDto> page;
+            do {
+                page = productRepository.findDtoPageAfterId(lastSeenId, PageRequest.of(0, pageSize));
+                for (ProductDto product : page) {
+                    writer.add(product);
+                }
+                if (!page.isEmpty()) {
+                    lastSeenId = page.get(page.size() - 1).getId();
+                }
+            } while (page.size() == pageSize);
+            writer.finish();
+            log.info("Wrote catalog snapshot with {} products in {} ms",
+                    writer.getRecordCount(), System.currentTimeMillis() - asOfMillis);
+        } catch (Exception e) {
+            log.warn("Catalog snapshot generation failed, keeping the previous file: {}", e.getMessage());
+        }
+    }
+
+    // The mapping is released with the last reference; live reads go to the database from here on
+    private void release() {
+        if (snapshot != null) {
+            snapshot = null;
+            staleIds.clear();
+            log.info("Catalog snapshot serving window over, reading products from the database");
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.messaging.BroadcastListener;
+import com.gitanjsheth.productservice.models.Category;
+import com.gitanjsheth.productservice.repositories.CategoryRepository;
+import com.gitanjsheth.productservice.utils.AfterCommit;
+import com.gitanjsheth.productservice.utils.CatalogVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * All categories held in memory, by id and by title. The set is small and rarely changes, so it
+ * is loaded whole at startup and swapped as an immutable snapshot on every change; lookups never
+ * lock. Local writes are applied after their transaction commits and announced on
+ * category.events, which every instance consumes (each with its own consumer group) and answers
+ * by reloading. A periodic reload covers lost announcements.
+ */
+@Component
+@Slf4j
+public class CategoryCache {
+
+    public static final String TOPIC = "category.events";
+
+    private final CategoryRepository categoryRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private volatile Snapshot snapshot;
+
+    public CategoryCache(CategoryRepository categoryRepository, KafkaTemplate<String, Object> kafkaTemplate) {
+        this.categoryRepository = categoryRepository;
+        this.kafkaTemplate = kafkaTemplate;
+    }
+
+    /**
+     * Titles match case-insensitively, like the unique index on category.title in MySQL.
+     * A miss is checked against the database once, for categories created by another instance
+     * whose announcement has not arrived yet.
+     */
+    public Optional<Category> findByTitle(String title) {
+        if (title == null) return Optional.empty();
+        Category category = snapshot().byTitle.get(titleKey(title));
+        if (category != null) return Optional.of(category);
+        Optional<Category> loaded = categoryRepository.findByTitle(title);
+        loaded.ifPresent(this::apply);
+        return loaded;
+    }
+
+    public Optional<Category> findById(Long categoryId) {
+        if (categoryId == null) return Optional.empty();
+        Category category = snapshot().byId.get(categoryId);
+        if (category != null) return Optional.of(category);
+        Optional<Category> loaded = categoryRepository.findById(categoryId);
+        loaded.ifPresent(this::apply);
+        return loaded;
+    }
+
+    public List<Category> getAll() {
+        return snapshot().all;
+    }
+
+    /**
+     * Changes whenever a category is added, renamed or removed; part of the ETag of product
+     * responses, which embed category titles.
+     */
+    public CatalogVersion getVersion() {
+        return snapshot().version;
+    }
+
+    /**
+     * Record a created or updated category once the surrounding transaction commits.
+     */
+    public void onCategorySaved(Category category) {
+        AfterCommit.run(() -> {
+            apply(category);
+            publish("CATEGORY_CHANGED", category.getId());
+        });
+    }
+
+    public void onCategoryRemoved(Long categoryId) {
+        AfterCommit.run(() -> {
+            remove(categoryId);
+            publish("CATEGORY_REMOVED", categoryId);
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.category-cache.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.category-cache.refresh-interval-ms:300000}")
+    public void reload() {
+        try {
+            snapshot = new Snapshot(categoryRepository.findAll());
+            log.debug("Category cache loaded with {} categories", snapshot.all.size());
+        } catch (Exception e) {
+            log.warn("Category cache reload failed, keeping previous snapshot: {}", e.getMessage());
+        }
+    }
+
+    @BroadcastListener(id = "category-cache", topics = TOPIC)
+    public void handleCategoryEvent(Map<String, Object> event) {
+        if (instanceId.equals(event.get("origin"))) {
+            return;
+        }
+        log.info("Category {} changed on another instance ({}), reloading categories",
+                event.get("categoryId"), event.get("eventType"));
+        reload();
+    }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = new Snapshot(categoryRepository.findAll());
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private synchronized void apply(Category category) {
+        List<Category> categories = new ArrayList<>(snapshot().all);
+        categories.removeIf(existing -> existing.getId().equals(category.getId()));
+        categories.add(category);
+        snapshot = new Snapshot(categories);
+    }
+
+    private synchronized void remove(Long categoryId) {
+        List<Category> categories = new ArrayList<>(snapshot().all);
+        categories.removeIf(existing -> existing.getId().equals(categoryId));
+        snapshot = new Snapshot(categories);
+    }
+
+    private void publish(String eventType, Long categoryId) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", eventType);
+        event.put("categoryId", categoryId);
+        event.put("origin", instanceId);
+        try {
+            kafkaTemplate.send(TOPIC, String.valueOf(categoryId), event);
+        } catch (Exception e) {
+            // Other instances catch up on their next periodic reload
+            log.warn("Could not announce category change {}: {}", categoryId, e.getMessage());
+        }
+    }
+
+    private static String titleKey(String title) {
+        return title.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Snapshot {
+        private final List<Category> all;
+        private final Map<Long, Category> byId = new HashMap<>();
+        private final Map<String, Category> byTitle = new HashMap<>();
+        private final CatalogVersion version;
+
+        private Snapshot(List<Category> categories) {
+            this.all = Collections.unmodifiableList(new ArrayList<>(categories));
+            this.version = CatalogVersion.of("c", categories, Category::getLastUpdatedAt);
+            for (Category category : categories) {
+                byId.put(category.getId(), category);
+                byTitle.put(titleKey(category.getTitle()), category);
+            }
+        }
+    }
+}
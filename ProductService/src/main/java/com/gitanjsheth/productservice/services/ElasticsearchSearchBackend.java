@@ -0,0 +1,225 @@
+package com.gitanjsheth.productservice.services;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.aggregations.RangeBucket;
+import co.elastic.clients.elasticsearch._types.aggregations.StringTermsBucket;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.search.Hit;
+import com.gitanjsheth.productservice.dtos.FacetBucketDto;
+import com.gitanjsheth.productservice.dtos.SearchFiltersDto;
+import com.gitanjsheth.productservice.dtos.SearchResultDto;
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.models.ProductSearchDocument;
+import com.gitanjsheth.productservice.utils.PriceBuckets;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.data.elasticsearch.core.query.IndexQueryBuilder;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@Component
+public class ElasticsearchSearchBackend implements SearchBackend {
+
+    public static final String NAME = "elasticsearch";
+
+    private static final String CATEGORY_FACET = "categories";
+    private static final String PRICE_FACET = "prices";
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchClient elasticsearchClient;
+    private final PriceBuckets priceBuckets;
+
+    @Value("${app.search.facets.category-size:20}")
+    private int categoryFacetSize;
+
+    @Value("${app.search.latency.budget-ms:500}")
+    private long latencyBudgetMs;
+
+    public ElasticsearchSearchBackend(ElasticsearchOperations elasticsearchOperations,
+                                      ElasticsearchClient elasticsearchClient,
+                                      @Value("${app.search.facets.price-breaks:100,500,1000,5000}") int[] priceBreaks) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.elasticsearchClient = elasticsearchClient;
+        this.priceBuckets = new PriceBuckets(priceBreaks);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    /**
+     * Index or overwrite documents for the given products with one _bulk request.
+     */
+    @Override
+    public void indexProducts(List<Product> products) {
+        if (products.isEmpty()) return;
+        List<IndexQuery> queries = new ArrayList<>(products.size());
+        for (Product product : products) {
+            queries.add(toIndexQuery(product));
+        }
+        elasticsearchOperations.bulkIndex(queries, ProductSearchDocument.class);
+    }
+
+    /**
+     * Remove the documents of several products with one _bulk request of deletes addressed by
+     * document id, so no search or scroll runs on the write path. Ids that are already gone are
+     * not errors.
+     */
+    @Override
+    public void deleteProducts(Collection<Long> productIds) {
+        if (productIds.isEmpty()) return;
+        String indexName = elasticsearchOperations.getIndexCoordinatesFor(ProductSearchDocument.class).getIndexName();
+        List<BulkOperation> deletes = new ArrayList<>(productIds.size());
+        for (Long productId : productIds) {
+            String id = ProductSearchDocument.documentId(productId);
+            deletes.add(BulkOperation.of(o -> o.delete(d -> d.index(indexName).id(id))));
+        }
+        BulkResponse response;
+        try {
+            response = elasticsearchClient.bulk(BulkRequest.of(r -> r.operations(deletes)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (response.errors()) {
+            String reason = response.items().stream()
+                    .filter(item -> item.error() != null)
+                    .map(item -> item.id() + ": " + item.error().reason())
+                    .findFirst()
+                    .orElse("unknown");
+            throw new IllegalStateException("Bulk delete of " + deletes.size() + " documents failed, first error " + reason);
+        }
+    }
+
+    @Override
+    public SearchResultDto search(String queryText, SearchFiltersDto filters, int page, int size) {
+        // Sent with the Java client rather than ElasticsearchOperations: SearchHits drops timed_out
+        SearchRequest request = SearchRequest.of(s -> s
+                .index(elasticsearchOperations.getIndexCoordinatesFor(ProductSearchDocument.class).getIndexName())
+                // Filters go in filter context: no scoring, and Elasticsearch caches them across queries
+                .query(q -> q.bool(b -> {
+                    if (queryText != null && !queryText.isBlank()) {
+                        b.should(m -> m.match(t -> t.field("title").query(queryText)))
+                                .should(m -> m.match(t -> t.field("description").query(queryText)))
+                                .minimumShouldMatch("1");
+                    }
+                    applyFilters(b, filters);
+                    return b;
+                }))
+                .aggregations(CATEGORY_FACET, Aggregation.of(a -> a.terms(t -> t.field("category").size(categoryFacetSize))))
+                .aggregations(PRICE_FACET, Aggregation.of(a -> a.range(r -> r.field("price").ranges(priceRanges()))))
+                .from(page * size)
+                .size(size)
+                // Shards stop collecting at the budget and return what they have (partial results)
+                .timeout(latencyBudgetMs + "ms"));
+        SearchResponse<Map> response;
+        try {
+            response = elasticsearchClient.search(request, Map.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long totalHits = response.hits().total() != null ? response.hits().total().value() : 0L;
+        SearchResultDto result = new SearchResultDto();
+        result.setContent(response.hits().hits().stream()
+                .map(this::toDocument)
+                .collect(Collectors.toList()));
+        result.setNumber(page);
+        result.setSize(size);
+        result.setTotalElements(totalHits);
+        result.setTotalPages(size == 0 ? 0 : (int) Math.ceil((double) totalHits / size));
+        result.setCategoryFacets(new ArrayList<>());
+        result.setPriceFacets(new ArrayList<>());
+        result.setPartial(isPartial(response));
+
+        Map<String, Aggregate> aggregations = response.aggregations();
+        if (aggregations.containsKey(CATEGORY_FACET)) {
+            for (StringTermsBucket bucket : aggregations.get(CATEGORY_FACET).sterms().buckets().array()) {
+                result.getCategoryFacets().add(new FacetBucketDto(bucket.key().stringValue(), bucket.docCount(), null, null));
+            }
+        }
+        if (aggregations.containsKey(PRICE_FACET)) {
+            for (RangeBucket bucket : aggregations.get(PRICE_FACET).range().buckets().array()) {
+                result.getPriceFacets().add(new FacetBucketDto(bucket.key(), bucket.docCount(),
+                        bucket.from() != null ? bucket.from().intValue() : null,
+                        bucket.to() != null ? bucket.to().intValue() : null));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Some shards stopped at the time budget or failed outright: hits, totals and facets only
+     * cover the shards that answered in full.
+     */
+    static boolean isPartial(SearchResponse<?> response) {
+        return response.timedOut() || response.shards().failed().intValue() > 0;
+    }
+
+    // Same mapping ElasticsearchOperations applies, so field names and types stay in one place
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private ProductSearchDocument toDocument(Hit<Map> hit) {
+        Document source = Document.from(hit.source() != null ? hit.source() : Map.of());
+        source.setId(hit.id());
+        return elasticsearchOperations.getElasticsearchConverter().read(ProductSearchDocument.class, source);
+    }
+
+    IndexQuery toIndexQuery(Product product) {
+        ProductSearchDocument doc = ProductSearchDocument.from(product);
+        return new IndexQueryBuilder()
+                .withId(doc.getId())
+                .withObject(doc)
+                .build();
+    }
+
+    private void applyFilters(BoolQuery.Builder b, SearchFiltersDto filters) {
+        if (filters.getCategory() != null && !filters.getCategory().isBlank()) {
+            b.filter(f -> f.term(t -> t.field("category").value(filters.getCategory())));
+        }
+        if (filters.getMinPrice() != null || filters.getMaxPrice() != null) {
+            b.filter(f -> f.range(r -> r.number(n -> {
+                n.field("price");
+                if (filters.getMinPrice() != null) n.gte(filters.getMinPrice().doubleValue());
+                if (filters.getMaxPrice() != null) n.lte(filters.getMaxPrice().doubleValue());
+                return n;
+            })));
+        }
+        if (filters.isInStock()) {
+            b.filter(f -> f.term(t -> t.field("isActive").value(true)));
+            b.filter(f -> f.range(r -> r.number(n -> n.field("availableQuantity").gt(0.0))));
+        }
+    }
+
+    private List<AggregationRange> priceRanges() {
+        List<AggregationRange> ranges = new ArrayList<>(priceBuckets.size());
+        for (int i = 0; i < priceBuckets.size(); i++) {
+            Integer from = priceBuckets.from(i);
+            Integer to = priceBuckets.to(i);
+            String key = priceBuckets.key(i);
+            ranges.add(AggregationRange.of(r -> {
+                r.key(key);
+                if (from != null) r.from(from.doubleValue());
+                if (to != null) r.to(to.doubleValue());
+                return r;
+            }));
+        }
+        return ranges;
+    }
+}
@@ -1,31 +1,68 @@
 package com.gitanjsheth.productservice.services;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gitanjsheth.productservice.dtos.FakeStoreProductDto;
 import com.gitanjsheth.productservice.exceptions.CategoryNotFoundException;
 import com.gitanjsheth.productservice.exceptions.ProductNotFoundException;
 import com.gitanjsheth.productservice.models.Category;
 import com.gitanjsheth.productservice.models.Product;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
 
 @Service ("fakeStoreProductService")
+@Slf4j
 public class FakeStoreProductService implements ProductServiceInterface{
     //Note: This service class will implement all the APIs using FakeStore.
+    // Reads are served from a local snapshot of the FakeStore catalog (indexed by id and category),
+    // downloaded once and refreshed periodically, instead of calling FakeStore on every request.
+    // With app.fakestore.local-file set, the snapshot is read from that JSON file (same format as
+    // GET /products) - a local stand-in for tests and offline environments.
 
     private RestTemplate restTemplate;
-
-    public FakeStoreProductService(RestTemplate restTemplate) {
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String localFile;
+    private volatile Snapshot snapshot;
+
+    public FakeStoreProductService(RestTemplate restTemplate,
+                                   ObjectMapper objectMapper,
+                                   @Value("${app.fakestore.base-url:https://fakestoreapi.com}") String baseUrl,
+                                   @Value("${app.fakestore.local-file:}") String localFile) {
         this.restTemplate = restTemplate;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+        this.localFile = localFile;
     }
 
     @Override
     public Product getSingleProduct(Long productId) throws ProductNotFoundException {
+        Snapshot current = isLocal() ? snapshot() : snapshotIfAvailable();
+        FakeStoreProductDto cached = current != null ? current.byId.get(productId) : null;
+        if (cached != null) {
+            return convertFakeStoreProductDtoToProduct(cached, current);
+        }
+        if (isLocal()) {
+            throw new ProductNotFoundException(productId);
+        }
+
+        // Possibly added since the last refresh
         ResponseEntity<FakeStoreProductDto> fakeStoreProductDtoResponse = restTemplate
-                .getForEntity("https://fakestoreapi.com/products/" + productId, FakeStoreProductDto.class);
+                .getForEntity(baseUrl + "/products/" + productId, FakeStoreProductDto.class);
 
         FakeStoreProductDto fakeStoreProductDto = fakeStoreProductDtoResponse.getBody();
 
@@ -34,23 +71,13 @@ public class FakeStoreProductService implements ProductServiceInterface{
             throw new ProductNotFoundException(productId);
         }
 
-        return convertFakeStoreProductDtoToProduct(fakeStoreProductDto);
+        return convertFakeStoreProductDtoToProduct(fakeStoreProductDto, current);
     }
 
     @Override
     public List<Product> getAllProducts() {
-        ResponseEntity<FakeStoreProductDto[]> fakeStoreProductDtoResponse = restTemplate
-                .getForEntity("https://fakestoreapi.com/products/", FakeStoreProductDto[].class);
-
-        FakeStoreProductDto[] fakeStoreProductDtoList = fakeStoreProductDtoResponse.getBody();
-
-        List<Product> products = new ArrayList<>();
-
-        assert fakeStoreProductDtoList != null;
-        for (FakeStoreProductDto fakeStoreProductDto : fakeStoreProductDtoList) {
-            products.add(convertFakeStoreProductDtoToProduct(fakeStoreProductDto));
-        }
-        return products;
+        Snapshot current = snapshot();
+        return toProducts(current.all, current);
     }
 
     @Override
@@ -71,38 +98,93 @@ public class FakeStoreProductService implements ProductServiceInterface{
 
     @Override
     public List<Product> getProductsByCategory(Long categoryId) throws CategoryNotFoundException {
-        // For FakeStore, we'll get all products and filter by category
-        List<Product> allProducts = getAllProducts();
-        return allProducts.stream()
-                .filter(product -> product.getCategory() != null && 
-                        product.getCategory().getId() != null && 
-                        product.getCategory().getId().equals(categoryId))
-                .toList();
+        return getProductsByCategoryId(categoryId);
     }
 
     @Override
     public List<Product> getProductsByCategoryTitle(String categoryTitle) {
-        // For FakeStore, we'll get all products and filter by category title
-        List<Product> allProducts = getAllProducts();
-        return allProducts.stream()
-                .filter(product -> product.getCategory() != null && 
-                        product.getCategory().getTitle() != null && 
-                        product.getCategory().getTitle().equalsIgnoreCase(categoryTitle))
-                .toList();
+        if (categoryTitle == null) return List.of();
+        Snapshot current = snapshot();
+        Long categoryId = current.categoryIdByTitle.get(categoryTitle.toLowerCase(Locale.ROOT));
+        return categoryId != null ? toProducts(current.byCategoryId.get(categoryId), current) : List.of();
     }
 
     @Override
     public List<Product> getProductsByCategoryId(Long categoryId) {
-        // For FakeStore, we'll get all products and filter by category ID
-        List<Product> allProducts = getAllProducts();
-        return allProducts.stream()
-                .filter(product -> product.getCategory() != null && 
-                        product.getCategory().getId() != null && 
-                        product.getCategory().getId().equals(categoryId))
-                .toList();
+        Snapshot current = snapshot();
+        return toProducts(current.byCategoryId.getOrDefault(categoryId, List.of()), current);
+    }
+
+    /**
+     * Re-download the catalog; on failure the previous snapshot keeps being served.
+     */
+    @Scheduled(initialDelayString = "${app.fakestore.refresh-interval-ms:600000}",
+            fixedDelayString = "${app.fakestore.refresh-interval-ms:600000}")
+    public void refresh() {
+        if (snapshot == null) return; // not in use in this environment
+        try {
+            snapshot = new Snapshot(fetchAll());
+        } catch (Exception e) {
+            log.warn("FakeStore catalog refresh failed, keeping the previous snapshot: {}", e.getMessage());
+        }
     }
 
-    private static Product convertFakeStoreProductDtoToProduct(FakeStoreProductDto fakeStoreProductDto) {
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    snapshot = new Snapshot(fetchAll());
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    // A single product does not need the whole catalog: if it cannot be downloaded, fetch just that one
+    private Snapshot snapshotIfAvailable() {
+        try {
+            return snapshot();
+        } catch (Exception e) {
+            log.warn("FakeStore catalog unavailable, fetching the product directly: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private FakeStoreProductDto[] fetchAll() {
+        if (isLocal()) {
+            try {
+                return objectMapper.readValue(Path.of(localFile).toFile(), FakeStoreProductDto[].class);
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not read FakeStore stand-in " + localFile, e);
+            }
+        }
+        ResponseEntity<FakeStoreProductDto[]> fakeStoreProductDtoResponse = restTemplate
+                .getForEntity(baseUrl + "/products/", FakeStoreProductDto[].class);
+
+        FakeStoreProductDto[] fakeStoreProductDtoList = fakeStoreProductDtoResponse.getBody();
+        if (fakeStoreProductDtoList == null) {
+            throw new IllegalStateException("FakeStore returned no products");
+        }
+        return fakeStoreProductDtoList;
+    }
+
+    private boolean isLocal() {
+        return localFile != null && !localFile.isBlank();
+    }
+
+    private static List<Product> toProducts(List<FakeStoreProductDto> dtos, Snapshot snapshot) {
+        List<Product> products = new ArrayList<>(dtos.size());
+        for (FakeStoreProductDto fakeStoreProductDto : dtos) {
+            products.add(convertFakeStoreProductDtoToProduct(fakeStoreProductDto, snapshot));
+        }
+        return products;
+    }
+
+    // A new Product per call: callers may modify what they get back. Without a snapshot the
+    // category has no id
+    private static Product convertFakeStoreProductDtoToProduct(FakeStoreProductDto fakeStoreProductDto, Snapshot snapshot) {
         if (fakeStoreProductDto == null) {
             return null;
         }
@@ -115,8 +197,45 @@ public class FakeStoreProductService implements ProductServiceInterface{
 
         Category category = new Category();
         category.setTitle(fakeStoreProductDto.getCategory());
+        if (fakeStoreProductDto.getCategory() != null && snapshot != null) {
+            category.setId(snapshot.categoryIdByTitle.get(fakeStoreProductDto.getCategory().toLowerCase(Locale.ROOT)));
+        }
         product.setCategory(category);
 
         return product;
     }
+
+    /**
+     * FakeStore categories only have a name; they get ids 1..n in name order, stable for as
+     * long as the category set does not change.
+     */
+    private static final class Snapshot {
+        private final List<FakeStoreProductDto> all;
+        private final Map<Long, FakeStoreProductDto> byId = new HashMap<>();
+        private final Map<String, Long> categoryIdByTitle = new LinkedHashMap<>();
+        private final Map<Long, List<FakeStoreProductDto>> byCategoryId = new HashMap<>();
+
+        private Snapshot(FakeStoreProductDto[] products) {
+            List<FakeStoreProductDto> list = new ArrayList<>(products.length);
+            TreeSet<String> titles = new TreeSet<>();
+            for (FakeStoreProductDto product : products) {
+                if (product == null) continue;
+                list.add(product);
+                byId.put(product.getId(), product);
+                if (product.getCategory() != null) {
+                    titles.add(product.getCategory().toLowerCase(Locale.ROOT));
+                }
+            }
+            long nextId = 1;
+            for (String title : titles) {
+                categoryIdByTitle.put(title, nextId++);
+            }
+            for (FakeStoreProductDto product : list) {
+                if (product.getCategory() == null) continue;
+                Long categoryId = categoryIdByTitle.get(product.getCategory().toLowerCase(Locale.ROOT));
+                byCategoryId.computeIfAbsent(categoryId, id -> new ArrayList<>()).add(product);
+            }
+            this.all = Collections.unmodifiableList(list);
+        }
+    }
 }
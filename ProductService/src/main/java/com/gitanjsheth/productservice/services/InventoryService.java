@@ -1,45 +1,90 @@
 package com.gitanjsheth.productservice.services;
 
+import com.gitanjsheth.productservice.dtos.CartItemAvailabilityDto;
+import com.gitanjsheth.productservice.dtos.OrderInventoryItemDto;
+import com.gitanjsheth.productservice.dtos.OrderInventoryLineResultDto;
+import com.gitanjsheth.productservice.dtos.OrderInventoryResultDto;
 import com.gitanjsheth.productservice.dtos.ProductAvailabilityDto;
 import com.gitanjsheth.productservice.exceptions.ProductNotFoundException;
+import com.gitanjsheth.productservice.models.InventoryAction;
+import com.gitanjsheth.productservice.models.InventoryHold;
+import com.gitanjsheth.productservice.models.ProcessedInventoryAction;
 import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.repositories.InventoryHoldRepository;
+import com.gitanjsheth.productservice.repositories.ProcessedInventoryActionRepository;
 import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.utils.HierarchicalTimingWheel;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.function.Consumer;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
 import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 @Service
 @Slf4j
 public class InventoryService {
     
     private static final int HOLD_DURATION_HOURS = 24;
-    private static final int CLEANUP_INTERVAL_HOURS = 1;
+    private static final int PROCESSED_ACTION_RETENTION_DAYS = 7;
+    private static final long HOLD_WHEEL_TICK_MS = 1000;
+    private static final int HOLD_WHEEL_SIZE = 60;
     
     private final ProductRepository productRepository;
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
-    private final ConcurrentHashMap<String, InventoryHold> inventoryHolds = new ConcurrentHashMap<>();
+    private final InventoryHoldRepository inventoryHoldRepository;
+    private final ProcessedInventoryActionRepository processedInventoryActionRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final StockLevelTracker stockLevelTracker;
+    private final SearchOutboxService searchOutboxService;
+    // Per-hold expiry timers; the inventory_hold table stays the source of truth
+    private final HierarchicalTimingWheel<String> holdExpiryWheel =
+        new HierarchicalTimingWheel<>(HOLD_WHEEL_TICK_MS, HOLD_WHEEL_SIZE, System.currentTimeMillis());
     
-    public InventoryService(ProductRepository productRepository) {
+    public InventoryService(ProductRepository productRepository,
+                            InventoryHoldRepository inventoryHoldRepository,
+                            ProcessedInventoryActionRepository processedInventoryActionRepository,
+                            PlatformTransactionManager transactionManager,
+                            StockLevelTracker stockLevelTracker,
+                            SearchOutboxService searchOutboxService) {
         this.productRepository = productRepository;
-        startInventoryHoldCleanup();
+        this.inventoryHoldRepository = inventoryHoldRepository;
+        this.processedInventoryActionRepository = processedInventoryActionRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stockLevelTracker = stockLevelTracker;
+        this.searchOutboxService = searchOutboxService;
     }
     
     // ============================================================================
     // PUBLIC API METHODS
     // ============================================================================
     
+    // Read-only checks below are @Transactional(readOnly = true) so they can be served by a read
+    // replica (see ReadReplicaConfig); reservations re-check availability on the primary under lock
+
     /**
      * Check if product is available for cart addition
      */
+    @Transactional(readOnly = true)
     public boolean isProductAvailableForCart(Long productId, Integer requestedQuantity) {
         return executeWithProduct(productId, 
             product -> product.isAvailableForCart(requestedQuantity),
@@ -52,7 +97,15 @@ public class InventoryService {
      */
     @Transactional
     public boolean reserveInventoryForCheckout(Long productId, Integer quantity, Long userId) {
-        return executeWithProduct(productId, product -> {
+        return reserveInventoryForCheckout(productId, quantity, userId, null);
+    }
+    
+    /**
+     * Temporarily reserve inventory for checkout under a caller-supplied hold reference (e.g. order id)
+     */
+    @Transactional
+    public boolean reserveInventoryForCheckout(Long productId, Integer quantity, Long userId, String holdReference) {
+        return executeWithLockedProduct(productId, product -> {
             // Check if enough inventory available
             if (product.getAvailableQuantity() < quantity) {
                 log.warn("Insufficient inventory for product {}: requested={}, available={}", 
@@ -64,8 +117,8 @@ public class InventoryService {
             product.setReservedQuantity(product.getReservedQuantity() + quantity);
             saveProductWithStockUpdate(product);
             
-            // Create temporary hold keyed by order or user
-            createInventoryHold(productId, userId, quantity);
+            // Create durable hold keyed by order or a generated reference
+            createInventoryHold(productId, userId, quantity, holdReference);
             
             log.info("Reserved {} units of product {} for user {}", quantity, productId, userId);
             return true;
@@ -77,15 +130,26 @@ public class InventoryService {
      */
     @Transactional
     public void releaseReservedInventory(Long productId, Integer quantity, Long userId) {
-        executeWithProductVoid(productId, product -> {
-            // Release from database
-            product.setReservedQuantity(Math.max(0, product.getReservedQuantity() - quantity));
+        releaseReservedInventory(productId, quantity, userId, null);
+    }
+    
+    /**
+     * Release reserved inventory held under a hold reference. Only the quantity of a hold this call
+     * removed is released, so a hold that already expired is not released twice.
+     */
+    @Transactional
+    public void releaseReservedInventory(Long productId, Integer quantity, Long userId, String holdReference) {
+        executeWithLockedProductVoid(productId, product -> {
+            // Remove durable hold, then release from database
+            Optional<Integer> heldQuantity = removeInventoryHold(productId, userId, holdReference);
+            if (heldQuantity.isEmpty()) {
+                log.info("No live hold to release for product {} and user {}", productId, userId);
+                return;
+            }
+            product.setReservedQuantity(Math.max(0, product.getReservedQuantity() - heldQuantity.get()));
             saveProductWithStockUpdate(product);
             
-            // Remove temporary hold
-            removeInventoryHold(productId, userId);
-            
-            log.info("Released {} units of product {} for user {}", quantity, productId, userId);
+            log.info("Released {} units of product {} for user {}", heldQuantity.get(), productId, userId);
         }, "releasing inventory");
     }
     
@@ -94,25 +158,88 @@ public class InventoryService {
      */
     @Transactional
     public void confirmInventoryUsage(Long productId, Integer quantity, Long userId) {
-        executeWithProductVoid(productId, product -> {
-            // Reduce actual stock and reserved quantity
+        confirmInventoryUsage(productId, quantity, userId, null);
+    }
+    
+    /**
+     * Confirm inventory usage for a hold reference. Reserved quantity is only reduced while the hold is still live.
+     */
+    @Transactional
+    public void confirmInventoryUsage(Long productId, Integer quantity, Long userId, String holdReference) {
+        executeWithLockedProductVoid(productId, product -> {
+            // Remove durable hold
+            Optional<Integer> heldQuantity = removeInventoryHold(productId, userId, holdReference);
+            
+            // Reduce actual stock, and reserved quantity by what the removed hold held
             product.setStockQuantity(Math.max(0, product.getStockQuantity() - quantity));
-            product.setReservedQuantity(Math.max(0, product.getReservedQuantity() - quantity));
+            heldQuantity.ifPresent(held ->
+                product.setReservedQuantity(Math.max(0, product.getReservedQuantity() - held)));
             saveProductWithStockUpdate(product);
             
-            // Remove temporary hold
-            removeInventoryHold(productId, userId);
-            
             log.info("Confirmed usage of {} units of product {} for user {}", quantity, productId, userId);
         }, "confirming inventory usage");
     }
     
+    // ============================================================================
+    // ORDER-LEVEL API (all line items in one transaction)
+    // ============================================================================
+    
+    /**
+     * Reserve every line of an order or none of them
+     */
+    @Transactional
+    public OrderInventoryResultDto reserveInventoryForOrder(String orderReference, Long userId,
+                                                            List<OrderInventoryItemDto> items) {
+        return applyOrderCommandsInternal(List.of(
+            new OrderInventoryCommand(orderReference, InventoryAction.RESERVE, userId, items))).get(0);
+    }
+    
+    /**
+     * Release every live hold of an order (cancellation or payment failure)
+     */
+    @Transactional
+    public OrderInventoryResultDto releaseInventoryForOrder(String orderReference, List<OrderInventoryItemDto> items) {
+        return applyOrderCommandsInternal(List.of(
+            new OrderInventoryCommand(orderReference, InventoryAction.RELEASE, null, items))).get(0);
+    }
+    
+    /**
+     * Deduct stock for every line of a paid order and drop its holds
+     */
+    @Transactional
+    public OrderInventoryResultDto confirmInventoryForOrder(String orderReference, List<OrderInventoryItemDto> items) {
+        return applyOrderCommandsInternal(List.of(
+            new OrderInventoryCommand(orderReference, InventoryAction.CONFIRM, null, items))).get(0);
+    }
+    
+    /**
+     * Apply a batch of order-level commands (e.g. one Kafka poll) in a single transaction.
+     * Every touched product is locked once, in productId order so overlapping batches cannot
+     * deadlock, and the per-product deltas of all commands are netted in memory before one
+     * UPDATE per product is flushed. A command already applied for (orderReference, action)
+     * is skipped, so redeliveries and HTTP/Kafka duplicates are harmless.
+     */
+    @Transactional
+    public List<OrderInventoryResultDto> applyOrderCommands(List<OrderInventoryCommand> commands) {
+        return applyOrderCommandsInternal(commands);
+    }
+    
+    /**
+     * Drop idempotency records well past any realistic redelivery window
+     */
+    @Scheduled(fixedRate = 86400000) // Run every day
+    public void purgeProcessedInventoryActions() {
+        int purged = processedInventoryActionRepository.deleteProcessedBefore(
+            LocalDateTime.now().minusDays(PROCESSED_ACTION_RETENTION_DAYS));
+        log.info("Purged {} processed inventory action records", purged);
+    }
+    
     /**
      * Update stock quantity (for admin operations)
      */
     @Transactional
     public void updateStockQuantity(Long productId, Integer newStockQuantity) {
-        executeWithProductVoid(productId, product -> {
+        executeWithLockedProductVoid(productId, product -> {
             product.setStockQuantity(newStockQuantity);
             saveProductWithStockUpdate(product);
             
@@ -123,6 +250,7 @@ public class InventoryService {
     /**
      * Get product availability information
      */
+    @Transactional(readOnly = true)
     public ProductAvailabilityDto getProductAvailability(Long productId) throws ProductNotFoundException {
         Product product = findProductById(productId);
         return new ProductAvailabilityDto(
@@ -140,22 +268,80 @@ public class InventoryService {
     }
     
     /**
-     * Get products that are out of stock or low in stock
+     * Get products that are out of stock or low in stock. The ids come from the incrementally
+     * maintained sets, so only those rows are read.
      */
+    @Transactional(readOnly = true)
     public List<Product> getOutOfStockProducts() {
-        return productRepository.findByIsOutOfStockTrue();
+        return productRepository.findAllById(stockLevelTracker.getOutOfStockIds());
     }
     
+    @Transactional(readOnly = true)
     public List<Product> getLowStockProducts() {
-        return productRepository.findLowStockProducts();
+        return productRepository.findAllById(stockLevelTracker.getLowStockIds()).stream()
+            .filter(Product::getIsActive)
+            .collect(Collectors.toList());
     }
     
     /**
      * Validate cart items against current inventory
      */
+    @Transactional(readOnly = true)
     public boolean validateCartItems(List<CartItemValidation> cartItems) {
+        return checkCartItems(cartItems).stream()
+            .allMatch(CartItemAvailabilityDto::getAvailable);
+    }
+    
+    /**
+     * Per-item availability and shortfall for a whole cart. All products are loaded with a single
+     * IN query and evaluated in memory.
+     */
+    @Transactional(readOnly = true)
+    public List<CartItemAvailabilityDto> checkCartItems(List<CartItemValidation> cartItems) {
+        Set<Long> productIds = cartItems.stream()
+            .map(CartItemValidation::getProductId)
+            .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+        
         return cartItems.stream()
-            .allMatch(item -> isProductAvailableForCart(item.getProductId(), item.getQuantity()));
+            .map(item -> toCartItemAvailability(item, products.get(item.getProductId())))
+            .collect(Collectors.toList());
+    }
+    
+    // ============================================================================
+    // HOLD EXPIRY
+    // ============================================================================
+    
+    /**
+     * Re-arm expiry timers for holds persisted before this instance started
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadPersistedHolds() {
+        List<InventoryHold> holds = inventoryHoldRepository.findAll();
+        holds.forEach(hold -> scheduleHoldExpiry(hold.getHoldKey(), hold.getExpiresAt()));
+        log.info("Loaded {} persisted inventory holds", holds.size());
+    }
+    
+    /**
+     * Release holds whose timers fired in the last tick
+     */
+    @Scheduled(fixedDelay = HOLD_WHEEL_TICK_MS)
+    public void expireDueHolds() {
+        List<String> dueHoldKeys;
+        synchronized (holdExpiryWheel) {
+            dueHoldKeys = holdExpiryWheel.advance(System.currentTimeMillis());
+        }
+        dueHoldKeys.forEach(this::releaseExpiredHold);
+    }
+    
+    /**
+     * Safety net for holds created by instances that are no longer running
+     */
+    @Scheduled(fixedDelay = 60000) // Run every minute
+    public void sweepExpiredHolds() {
+        inventoryHoldRepository.findByExpiresAtBefore(LocalDateTime.now())
+            .forEach(hold -> releaseExpiredHold(hold.getHoldKey()));
     }
     
     // ============================================================================
@@ -177,11 +363,25 @@ public class InventoryService {
     }
     
     /**
-     * Execute operation with product, handling exceptions (void return)
+     * Same as executeWithProduct, but holds a row lock on the product for the rest of the transaction
      */
-    private void executeWithProductVoid(Long productId, Consumer<Product> operation, String operationName) {
+    private <T> T executeWithLockedProduct(Long productId, Function<Product, T> operation, 
+                                          T defaultValue, String operationName) {
         try {
-            Product product = findProductById(productId);
+            Product product = findProductByIdForUpdate(productId);
+            return operation.apply(product);
+        } catch (Exception e) {
+            log.error("Error {}: {}", operationName, e.getMessage());
+            return defaultValue;
+        }
+    }
+    
+    /**
+     * Execute operation with a row-locked product, handling exceptions (void return)
+     */
+    private void executeWithLockedProductVoid(Long productId, Consumer<Product> operation, String operationName) {
+        try {
+            Product product = findProductByIdForUpdate(productId);
             operation.accept(product);
         } catch (Exception e) {
             log.error("Error {}: {}", operationName, e.getMessage());
@@ -196,55 +396,342 @@ public class InventoryService {
             .orElseThrow(() -> new ProductNotFoundException(productId, "Product not found"));
     }
     
+    private Product findProductByIdForUpdate(Long productId) throws ProductNotFoundException {
+        return productRepository.findByIdForUpdate(productId)
+            .orElseThrow(() -> new ProductNotFoundException(productId, "Product not found"));
+    }
+    
+    private CartItemAvailabilityDto toCartItemAvailability(CartItemValidation item, Product product) {
+        Integer requested = item.getQuantity();
+        if (product == null) {
+            return new CartItemAvailabilityDto(item.getProductId(), requested, false, false, true, false,
+                0, requested, "Product not found");
+        }
+        
+        boolean available = product.isAvailableForCart(requested);
+        int shortfall = product.getAllowBackorder() ? 0 : Math.max(0, requested - product.getAvailableQuantity());
+        String reason = null;
+        if (!product.getIsActive()) {
+            reason = "Product inactive";
+        } else if (!available) {
+            reason = product.getIsOutOfStock() ? "Out of stock" : "Insufficient stock";
+        }
+        return new CartItemAvailabilityDto(product.getId(), requested, available, product.getIsActive(),
+            product.getIsOutOfStock(), product.getAllowBackorder(), product.getAvailableQuantity(), shortfall, reason);
+    }
+    
     /**
-     * Save product with stock status update
+     * Sum quantities per product; the TreeMap keeps productIds sorted for lock ordering
+     */
+    private Map<Long, Integer> aggregateQuantities(List<OrderInventoryItemDto> items) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one item is required");
+        }
+        Map<Long, Integer> quantities = new TreeMap<>();
+        for (OrderInventoryItemDto item : items) {
+            if (item.getProductId() == null || item.getQuantity() == null || item.getQuantity() <= 0) {
+                throw new IllegalArgumentException("Each item needs a productId and a positive quantity");
+            }
+            quantities.merge(item.getProductId(), item.getQuantity(), Integer::sum);
+        }
+        return quantities;
+    }
+    
+    /**
+     * Lock all rows with a single ordered SELECT ... FOR UPDATE
+     */
+    private Map<Long, Product> lockProducts(Collection<Long> productIds) {
+        return productRepository.findAllByIdForUpdate(productIds).stream()
+            .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
+    
+    private List<OrderInventoryResultDto> applyOrderCommandsInternal(List<OrderInventoryCommand> commands) {
+        List<Map<Long, Integer>> quantities = new ArrayList<>();
+        Set<Long> productIds = new TreeSet<>();
+        Set<String> orderReferences = new HashSet<>();
+        for (OrderInventoryCommand command : commands) {
+            if (command.getOrderReference() == null || command.getAction() == null) {
+                throw new IllegalArgumentException("Each command needs an order reference and an action");
+            }
+            Map<Long, Integer> commandQuantities = aggregateQuantities(command.getItems());
+            quantities.add(commandQuantities);
+            productIds.addAll(commandQuantities.keySet());
+            orderReferences.add(command.getOrderReference());
+        }
+        
+        // Lock first: the ledger and hold reads below then observe everything committed before us
+        Map<Long, Product> products = lockProducts(productIds);
+        Map<Long, StockFlags> flagsBefore = new HashMap<>();
+        products.values().forEach(product -> flagsBefore.put(product.getId(), StockFlags.of(product)));
+        Set<String> processed = processedInventoryActionRepository.findByOrderReferenceIn(orderReferences).stream()
+            .map(record -> ledgerKey(record.getOrderReference(), record.getAction()))
+            .collect(Collectors.toCollection(HashSet::new));
+        Map<String, InventoryHold> persistedHolds = inventoryHoldRepository.findByHoldReferenceIn(orderReferences).stream()
+            .collect(Collectors.toMap(InventoryHold::getHoldKey, Function.identity()));
+        Map<String, InventoryHold> liveHolds = new HashMap<>(persistedHolds);
+        
+        Set<Product> changedProducts = new LinkedHashSet<>();
+        List<ProcessedInventoryAction> ledger = new ArrayList<>();
+        List<OrderInventoryResultDto> results = new ArrayList<>();
+        for (int i = 0; i < commands.size(); i++) {
+            OrderInventoryCommand command = commands.get(i);
+            Map<Long, Integer> commandQuantities = quantities.get(i);
+            if (!processed.add(ledgerKey(command.getOrderReference(), command.getAction()))) {
+                results.add(alreadyApplied(command, commandQuantities, products));
+                continue;
+            }
+            
+            OrderInventoryResultDto result = command.getAction() == InventoryAction.RESERVE
+                ? reserveLines(command, commandQuantities, products, liveHolds, changedProducts)
+                : settleLines(command, commandQuantities, products, liveHolds, changedProducts);
+            if (result.isSuccess()) {
+                ledger.add(new ProcessedInventoryAction(command.getOrderReference(), command.getAction()));
+            } else {
+                // Not recorded, so the caller may retry once stock frees up
+                processed.remove(ledgerKey(command.getOrderReference(), command.getAction()));
+            }
+            results.add(result);
+        }
+        
+        // Net effect on holds: insert those created and still live, delete persisted ones that were settled
+        List<InventoryHold> createdHolds = liveHolds.values().stream()
+            .filter(hold -> !persistedHolds.containsKey(hold.getHoldKey()))
+            .collect(Collectors.toList());
+        List<String> settledHoldKeys = persistedHolds.keySet().stream()
+            .filter(holdKey -> !liveHolds.containsKey(holdKey))
+            .collect(Collectors.toList());
+        
+        productRepository.saveAll(changedProducts);
+        searchOutboxService.enqueueAll(changedProducts.stream().map(Product::getId).toList());
+        for (Product product : changedProducts) {
+            StockFlags before = flagsBefore.get(product.getId());
+            stockLevelTracker.onStockUpdated(product, before.lowStock(), before.outOfStock());
+        }
+        inventoryHoldRepository.saveAll(createdHolds);
+        if (!settledHoldKeys.isEmpty()) {
+            // Product rows are locked, so no expiry can delete these holds concurrently
+            inventoryHoldRepository.deleteByHoldKeyIn(settledHoldKeys);
+        }
+        processedInventoryActionRepository.saveAll(ledger);
+        
+        synchronized (holdExpiryWheel) {
+            settledHoldKeys.forEach(holdExpiryWheel::cancel);
+        }
+        createdHolds.forEach(hold -> scheduleHoldExpiry(hold.getHoldKey(), hold.getExpiresAt()));
+        
+        log.info("Applied {} order inventory commands over {} products ({} holds created, {} settled)",
+            ledger.size(), changedProducts.size(), createdHolds.size(), settledHoldKeys.size());
+        return results;
+    }
+    
+    /**
+     * All-or-nothing: nothing is changed unless every line fits in available stock
+     */
+    private OrderInventoryResultDto reserveLines(OrderInventoryCommand command, Map<Long, Integer> quantities,
+                                                 Map<Long, Product> products, Map<String, InventoryHold> liveHolds,
+                                                 Set<Product> changedProducts) {
+        List<OrderInventoryLineResultDto> lines = new ArrayList<>();
+        boolean allAvailable = true;
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            if (product == null) {
+                lines.add(new OrderInventoryLineResultDto(line.getKey(), line.getValue(), false, null, "Product not found"));
+                allAvailable = false;
+            } else if (product.getAvailableQuantity() < line.getValue()) {
+                lines.add(new OrderInventoryLineResultDto(line.getKey(), line.getValue(), false,
+                    product.getAvailableQuantity(), "Insufficient inventory"));
+                allAvailable = false;
+            } else {
+                lines.add(new OrderInventoryLineResultDto(line.getKey(), line.getValue(), true,
+                    product.getAvailableQuantity() - line.getValue(), InventoryAction.RESERVE.getPastTense()));
+            }
+        }
+        
+        if (!allAvailable) {
+            log.warn("Reservation rejected for order {}: {}", command.getOrderReference(), lines.stream()
+                .filter(line -> !line.isSuccess())
+                .map(line -> line.getProductId() + "=" + line.getMessage())
+                .collect(Collectors.joining(", ")));
+            return new OrderInventoryResultDto(command.getOrderReference(), false, lines);
+        }
+        
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            product.setReservedQuantity(product.getReservedQuantity() + line.getValue());
+            updateStockFlags(product);
+            changedProducts.add(product);
+            
+            InventoryHold hold = newInventoryHold(line.getKey(), command.getUserId(), line.getValue(),
+                command.getOrderReference());
+            liveHolds.put(hold.getHoldKey(), hold);
+        }
+        return new OrderInventoryResultDto(command.getOrderReference(), true, lines);
+    }
+    
+    /**
+     * Release/confirm, all-or-nothing like reserveLines: nothing is changed unless every product exists,
+     * so a rejected command leaves no partial deduction behind for its retry to repeat. Reserved quantity
+     * is only returned for holds that are still live, so an order whose holds already expired is not
+     * released twice.
+     */
+    private OrderInventoryResultDto settleLines(OrderInventoryCommand command, Map<Long, Integer> quantities,
+                                                Map<Long, Product> products, Map<String, InventoryHold> liveHolds,
+                                                Set<Product> changedProducts) {
+        List<Long> missingProductIds = quantities.keySet().stream()
+            .filter(productId -> !products.containsKey(productId))
+            .toList();
+        if (!missingProductIds.isEmpty()) {
+            log.warn("{} rejected for order {}: products not found {}", command.getAction(),
+                command.getOrderReference(), missingProductIds);
+            List<OrderInventoryLineResultDto> lines = new ArrayList<>();
+            quantities.forEach((productId, quantity) -> {
+                Product product = products.get(productId);
+                lines.add(product == null
+                    ? new OrderInventoryLineResultDto(productId, quantity, false, null, "Product not found")
+                    : new OrderInventoryLineResultDto(productId, quantity, false, product.getAvailableQuantity(),
+                        "Not applied: another line failed"));
+            });
+            return new OrderInventoryResultDto(command.getOrderReference(), false, lines);
+        }
+        
+        boolean consumeStock = command.getAction() == InventoryAction.CONFIRM;
+        List<OrderInventoryLineResultDto> lines = new ArrayList<>();
+        for (Map.Entry<Long, Integer> line : quantities.entrySet()) {
+            Product product = products.get(line.getKey());
+            boolean holdLive = liveHolds.remove(generateHoldKey(line.getKey(), command.getOrderReference())) != null;
+            if (holdLive) {
+                product.setReservedQuantity(Math.max(0, product.getReservedQuantity() - line.getValue()));
+            }
+            if (consumeStock) {
+                product.setStockQuantity(Math.max(0, product.getStockQuantity() - line.getValue()));
+            }
+            updateStockFlags(product);
+            changedProducts.add(product);
+            
+            String message = consumeStock || holdLive ? command.getAction().getPastTense() : "No active hold";
+            lines.add(new OrderInventoryLineResultDto(line.getKey(), line.getValue(), true,
+                product.getAvailableQuantity(), message));
+        }
+        return new OrderInventoryResultDto(command.getOrderReference(), true, lines);
+    }
+    
+    private OrderInventoryResultDto alreadyApplied(OrderInventoryCommand command, Map<Long, Integer> quantities,
+                                                   Map<Long, Product> products) {
+        List<OrderInventoryLineResultDto> lines = new ArrayList<>();
+        quantities.forEach((productId, quantity) -> {
+            Product product = products.get(productId);
+            lines.add(new OrderInventoryLineResultDto(productId, quantity, true,
+                product != null ? product.getAvailableQuantity() : null,
+                "Already " + command.getAction().getPastTense().toLowerCase()));
+        });
+        return new OrderInventoryResultDto(command.getOrderReference(), true, lines);
+    }
+    
+    private String ledgerKey(String orderReference, InventoryAction action) {
+        return orderReference + ":" + action;
+    }
+    
+    /**
+     * Save product with stock status update; threshold crossings go to the stock level tracker and
+     * the change to the search outbox (availability is indexed), in the caller's transaction
      */
     private void saveProductWithStockUpdate(Product product) {
-        product.updateOutOfStockStatus();
+        StockFlags before = StockFlags.of(product);
+        updateStockFlags(product);
         productRepository.save(product);
+        searchOutboxService.enqueue(product.getId());
+        stockLevelTracker.onStockUpdated(product, before.lowStock(), before.outOfStock());
+    }
+    
+    private void updateStockFlags(Product product) {
+        product.updateOutOfStockStatus();
+        product.updateLowStockStatus();
     }
     
     /**
-     * Create inventory hold
+     * Create durable inventory hold and arm its expiry timer
      */
-    private void createInventoryHold(Long productId, Long userId, Integer quantity) {
-        String holdKey = generateHoldKey(productId, userId);
-        InventoryHold hold = new InventoryHold(productId, userId, quantity, 
-            LocalDateTime.now().plusHours(HOLD_DURATION_HOURS));
-        inventoryHolds.put(holdKey, hold);
+    private void createInventoryHold(Long productId, Long userId, Integer quantity, String holdReference) {
+        String reference = holdReference != null
+            ? holdReference
+            : "user-" + (userId != null ? userId : -1L) + "-" + UUID.randomUUID();
+        
+        InventoryHold hold = inventoryHoldRepository.save(newInventoryHold(productId, userId, quantity, reference));
+        scheduleHoldExpiry(hold.getHoldKey(), hold.getExpiresAt());
+    }
+    
+    private InventoryHold newInventoryHold(Long productId, Long userId, Integer quantity, String holdReference) {
+        InventoryHold hold = new InventoryHold();
+        hold.setHoldKey(generateHoldKey(productId, holdReference));
+        hold.setProductId(productId);
+        hold.setUserId(userId);
+        hold.setHoldReference(holdReference);
+        hold.setQuantity(quantity);
+        hold.setExpiresAt(LocalDateTime.now().plusHours(HOLD_DURATION_HOURS));
+        return hold;
     }
     
     /**
-     * Remove inventory hold
+     * Remove inventory hold. Without a hold reference the user's oldest hold on the product is removed.
+     * Returns the hold's quantity only if this call deleted the hold.
      */
-    private void removeInventoryHold(Long productId, Long userId) {
-        String holdKey = generateHoldKey(productId, userId);
-        inventoryHolds.remove(holdKey);
+    private Optional<Integer> removeInventoryHold(Long productId, Long userId, String holdReference) {
+        Optional<InventoryHold> hold = holdReference != null
+            ? inventoryHoldRepository.findByHoldKey(generateHoldKey(productId, holdReference))
+            : inventoryHoldRepository.findFirstByProductIdAndUserIdOrderByExpiresAtAsc(productId, userId);
+        if (hold.isEmpty()) {
+            return Optional.empty();
+        }
+        
+        String holdKey = hold.get().getHoldKey();
+        synchronized (holdExpiryWheel) {
+            holdExpiryWheel.cancel(holdKey);
+        }
+        return inventoryHoldRepository.deleteByHoldKey(holdKey) == 1
+            ? Optional.of(hold.get().getQuantity())
+            : Optional.empty();
     }
     
     /**
      * Generate unique hold key
      */
-    private String generateHoldKey(Long productId, Long userId) {
-        return productId + ":" + (userId != null ? userId : -1L);
+    private String generateHoldKey(Long productId, String holdReference) {
+        return productId + ":" + holdReference;
+    }
+    
+    private void scheduleHoldExpiry(String holdKey, LocalDateTime expiresAt) {
+        long deadline = expiresAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        boolean scheduled;
+        synchronized (holdExpiryWheel) {
+            scheduled = holdExpiryWheel.schedule(holdKey, deadline);
+        }
+        if (!scheduled) {
+            releaseExpiredHold(holdKey);
+        }
     }
     
     /**
-     * Start background cleanup task for expired holds
+     * Return an expired hold's quantity to available stock. The product row is locked before the
+     * conditional delete - the same order as release/confirm - so this is safe to race against
+     * explicit release/confirm and against other instances.
      */
-    private void startInventoryHoldCleanup() {
-        scheduler.scheduleAtFixedRate(() -> {
-            LocalDateTime now = LocalDateTime.now();
-            inventoryHolds.entrySet().removeIf(entry -> {
-                InventoryHold hold = entry.getValue();
-                if (hold.getExpiryTime().isBefore(now)) {
-                    releaseReservedInventory(hold.getProductId(), hold.getQuantity(), hold.getUserId());
-                    log.info("Released expired inventory hold: {}", entry.getKey());
-                    return true;
-                }
-                return false;
-            });
-        }, CLEANUP_INTERVAL_HOURS, CLEANUP_INTERVAL_HOURS, TimeUnit.HOURS);
+    private void releaseExpiredHold(String holdKey) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                inventoryHoldRepository.findByHoldKey(holdKey).ifPresent(hold -> {
+                    Optional<Product> product = productRepository.findByIdForUpdate(hold.getProductId());
+                    if (inventoryHoldRepository.deleteByHoldKey(holdKey) != 1) {
+                        return;
+                    }
+                    product.ifPresent(p -> {
+                        p.setReservedQuantity(Math.max(0, p.getReservedQuantity() - hold.getQuantity()));
+                        saveProductWithStockUpdate(p);
+                    });
+                    log.info("Released expired inventory hold: {}", holdKey);
+                }));
+        } catch (Exception e) {
+            log.error("Error releasing expired inventory hold {}: {}", holdKey, e.getMessage());
+        }
     }
     
     // ============================================================================
@@ -252,40 +739,50 @@ public class InventoryService {
     // ============================================================================
     
     /**
-     * DTO for cart item validation
+     * One order-level inventory action (from the HTTP API or an inventory event)
      */
-    public static class CartItemValidation {
-        private final Long productId;
-        private final Integer quantity;
+    public static class OrderInventoryCommand {
+        private final String orderReference;
+        private final InventoryAction action;
+        private final Long userId;
+        private final List<OrderInventoryItemDto> items;
         
-        public CartItemValidation(Long productId, Integer quantity) {
-            this.productId = productId;
-            this.quantity = quantity;
+        public OrderInventoryCommand(String orderReference, InventoryAction action, Long userId,
+                                     List<OrderInventoryItemDto> items) {
+            this.orderReference = orderReference;
+            this.action = action;
+            this.userId = userId;
+            this.items = items;
         }
         
-        public Long getProductId() { return productId; }
-        public Integer getQuantity() { return quantity; }
+        public String getOrderReference() { return orderReference; }
+        public InventoryAction getAction() { return action; }
+        public Long getUserId() { return userId; }
+        public List<OrderInventoryItemDto> getItems() { return items; }
     }
     
     /**
-     * Internal class for tracking inventory holds
+     * Stock level flags as loaded, to tell which writes crossed a threshold
      */
-    private static class InventoryHold {
+    private record StockFlags(boolean lowStock, boolean outOfStock) {
+        static StockFlags of(Product product) {
+            return new StockFlags(Boolean.TRUE.equals(product.getIsLowStock()), Boolean.TRUE.equals(product.getIsOutOfStock()));
+        }
+    }
+    
+    /**
+     * DTO for cart item validation
+     */
+    public static class CartItemValidation {
         private final Long productId;
-        private final Long userId;
         private final Integer quantity;
-        private final LocalDateTime expiryTime;
         
-        public InventoryHold(Long productId, Long userId, Integer quantity, LocalDateTime expiryTime) {
+        public CartItemValidation(Long productId, Integer quantity) {
             this.productId = productId;
-            this.userId = userId;
             this.quantity = quantity;
-            this.expiryTime = expiryTime;
         }
         
         public Long getProductId() { return productId; }
-        public Long getUserId() { return userId; }
         public Integer getQuantity() { return quantity; }
-        public LocalDateTime getExpiryTime() { return expiryTime; }
     }
 }
\ No newline at end of file
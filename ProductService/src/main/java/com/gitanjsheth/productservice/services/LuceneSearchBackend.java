@@ -0,0 +1,394 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.FacetBucketDto;
+import com.gitanjsheth.productservice.dtos.SearchFiltersDto;
+import com.gitanjsheth.productservice.dtos.SearchResultDto;
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.models.ProductSearchDocument;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.utils.PriceBuckets;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.IntPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.SortedDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DocValues;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.LeafReaderContext;
+import org.apache.lucene.index.NumericDocValues;
+import org.apache.lucene.index.SortedDocValues;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.CollectorManager;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.ScoreMode;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.SimpleCollector;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.MMapDirectory;
+import org.apache.lucene.util.BytesRef;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Embedded search backend: a Lucene index on local disk, opened through memory-mapped files
+ * so hot segments are served from the page cache without a network hop. It is fed by the same
+ * search outbox relay as Elasticsearch and answers the same filtered, faceted queries.
+ * Active when app.search.backend=embedded, or alongside Elasticsearch when
+ * app.search.embedded.enabled=true, where SearchService benchmarks it and serves from it while
+ * the Elasticsearch circuit breaker is open.
+ */
+@Component
+@Slf4j
+public class LuceneSearchBackend implements SearchBackend {
+
+    public static final String NAME = "embedded";
+
+    private final ProductRepository productRepository;
+    private final PriceBuckets priceBuckets;
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final boolean enabled;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    @Value("${app.search.embedded.path:./data/search-index}")
+    private String indexPath;
+
+    @Value("${app.search.facets.category-size:20}")
+    private int categoryFacetSize;
+
+    @Value("${app.search.reindex.page-size:500}")
+    private int pageSize;
+
+    public LuceneSearchBackend(ProductRepository productRepository,
+                               @Value("${app.search.facets.price-breaks:100,500,1000,5000}") int[] priceBreaks,
+                               @Value("${app.search.backend:elasticsearch}") String backend,
+                               @Value("${app.search.embedded.enabled:false}") boolean embeddedEnabled) {
+        this.productRepository = productRepository;
+        this.priceBuckets = new PriceBuckets(priceBreaks);
+        this.enabled = embeddedEnabled || NAME.equals(backend);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) return;
+        Path path = Path.of(indexPath);
+        Files.createDirectories(path);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(new MMapDirectory(path), config);
+        searcherManager = new SearcherManager(writer, null);
+        log.info("Embedded search index opened at {} with {} documents", path.toAbsolutePath(), writer.getDocStats().numDocs);
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (!enabled) return;
+        searcherManager.close();
+        writer.close();
+    }
+
+    /**
+     * A fresh node starts with an empty local index; load it from MySQL once.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadIfEmpty() {
+        if (!enabled || writer.getDocStats().numDocs > 0) return;
+        long lastSeenId = 0L;
+        List<Product> page;
+        do {
+            page = productRepository.findPageAfterId(lastSeenId, PageRequest.of(0, pageSize));
+            if (!page.isEmpty()) {
+                indexProducts(page);
+                lastSeenId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+        log.info("Embedded search index loaded with {} documents", writer.getDocStats().numDocs);
+    }
+
+    @Override
+    public void indexProducts(List<Product> products) {
+        if (!enabled || products.isEmpty()) return;
+        try {
+            for (Product product : products) {
+                ProductSearchDocument doc = ProductSearchDocument.from(product);
+                writer.updateDocument(new Term("id", doc.getId()), toLuceneDocument(doc));
+            }
+            commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Embedded index write failed", e);
+        }
+    }
+
+    @Override
+    public void deleteProducts(Collection<Long> productIds) {
+        if (!enabled || productIds.isEmpty()) return;
+        try {
+            Term[] terms = productIds.stream()
+                    .map(id -> new Term("id", ProductSearchDocument.documentId(id)))
+                    .toArray(Term[]::new);
+            writer.deleteDocuments(terms);
+            commit();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Embedded index delete failed", e);
+        }
+    }
+
+    @Override
+    public SearchResultDto search(String queryText, SearchFiltersDto filters, int page, int size) {
+        if (!enabled) {
+            throw new IllegalStateException("Embedded search backend is disabled");
+        }
+        Query query = buildQuery(queryText, filters);
+        IndexSearcher searcher = null;
+        try {
+            searcher = searcherManager.acquire();
+            int window = Math.max(1, (page + 1) * size);
+            TopDocs topDocs = searcher.search(query, window);
+            FacetCounts facets = searcher.search(query, new FacetCollectorManager());
+
+            List<ProductSearchDocument> content = new ArrayList<>(size);
+            StoredFields storedFields = searcher.storedFields();
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = page * size; i < scoreDocs.length && content.size() < size; i++) {
+                content.add(fromLuceneDocument(storedFields.document(scoreDocs[i].doc)));
+            }
+
+            SearchResultDto result = new SearchResultDto();
+            result.setContent(content);
+            result.setNumber(page);
+            result.setSize(size);
+            result.setTotalElements(facets.total);
+            result.setTotalPages(size == 0 ? 0 : (int) Math.ceil((double) facets.total / size));
+            result.setCategoryFacets(facets.categoryBuckets(categoryFacetSize));
+            result.setPriceFacets(facets.priceBuckets());
+            return result;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Embedded search failed", e);
+        } finally {
+            if (searcher != null) {
+                try {
+                    searcherManager.release(searcher);
+                } catch (IOException e) {
+                    log.warn("Could not release embedded searcher: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void commit() throws IOException {
+        writer.commit();
+        searcherManager.maybeRefresh();
+    }
+
+    private Query buildQuery(String queryText, SearchFiltersDto filters) {
+        BooleanQuery.Builder builder = new BooleanQuery.Builder();
+        boolean hasText = false;
+        if (queryText != null && !queryText.isBlank()) {
+            for (String field : new String[]{"title", "description"}) {
+                for (String token : analyze(field, queryText)) {
+                    builder.add(new TermQuery(new Term(field, token)), BooleanClause.Occur.SHOULD);
+                    hasText = true;
+                }
+            }
+            if (hasText) {
+                builder.setMinimumNumberShouldMatch(1);
+            }
+        }
+        if (!hasText) {
+            builder.add(new MatchAllDocsQuery(), BooleanClause.Occur.MUST);
+        }
+
+        // FILTER clauses do not score and are cached by the searcher's query cache
+        if (filters.getCategory() != null && !filters.getCategory().isBlank()) {
+            builder.add(new TermQuery(new Term("category", filters.getCategory())), BooleanClause.Occur.FILTER);
+        }
+        if (filters.getMinPrice() != null || filters.getMaxPrice() != null) {
+            int min = filters.getMinPrice() != null ? filters.getMinPrice() : Integer.MIN_VALUE;
+            int max = filters.getMaxPrice() != null ? filters.getMaxPrice() : Integer.MAX_VALUE;
+            builder.add(IntPoint.newRangeQuery("price", min, max), BooleanClause.Occur.FILTER);
+        }
+        if (filters.isInStock()) {
+            builder.add(new TermQuery(new Term("isActive", "true")), BooleanClause.Occur.FILTER);
+            builder.add(IntPoint.newRangeQuery("availableQuantity", 1, Integer.MAX_VALUE), BooleanClause.Occur.FILTER);
+        }
+        return builder.build();
+    }
+
+    private List<String> analyze(String field, String text) {
+        List<String> tokens = new ArrayList<>();
+        try (TokenStream stream = analyzer.tokenStream(field, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                tokens.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return tokens;
+    }
+
+    private Document toLuceneDocument(ProductSearchDocument doc) {
+        Document document = new Document();
+        document.add(new StringField("id", doc.getId(), Field.Store.YES));
+        document.add(new StoredField("productId", doc.getProductId()));
+        if (doc.getTitle() != null) {
+            document.add(new TextField("title", doc.getTitle(), Field.Store.YES));
+        }
+        if (doc.getDescription() != null) {
+            document.add(new TextField("description", doc.getDescription(), Field.Store.YES));
+        }
+        if (doc.getCategory() != null) {
+            document.add(new StringField("category", doc.getCategory(), Field.Store.YES));
+            document.add(new SortedDocValuesField("category", new BytesRef(doc.getCategory())));
+        }
+        if (doc.getPrice() != null) {
+            document.add(new IntPoint("price", doc.getPrice()));
+            document.add(new StoredField("price", doc.getPrice()));
+            document.add(new NumericDocValuesField("price", doc.getPrice()));
+        }
+        if (doc.getAvailableQuantity() != null) {
+            document.add(new IntPoint("availableQuantity", doc.getAvailableQuantity()));
+            document.add(new StoredField("availableQuantity", doc.getAvailableQuantity()));
+        }
+        document.add(new StringField("isActive", String.valueOf(Boolean.TRUE.equals(doc.getIsActive())), Field.Store.YES));
+        return document;
+    }
+
+    private ProductSearchDocument fromLuceneDocument(Document document) {
+        ProductSearchDocument doc = new ProductSearchDocument();
+        doc.setId(document.get("id"));
+        doc.setProductId(document.getField("productId").numericValue().longValue());
+        doc.setTitle(document.get("title"));
+        doc.setDescription(document.get("description"));
+        doc.setCategory(document.get("category"));
+        if (document.getField("price") != null) {
+            doc.setPrice(document.getField("price").numericValue().intValue());
+        }
+        if (document.getField("availableQuantity") != null) {
+            doc.setAvailableQuantity(document.getField("availableQuantity").numericValue().intValue());
+        }
+        doc.setIsActive(Boolean.parseBoolean(document.get("isActive")));
+        return doc;
+    }
+
+    /**
+     * Counts every match by category and price bucket from doc values, one pass per segment.
+     */
+    private final class FacetCollectorManager implements CollectorManager<FacetCollector, FacetCounts> {
+
+        @Override
+        public FacetCollector newCollector() {
+            return new FacetCollector();
+        }
+
+        @Override
+        public FacetCounts reduce(Collection<FacetCollector> collectors) {
+            FacetCounts counts = new FacetCounts();
+            for (FacetCollector collector : collectors) {
+                counts.merge(collector.counts);
+            }
+            return counts;
+        }
+    }
+
+    private final class FacetCollector extends SimpleCollector {
+        private final FacetCounts counts = new FacetCounts();
+        private SortedDocValues categories;
+        private NumericDocValues prices;
+
+        @Override
+        protected void doSetNextReader(LeafReaderContext context) throws IOException {
+            categories = DocValues.getSorted(context.reader(), "category");
+            prices = DocValues.getNumeric(context.reader(), "price");
+        }
+
+        @Override
+        public void collect(int doc) throws IOException {
+            counts.total++;
+            if (categories.advanceExact(doc)) {
+                counts.categories.merge(categories.lookupOrd(categories.ordValue()).utf8ToString(), 1L, Long::sum);
+            }
+            if (prices.advanceExact(doc)) {
+                counts.prices[priceBuckets.bucketOf(prices.longValue())]++;
+            }
+        }
+
+        @Override
+        public ScoreMode scoreMode() {
+            return ScoreMode.COMPLETE_NO_SCORES;
+        }
+    }
+
+    private final class FacetCounts {
+        private final Map<String, Long> categories = new HashMap<>();
+        private final long[] prices = new long[priceBuckets.size()];
+        private long total;
+
+        private void merge(FacetCounts other) {
+            total += other.total;
+            other.categories.forEach((key, count) -> categories.merge(key, count, Long::sum));
+            for (int i = 0; i < prices.length; i++) {
+                prices[i] += other.prices[i];
+            }
+        }
+
+        // Same ordering as an Elasticsearch terms aggregation: count desc, then key
+        private List<FacetBucketDto> categoryBuckets(int limit) {
+            return categories.entrySet().stream()
+                    .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.<String, Long>comparingByKey()))
+                    .limit(limit)
+                    .map(entry -> new FacetBucketDto(entry.getKey(), entry.getValue(), null, null))
+                    .toList();
+        }
+
+        private List<FacetBucketDto> priceBuckets() {
+            List<FacetBucketDto> buckets = new ArrayList<>(prices.length);
+            for (int i = 0; i < prices.length; i++) {
+                buckets.add(new FacetBucketDto(priceBuckets.key(i), prices[i], priceBuckets.from(i), priceBuckets.to(i)));
+            }
+            return buckets;
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.gitanjsheth.productservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gitanjsheth.productservice.dtos.ProductImportErrorDto;
+import com.gitanjsheth.productservice.dtos.ProductImportResultDto;
+import com.gitanjsheth.productservice.dtos.ProductImportRowDto;
+import com.gitanjsheth.productservice.models.Category;
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.repositories.CategoryRepository;
+import com.gitanjsheth.productservice.utils.CsvLineParser;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk product ingest from an NDJSON or CSV stream. The stream is read one line at a time, so
+ * memory stays bounded by the chunk size whatever the upload size. Each chunk is inserted with
+ * one JDBC batch (rewritten by the MySQL driver into multi-row INSERTs) together with its search
+ * outbox rows in a single transaction; the outbox relay indexes the new products asynchronously.
+ * Once a chunk commits its ids are announced to the catalog snapshots and its stock flags are fed
+ * to StockLevelTracker, as enqueueAll and InventoryService do for entity writes.
+ * Categories are resolved from CategoryCache. Invalid rows are reported by line number and
+ * skipped; if a chunk fails in the database its rows are retried one by one to isolate the bad row.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO product (created_at, last_updated_at, deleted, title, price, description, imageurl, category_id, "
+                    + "stock_quantity, reserved_quantity, available_quantity, is_out_of_stock, show_when_out_of_stock, "
+                    + "allow_backorder, low_stock_threshold, is_low_stock, is_active) "
+                    + "VALUES (?, ?, false, ?, ?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_OUTBOX_SQL =
+            "INSERT INTO search_outbox (created_at, last_updated_at, deleted, product_id) VALUES (?, ?, false, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final StockLevelTracker stockLevelTracker;
+
+    @Value("${app.products.import.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.products.import.max-errors:1000}")
+    private int maxErrors;
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                CategoryRepository categoryRepository,
+                                CategoryCache categoryCache,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                CatalogSnapshotService catalogSnapshotService,
+                                StockLevelTracker stockLevelTracker) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.categoryRepository = categoryRepository;
+        this.categoryCache = categoryCache;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.stockLevelTracker = stockLevelTracker;
+    }
+
+    public ProductImportResultDto importProducts(InputStream input, Format format) throws IOException {
+        ProductImportResultDto result = new ProductImportResultDto();
+        List<PendingRow> chunk = new ArrayList<>(chunkSize);
+        List<String> csvHeader = null;
+        long lineNumber = 0;
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                if (format == Format.CSV && csvHeader == null) {
+                    csvHeader = CsvLineParser.parse(line.replace("\uFEFF", ""));
+                    continue;
+                }
+
+                result.setTotalRows(result.getTotalRows() + 1);
+                try {
+                    ProductImportRowDto row = format == Format.CSV
+                            ? fromCsv(csvHeader, CsvLineParser.parse(line))
+                            : objectMapper.readValue(line, ProductImportRowDto.class);
+                    chunk.add(new PendingRow(lineNumber, toProduct(row), row.getCategory().trim()));
+                } catch (Exception e) {
+                    fail(result, lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() >= chunkSize) {
+                    writeChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, result);
+        }
+        log.info("Product import finished: {} rows, {} imported, {} failed",
+                result.getTotalRows(), result.getImportedRows(), result.getFailedRows());
+        return result;
+    }
+
+    private void writeChunk(List<PendingRow> chunk, ProductImportResultDto result) {
+        try {
+            List<Long> productIds = transactionTemplate.execute(status -> insert(chunk));
+            catalogSnapshotService.publishChanges(productIds);
+            result.setImportedRows(result.getImportedRows() + chunk.size());
+        } catch (Exception chunkFailure) {
+            log.warn("Import chunk of {} rows failed, retrying row by row: {}", chunk.size(), chunkFailure.getMessage());
+            for (PendingRow row : chunk) {
+                try {
+                    List<Long> productIds = transactionTemplate.execute(status -> insert(List.of(row)));
+                    catalogSnapshotService.publishChanges(productIds);
+                    result.setImportedRows(result.getImportedRows() + 1);
+                } catch (Exception e) {
+                    fail(result, row.line, e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the generated product ids; stock level crossings are handed to StockLevelTracker,
+     * which applies them only after the transaction commits.
+     */
+    private List<Long> insert(List<PendingRow> rows) {
+        Map<String, Category> categories = resolveCategories(rows.stream()
+                .map(row -> row.categoryTitle)
+                .collect(Collectors.toSet()));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (PendingRow row : rows) {
+            Product product = row.product;
+            product.setAvailableQuantity(product.getStockQuantity());
+            product.setIsOutOfStock(product.getStockQuantity() <= 0);
+            product.setIsLowStock(product.getLowStockThreshold() != null
+                    && product.getStockQuantity() <= product.getLowStockThreshold());
+        }
+
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                connection -> connection.prepareStatement(INSERT_PRODUCT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        PendingRow row = rows.get(i);
+                        Product product = row.product;
+                        ps.setTimestamp(1, now);
+                        ps.setTimestamp(2, now);
+                        ps.setString(3, product.getTitle());
+                        ps.setInt(4, product.getPrice());
+                        ps.setString(5, product.getDescription());
+                        ps.setString(6, product.getImageURL());
+                        ps.setLong(7, categories.get(row.categoryTitle).getId());
+                        ps.setInt(8, product.getStockQuantity());
+                        ps.setInt(9, product.getAvailableQuantity());
+                        ps.setBoolean(10, product.getIsOutOfStock());
+                        ps.setBoolean(11, product.getShowWhenOutOfStock());
+                        ps.setBoolean(12, product.getAllowBackorder());
+                        if (product.getLowStockThreshold() != null) {
+                            ps.setInt(13, product.getLowStockThreshold());
+                        } else {
+                            ps.setNull(13, Types.INTEGER);
+                        }
+                        ps.setBoolean(14, product.getIsLowStock());
+                        ps.setBoolean(15, product.getIsActive());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                },
+                keyHolder);
+
+        List<Long> productIds = new ArrayList<>(rows.size());
+        List<Object[]> outboxRows = new ArrayList<>(rows.size());
+        List<Map<String, Object>> keyList = keyHolder.getKeyList();
+        for (int i = 0; i < keyList.size(); i++) {
+            long productId = ((Number) keyList.get(i).values().iterator().next()).longValue();
+            productIds.add(productId);
+            outboxRows.add(new Object[]{now, now, productId});
+
+            // A new product has no previous flags, so starting low or out of stock is a crossing
+            Product product = rows.get(i).product;
+            product.setId(productId);
+            stockLevelTracker.onStockUpdated(product, false, false);
+        }
+        jdbcTemplate.batchUpdate(INSERT_OUTBOX_SQL, outboxRows);
+        return productIds;
+    }
+
+    /**
+     * Categories come from the in-memory cache; only titles never seen before touch the database.
+     */
+    private Map<String, Category> resolveCategories(Set<String> titles) {
+        Map<String, Category> resolved = new HashMap<>();
+        for (String title : titles) {
+            Category category = categoryCache.findByTitle(title).orElseGet(() -> {
+                Category created = new Category();
+                created.setTitle(title);
+                Category saved = categoryRepository.save(created);
+                categoryCache.onCategorySaved(saved);
+                return saved;
+            });
+            resolved.put(title, category);
+        }
+        return resolved;
+    }
+
+    private Product toProduct(ProductImportRowDto row) {
+        if (row.getCategory() == null || row.getCategory().trim().length() < 2 || row.getCategory().trim().length() > 50) {
+            throw new IllegalArgumentException("Category title must be between 2 and 50 characters");
+        }
+        Product product = new Product();
+        product.setTitle(row.getTitle());
+        product.setPrice(row.getPrice());
+        product.setDescription(row.getDescription());
+        product.setImageURL(row.getImageURL());
+        product.setCategory(new Category());
+        if (row.getStockQuantity() != null) product.setStockQuantity(row.getStockQuantity());
+        if (row.getLowStockThreshold() != null) product.setLowStockThreshold(row.getLowStockThreshold());
+        if (row.getAllowBackorder() != null) product.setAllowBackorder(row.getAllowBackorder());
+        if (row.getShowWhenOutOfStock() != null) product.setShowWhenOutOfStock(row.getShowWhenOutOfStock());
+        if (row.getIsActive() != null) product.setIsActive(row.getIsActive());
+
+        if (product.getPrice() == null) {
+            throw new IllegalArgumentException("Price is required");
+        }
+        Set<ConstraintViolation<Product>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return product;
+    }
+
+    private ProductImportRowDto fromCsv(List<String> header, List<String> fields) {
+        if (fields.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " fields but found " + fields.size());
+        }
+        Map<String, String> values = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String value = fields.get(i).trim();
+            if (!value.isEmpty()) {
+                values.put(header.get(i).trim(), value);
+            }
+        }
+        ProductImportRowDto row = new ProductImportRowDto();
+        row.setTitle(values.get("title"));
+        row.setPrice(parseInteger(values, "price"));
+        row.setDescription(values.get("description"));
+        row.setImageURL(values.get("imageURL"));
+        row.setCategory(values.get("category"));
+        row.setStockQuantity(parseInteger(values, "stockQuantity"));
+        row.setLowStockThreshold(parseInteger(values, "lowStockThreshold"));
+        row.setAllowBackorder(parseBoolean(values, "allowBackorder"));
+        row.setShowWhenOutOfStock(parseBoolean(values, "showWhenOutOfStock"));
+        row.setIsActive(parseBoolean(values, "isActive"));
+        return row;
+    }
+
+    private static Integer parseInteger(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null) return null;
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private static Boolean parseBoolean(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null) return null;
+        if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+        return Boolean.valueOf(value);
+    }
+
+    private void fail(ProductImportResultDto result, long line, String message) {
+        result.setFailedRows(result.getFailedRows() + 1);
+        if (result.getErrors().size() < maxErrors) {
+            result.getErrors().add(new ProductImportErrorDto(line, message));
+        }
+    }
+
+    private static final class PendingRow {
+        private final long line;
+        private final Product product;
+        private final String categoryTitle;
+
+        private PendingRow(long line, Product product, String categoryTitle) {
+            this.line = line;
+            this.product = product;
+            this.categoryTitle = categoryTitle;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.ProductDto;
+import com.gitanjsheth.productservice.exceptions.CategoryNotFoundException;
+import com.gitanjsheth.productservice.exceptions.ProductNotFoundException;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.repositories.ProductRepository.CatalogStamp;
+import com.gitanjsheth.productservice.utils.CatalogVersion;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of the product endpoints. Every method is a single projection query that joins the
+ * category, so no entities are managed, dirty-checked or lazily loaded per row.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProductQueryService {
+
+    // Fields a multi-get caller can select; id is always returned
+    private static final Map<String, Function<ProductDto, Object>> FIELDS = new LinkedHashMap<>();
+
+    static {
+        FIELDS.put("id", ProductDto::getId);
+        FIELDS.put("title", ProductDto::getTitle);
+        FIELDS.put("price", ProductDto::getPrice);
+        FIELDS.put("description", ProductDto::getDescription);
+        FIELDS.put("imageURL", ProductDto::getImageURL);
+        FIELDS.put("category", ProductDto::getCategory);
+        FIELDS.put("stockQuantity", ProductDto::getStockQuantity);
+        FIELDS.put("reservedQuantity", ProductDto::getReservedQuantity);
+        FIELDS.put("availableQuantity", ProductDto::getAvailableQuantity);
+        FIELDS.put("isOutOfStock", ProductDto::getIsOutOfStock);
+        FIELDS.put("showWhenOutOfStock", ProductDto::getShowWhenOutOfStock);
+        FIELDS.put("allowBackorder", ProductDto::getAllowBackorder);
+        FIELDS.put("lowStockThreshold", ProductDto::getLowStockThreshold);
+        FIELDS.put("isActive", ProductDto::getIsActive);
+    }
+
+    private final ProductRepository productRepository;
+    private final CategoryCache categoryCache;
+    private final CatalogSnapshotService catalogSnapshotService;
+
+    public ProductQueryService(ProductRepository productRepository, CategoryCache categoryCache,
+                               CatalogSnapshotService catalogSnapshotService) {
+        this.productRepository = productRepository;
+        this.categoryCache = categoryCache;
+        this.catalogSnapshotService = catalogSnapshotService;
+    }
+
+    public ProductDto getProduct(Long productId) throws ProductNotFoundException {
+        if (productId == null || productId <= 0) {
+            throw new IllegalArgumentException("Product ID must be a positive number");
+        }
+        // Shortly after startup, unchanged products come from the mapped catalog snapshot
+        ProductDto fromSnapshot = catalogSnapshotService.find(productId);
+        if (fromSnapshot != null) {
+            return fromSnapshot;
+        }
+        return productRepository.findDtoById(productId)
+                .orElseThrow(() -> new ProductNotFoundException(productId, "Product not found with id: " + productId));
+    }
+
+    /**
+     * Several products in one query, in the order requested; unknown ids are left out.
+     * Only the selected fields are returned (all of them when fields is empty).
+     */
+    public List<Map<String, Object>> getProducts(Collection<Long> productIds, Set<String> fields) {
+        Set<String> unknown = fields.stream().filter(field -> !FIELDS.containsKey(field)).collect(Collectors.toSet());
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown product fields: " + unknown + "; allowed: " + FIELDS.keySet());
+        }
+        Map<Long, ProductDto> byId = productRepository.findDtosByIdIn(productIds).stream()
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+
+        List<Map<String, Object>> products = new ArrayList<>(byId.size());
+        for (Long productId : new LinkedHashSet<>(productIds)) {
+            ProductDto product = byId.get(productId);
+            if (product == null) continue;
+            Map<String, Object> selected = new LinkedHashMap<>();
+            FIELDS.forEach((field, accessor) -> {
+                if (field.equals("id") || fields.isEmpty() || fields.contains(field)) {
+                    selected.put(field, accessor.apply(product));
+                }
+            });
+            products.add(selected);
+        }
+        return products;
+    }
+
+    public List<ProductDto> getAllProducts() {
+        return productRepository.findAllDtos();
+    }
+
+    public List<ProductDto> getProductsByCategory(Long categoryId) throws CategoryNotFoundException {
+        if (categoryId == null || categoryId <= 0) {
+            throw new IllegalArgumentException("Category ID must be a positive number");
+        }
+        if (categoryCache.findById(categoryId).isEmpty()) {
+            throw new CategoryNotFoundException("Category not found with id: " + categoryId, categoryId);
+        }
+        return productRepository.findDtosByCategoryId(categoryId);
+    }
+
+    public List<ProductDto> getProductsByCategoryTitle(String categoryTitle) {
+        if (categoryTitle == null || categoryTitle.trim().isEmpty()) {
+            throw new IllegalArgumentException("Category title cannot be null or empty");
+        }
+        return productRepository.findDtosByCategoryTitle(categoryTitle);
+    }
+
+    // Versions of the responses above, for conditional GETs: one aggregate query each, so a
+    // revalidating client gets its 304 without the rows being read or serialized
+
+    /**
+     * While the product is served from the catalog snapshot, its validators come from the snapshot
+     * (the product is unchanged since it was taken) and no stamp query is sent to MySQL.
+     */
+    public CatalogVersion getProductVersion(Long productId) throws ProductNotFoundException {
+        if (productId == null || productId <= 0) {
+            throw new IllegalArgumentException("Product ID must be a positive number");
+        }
+        long snapshotAsOfMillis = catalogSnapshotService.servedAsOfMillis(productId);
+        if (snapshotAsOfMillis >= 0) {
+            LocalDateTime asOf = LocalDateTime.ofInstant(Instant.ofEpochMilli(snapshotAsOfMillis), ZoneId.systemDefault());
+            return CatalogVersion.of("p" + productId + "s", 1, asOf).and(categoryCache.getVersion());
+        }
+        CatalogStamp stamp = productRepository.findStampById(productId);
+        if (stamp.getCount() == 0) {
+            throw new ProductNotFoundException(productId, "Product not found with id: " + productId);
+        }
+        return toVersion("p" + productId, stamp);
+    }
+
+    public CatalogVersion getAllProductsVersion() {
+        return toVersion("all", productRepository.findStamp());
+    }
+
+    public CatalogVersion getProductsByCategoryVersion(Long categoryId) throws CategoryNotFoundException {
+        if (categoryId == null || categoryId <= 0) {
+            throw new IllegalArgumentException("Category ID must be a positive number");
+        }
+        if (categoryCache.findById(categoryId).isEmpty()) {
+            throw new CategoryNotFoundException("Category not found with id: " + categoryId, categoryId);
+        }
+        return toVersion("cat" + categoryId, productRepository.findStampByCategoryId(categoryId));
+    }
+
+    public CatalogVersion getProductsByCategoryTitleVersion(String categoryTitle) {
+        if (categoryTitle == null || categoryTitle.trim().isEmpty()) {
+            throw new IllegalArgumentException("Category title cannot be null or empty");
+        }
+        return toVersion("cat", productRepository.findStampByCategoryTitle(categoryTitle));
+    }
+
+    private CatalogVersion toVersion(String prefix, CatalogStamp stamp) {
+        return CatalogVersion.of(prefix, stamp.getCount(), stamp.getLastUpdatedAt()).and(categoryCache.getVersion());
+    }
+}
@@ -0,0 +1,112 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.LatencyPercentilesDto;
+import com.gitanjsheth.productservice.dtos.QueryStatsDto;
+import com.gitanjsheth.productservice.dtos.SearchAnalyticsEventPageDto;
+import com.gitanjsheth.productservice.models.SearchAnalytics;
+import com.gitanjsheth.productservice.models.SearchAnalyticsRollup;
+import com.gitanjsheth.productservice.repositories.SearchAnalyticsRepository;
+import com.gitanjsheth.productservice.repositories.SearchAnalyticsRollupRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read side of search analytics. Aggregates come from the per-minute rollups written by
+ * SearchAnalyticsService, so their cost depends on the time range, not on the raw table size.
+ * Raw rows are only read in keyset pages for drill-down.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class SearchAnalyticsReportService {
+
+    private final SearchAnalyticsRollupRepository rollupRepository;
+    private final SearchAnalyticsRepository analyticsRepository;
+
+    public List<QueryStatsDto> getTopQueries(LocalDateTime from, LocalDateTime to, int page, int size) {
+        return toQueryStats(rollupRepository.findTopQueries(from, to, PageRequest.of(page, size)));
+    }
+
+    public List<QueryStatsDto> getZeroResultQueries(LocalDateTime from, LocalDateTime to, int page, int size) {
+        return toQueryStats(rollupRepository.findZeroResultQueries(from, to, PageRequest.of(page, size)));
+    }
+
+    public LatencyPercentilesDto getLatencyPercentiles(LocalDateTime from, LocalDateTime to) {
+        LatencyPercentilesDto dto = new LatencyPercentilesDto();
+        dto.setFrom(from);
+        dto.setTo(to);
+
+        List<Object[]> rows = rollupRepository.sumLatencyHistogram(from, to);
+        Object[] row = rows.isEmpty() ? null : rows.get(0);
+        if (row == null || row[0] == null) {
+            return dto;
+        }
+
+        long total = toLong(row[0]);
+        long max = toLong(row[1]);
+        long[] buckets = new long[SearchAnalyticsRollup.LATENCY_BUCKET_BOUNDS_MS.length + 1];
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i] = toLong(row[2 + i]);
+        }
+
+        dto.setSearchCount(total);
+        dto.setMaxLatencyMs(max);
+        dto.setP50Ms(percentile(buckets, total, max, 0.50));
+        dto.setP90Ms(percentile(buckets, total, max, 0.90));
+        dto.setP95Ms(percentile(buckets, total, max, 0.95));
+        dto.setP99Ms(percentile(buckets, total, max, 0.99));
+        return dto;
+    }
+
+    public SearchAnalyticsEventPageDto getEvents(Long afterId, LocalDateTime from, LocalDateTime to, String query, int size) {
+        List<SearchAnalytics> items = analyticsRepository.findPageAfterId(
+                afterId != null ? afterId : 0L, from, to, query, PageRequest.of(0, size));
+        SearchAnalyticsEventPageDto page = new SearchAnalyticsEventPageDto();
+        page.setItems(items);
+        page.setNextAfterId(items.size() == size ? items.get(items.size() - 1).getId() : null);
+        return page;
+    }
+
+    // Upper bound of the bucket holding the given rank; the open last bucket reports the maximum
+    private static long percentile(long[] buckets, long total, long max, double fraction) {
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(fraction * total);
+        long cumulative = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            cumulative += buckets[i];
+            if (cumulative >= rank) {
+                return i < SearchAnalyticsRollup.LATENCY_BUCKET_BOUNDS_MS.length
+                        ? Math.min(SearchAnalyticsRollup.LATENCY_BUCKET_BOUNDS_MS[i], max)
+                        : max;
+            }
+        }
+        return max;
+    }
+
+    private List<QueryStatsDto> toQueryStats(List<Object[]> rows) {
+        List<QueryStatsDto> stats = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            QueryStatsDto dto = new QueryStatsDto();
+            long searches = toLong(row[1]);
+            long zeroResults = toLong(row[2]);
+            dto.setQuery((String) row[0]);
+            dto.setSearchCount(searches);
+            dto.setZeroResultCount(zeroResults);
+            dto.setZeroResultRate(searches == 0 ? 0 : (double) zeroResults / searches);
+            dto.setAverageLatencyMs(searches == 0 ? 0 : (double) toLong(row[3]) / searches);
+            dto.setMaxLatencyMs(toLong(row[4]));
+            stats.add(dto);
+        }
+        return stats;
+    }
+
+    private static long toLong(Object value) {
+        return value == null ? 0L : ((Number) value).longValue();
+    }
+}
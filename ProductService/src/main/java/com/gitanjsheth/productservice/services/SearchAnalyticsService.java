@@ -1,24 +1,210 @@
 package com.gitanjsheth.productservice.services;
 
-import com.gitanjsheth.productservice.models.SearchAnalytics;
-import com.gitanjsheth.productservice.repositories.SearchAnalyticsRepository;
-import lombok.RequiredArgsConstructor;
+import com.gitanjsheth.productservice.models.SearchAnalyticsRollup;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Search analytics pipeline. Request threads only put an event into a bounded in-memory ring
+ * buffer (dropping it when the buffer is full, never blocking); a background writer drains the
+ * buffer, batch-inserts the raw events over JDBC and upserts per-minute, per-query rollups.
+ * Dropped events are counted in the search.analytics.dropped metric.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class SearchAnalyticsService {
-    private final SearchAnalyticsRepository repository;
 
+    private static final int MAX_QUERY_LENGTH = 255;
+
+    private static final String INSERT_EVENT_SQL =
+            "INSERT INTO search_analytics (created_at, last_updated_at, deleted, query, execution_time_ms, result_count, user_agent, ip_address) "
+                    + "VALUES (?, ?, false, ?, ?, ?, ?, ?)";
+
+    private static final String UPSERT_ROLLUP_SQL =
+            "INSERT INTO search_analytics_rollup (created_at, last_updated_at, deleted, minute_bucket, query, search_count, zero_result_count, "
+                    + "total_latency_ms, max_latency_ms, latency_le_10ms, latency_le_25ms, latency_le_50ms, latency_le_100ms, "
+                    + "latency_le_250ms, latency_le_500ms, latency_le_1000ms, latency_gt_1000ms) "
+                    + "VALUES (?, ?, false, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+                    + "ON DUPLICATE KEY UPDATE last_updated_at = VALUES(last_updated_at), "
+                    + "search_count = search_count + VALUES(search_count), "
+                    + "zero_result_count = zero_result_count + VALUES(zero_result_count), "
+                    + "total_latency_ms = total_latency_ms + VALUES(total_latency_ms), "
+                    + "max_latency_ms = GREATEST(max_latency_ms, VALUES(max_latency_ms)), "
+                    + "latency_le_10ms = latency_le_10ms + VALUES(latency_le_10ms), "
+                    + "latency_le_25ms = latency_le_25ms + VALUES(latency_le_25ms), "
+                    + "latency_le_50ms = latency_le_50ms + VALUES(latency_le_50ms), "
+                    + "latency_le_100ms = latency_le_100ms + VALUES(latency_le_100ms), "
+                    + "latency_le_250ms = latency_le_250ms + VALUES(latency_le_250ms), "
+                    + "latency_le_500ms = latency_le_500ms + VALUES(latency_le_500ms), "
+                    + "latency_le_1000ms = latency_le_1000ms + VALUES(latency_le_1000ms), "
+                    + "latency_gt_1000ms = latency_gt_1000ms + VALUES(latency_gt_1000ms)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final BlockingQueue<SearchEvent> buffer;
+    private final AtomicLong dropped = new AtomicLong();
+    private long droppedReported;
+
+    @Value("${app.search.analytics.batch-size:1000}")
+    private int batchSize;
+
+    public SearchAnalyticsService(JdbcTemplate jdbcTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.search.analytics.buffer-capacity:10000}") int bufferCapacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.buffer = new ArrayBlockingQueue<>(bufferCapacity);
+        FunctionCounter.builder("search.analytics.dropped", dropped, AtomicLong::get)
+                .description("Search analytics events dropped because the buffer was full")
+                .register(meterRegistry);
+        Gauge.builder("search.analytics.buffered", buffer, BlockingQueue::size)
+                .description("Search analytics events waiting to be written")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Never blocks the request thread: the event is dropped if the buffer is full.
+     */
     public void record(String query, long executionTimeMs, int resultCount, String userAgent, String ipAddress) {
-        SearchAnalytics analytics = new SearchAnalytics();
-        analytics.setQuery(query);
-        analytics.setExecutionTimeMs(executionTimeMs);
-        analytics.setResultCount(resultCount);
-        analytics.setUserAgent(userAgent);
-        analytics.setIpAddress(ipAddress);
-        repository.save(analytics);
+        SearchEvent event = new SearchEvent(truncate(query), executionTimeMs, resultCount,
+                truncate(userAgent), ipAddress, LocalDateTime.now());
+        if (!buffer.offer(event)) {
+            dropped.incrementAndGet();
+        }
     }
-}
 
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    @Scheduled(fixedDelayString = "${app.search.analytics.flush-interval-ms:500}")
+    public void flush() {
+        List<SearchEvent> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            try {
+                writeEvents(batch);
+                writeRollups(batch);
+            } catch (Exception e) {
+                log.warn("Failed to write {} search analytics events: {}", batch.size(), e.getMessage());
+            }
+            batch.clear();
+        }
+
+        long droppedTotal = dropped.get();
+        if (droppedTotal > droppedReported) {
+            log.warn("Search analytics buffer full: dropped {} events ({} total)",
+                    droppedTotal - droppedReported, droppedTotal);
+            droppedReported = droppedTotal;
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
 
+    private void writeEvents(List<SearchEvent> events) {
+        List<Object[]> rows = new ArrayList<>(events.size());
+        for (SearchEvent event : events) {
+            Timestamp at = Timestamp.valueOf(event.occurredAt);
+            rows.add(new Object[]{at, at, event.query, event.executionTimeMs, event.resultCount,
+                    event.userAgent, event.ipAddress});
+        }
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, rows);
+    }
+
+    private void writeRollups(List<SearchEvent> events) {
+        Map<String, Rollup> rollups = new LinkedHashMap<>();
+        for (SearchEvent event : events) {
+            LocalDateTime minute = event.occurredAt.truncatedTo(ChronoUnit.MINUTES);
+            rollups.computeIfAbsent(minute + "|" + event.query, key -> new Rollup(minute, event.query)).add(event);
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(rollups.size());
+        for (Rollup rollup : rollups.values()) {
+            Object[] row = new Object[8 + rollup.latencyBuckets.length];
+            row[0] = now;
+            row[1] = now;
+            row[2] = Timestamp.valueOf(rollup.minute);
+            row[3] = rollup.query;
+            row[4] = rollup.count;
+            row[5] = rollup.zeroResults;
+            row[6] = rollup.totalLatencyMs;
+            row[7] = rollup.maxLatencyMs;
+            for (int i = 0; i < rollup.latencyBuckets.length; i++) {
+                row[8 + i] = rollup.latencyBuckets[i];
+            }
+            rows.add(row);
+        }
+        jdbcTemplate.batchUpdate(UPSERT_ROLLUP_SQL, rows);
+    }
+
+    private static String truncate(String value) {
+        if (value == null || value.length() <= MAX_QUERY_LENGTH) return value;
+        return value.substring(0, MAX_QUERY_LENGTH);
+    }
+
+    private static final class SearchEvent {
+        private final String query;
+        private final long executionTimeMs;
+        private final int resultCount;
+        private final String userAgent;
+        private final String ipAddress;
+        private final LocalDateTime occurredAt;
+
+        private SearchEvent(String query, long executionTimeMs, int resultCount, String userAgent,
+                            String ipAddress, LocalDateTime occurredAt) {
+            this.query = query;
+            this.executionTimeMs = executionTimeMs;
+            this.resultCount = resultCount;
+            this.userAgent = userAgent;
+            this.ipAddress = ipAddress;
+            this.occurredAt = occurredAt;
+        }
+    }
+
+    private static final class Rollup {
+        private final LocalDateTime minute;
+        private final String query;
+        private final long[] latencyBuckets = new long[SearchAnalyticsRollup.LATENCY_BUCKET_BOUNDS_MS.length + 1];
+        private long count;
+        private long zeroResults;
+        private long totalLatencyMs;
+        private long maxLatencyMs;
+
+        private Rollup(LocalDateTime minute, String query) {
+            this.minute = minute;
+            this.query = query;
+        }
+
+        private void add(SearchEvent event) {
+            count++;
+            if (event.resultCount == 0) zeroResults++;
+            totalLatencyMs += event.executionTimeMs;
+            maxLatencyMs = Math.max(maxLatencyMs, event.executionTimeMs);
+            int bucket = 0;
+            while (bucket < SearchAnalyticsRollup.LATENCY_BUCKET_BOUNDS_MS.length
+                    && event.executionTimeMs > SearchAnalyticsRollup.LATENCY_BUCKET_BOUNDS_MS[bucket]) {
+                bucket++;
+            }
+            latencyBuckets[bucket]++;
+        }
+    }
+}
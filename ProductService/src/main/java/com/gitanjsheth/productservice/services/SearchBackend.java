@@ -0,0 +1,23 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.SearchFiltersDto;
+import com.gitanjsheth.productservice.dtos.SearchResultDto;
+import com.gitanjsheth.productservice.models.Product;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Storage and query engine behind SearchService. Writes must be idempotent: the outbox relay
+ * re-applies a batch to every backend if any of them fails.
+ */
+public interface SearchBackend {
+
+    String getName();
+
+    void indexProducts(List<Product> products);
+
+    void deleteProducts(Collection<Long> productIds);
+
+    SearchResultDto search(String queryText, SearchFiltersDto filters, int page, int size);
+}
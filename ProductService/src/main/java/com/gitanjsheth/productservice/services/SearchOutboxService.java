@@ -0,0 +1,217 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.messaging.BroadcastListener;
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.models.SearchOutboxEntry;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.repositories.SearchOutboxRepository;
+import com.gitanjsheth.productservice.utils.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Transactional outbox for the product search index.
+ * Catalog writes only insert an outbox row in their own transaction; a background relay drains
+ * the outbox in batches, collapses repeated changes to the same product, and applies them with
+ * one _bulk index and one _bulk delete per batch. A rolled-back write leaves no row, and an
+ * Elasticsearch outage only delays indexing - rows stay until the relay succeeds.
+ * The relay claims its batch with a row lock held until the batch is applied, so instances never
+ * relay the same rows or overtake each other with older product state.
+ * Whichever instance relays a batch announces it on product.changes (flagged indexed); the other
+ * instances then update their own result cache, autocomplete trie and embedded index. Instances
+ * with an embedded index also apply the write path's own product.changes announcement, so that
+ * index keeps up while Elasticsearch is down and nothing is relayed.
+ */
+@Service
+@Slf4j
+public class SearchOutboxService {
+
+    private final SearchOutboxRepository outboxRepository;
+    private final ProductRepository productRepository;
+    private final SearchService searchService;
+    private final AutocompleteService autocompleteService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final AtomicLong lagMs = new AtomicLong();
+    private final AtomicLong relayedTotal = new AtomicLong();
+
+    @Value("${app.search.outbox.batch-size:500}")
+    private int batchSize;
+
+    public SearchOutboxService(SearchOutboxRepository outboxRepository,
+                               ProductRepository productRepository,
+                               SearchService searchService,
+                               AutocompleteService autocompleteService,
+                               CatalogSnapshotService catalogSnapshotService,
+                               KafkaTemplate<String, Object> kafkaTemplate,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.productRepository = productRepository;
+        this.searchService = searchService;
+        this.autocompleteService = autocompleteService;
+        this.catalogSnapshotService = catalogSnapshotService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        Gauge.builder("search.outbox.lag", lagMs, value -> value.get() / 1000.0)
+                .description("Age of the oldest search index change not yet applied")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("search.outbox.relayed", relayedTotal, AtomicLong::get)
+                .description("Outbox rows applied to the search index since startup")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Record that a product changed. Must run inside the caller's write transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(Long productId) {
+        if (productId == null) return;
+        enqueueAll(List.of(productId));
+    }
+
+    /**
+     * Record that several products changed, in the caller's write transaction. The change is
+     * also announced on product.changes as soon as the transaction commits, independently of the
+     * relay: readers that serve from MySQL (catalog snapshot, browse index) must not wait for
+     * the search index, which may be down.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueAll(Collection<Long> productIds) {
+        if (productIds.isEmpty()) return;
+        List<Long> changed = List.copyOf(productIds);
+        outboxRepository.saveAll(changed.stream().map(SearchOutboxEntry::new).toList());
+        AfterCommit.run(() -> catalogSnapshotService.publishChanges(changed));
+    }
+
+    /**
+     * Runs on every instance; each batch is claimed, applied and deleted in one transaction.
+     */
+    @Scheduled(fixedDelayString = "${app.search.outbox.poll-interval-ms:1000}")
+    public void relay() {
+        try {
+            List<SearchOutboxEntry> batch;
+            do {
+                batch = transactionTemplate.execute(status -> {
+                    List<SearchOutboxEntry> claimed = outboxRepository.claimOldest(batchSize);
+                    if (!claimed.isEmpty()) {
+                        applyBatch(claimed);
+                    }
+                    return claimed;
+                });
+            } while (batch.size() == batchSize);
+        } catch (PessimisticLockingFailureException e) {
+            log.debug("Search outbox is being relayed by another instance");
+        } catch (Exception e) {
+            // Rows are kept and retried on the next run
+            log.warn("Search outbox relay failed: {}", e.getMessage());
+        } finally {
+            updateLag();
+        }
+    }
+
+    /**
+     * Indexed: another instance relayed these products and its Elasticsearch writes are done, so
+     * apply the same rows to what this instance holds locally. Not indexed: the products were just
+     * written, and only the embedded index is updated ahead of the relay.
+     */
+    @BroadcastListener(id = "search-index-changes", topics = CatalogSnapshotService.TOPIC)
+    public void handleProductChanges(Map<String, Object> event) {
+        boolean indexed = Boolean.TRUE.equals(event.get("indexed"));
+        if (!(event.get("productIds") instanceof Collection<?> ids)
+                || (indexed && instanceId.equals(event.get("origin")))
+                || (!indexed && !searchService.usesEmbeddedIndex())) {
+            return;
+        }
+        Set<Long> productIds = new LinkedHashSet<>();
+        for (Object id : ids) {
+            if (id instanceof Number number) productIds.add(number.longValue());
+        }
+        if (productIds.isEmpty()) return;
+        List<Product> products = productRepository.findAllWithCategoryByIdIn(productIds);
+        Set<Long> removed = removedIds(productIds, products);
+        if (!indexed) {
+            searchService.onProductsWritten(products, removed);
+            return;
+        }
+        searchService.onIndexedElsewhere(products, removed);
+        autocompleteService.onProductsChanged(products, removed);
+    }
+
+    private void applyBatch(List<SearchOutboxEntry> batch) {
+        Set<Long> productIds = new LinkedHashSet<>();
+        List<Long> entryIds = new ArrayList<>(batch.size());
+        for (SearchOutboxEntry entry : batch) {
+            productIds.add(entry.getProductId());
+            entryIds.add(entry.getId());
+        }
+
+        List<Product> products = productRepository.findAllWithCategoryByIdIn(productIds);
+        Set<Long> removed = removedIds(productIds, products);
+
+        searchService.bulkIndexProducts(products);
+        searchService.deleteProductIndexes(removed);
+        autocompleteService.onProductsChanged(products, removed);
+        announceIndexed(productIds);
+
+        outboxRepository.deleteByIdIn(entryIds);
+        relayedTotal.addAndGet(batch.size());
+        log.debug("Relayed {} outbox rows: {} indexed, {} removed", batch.size(), products.size(), removed.size());
+    }
+
+    private void announceIndexed(Collection<Long> productIds) {
+        Map<String, Object> event = new HashMap<>();
+        event.put("productIds", List.copyOf(productIds));
+        event.put("indexed", true);
+        event.put("origin", instanceId);
+        try {
+            kafkaTemplate.send(CatalogSnapshotService.TOPIC, event);
+        } catch (Exception e) {
+            // Other instances' cached results expire after the result cache TTL
+            log.warn("Could not announce {} indexed products: {}", productIds.size(), e.getMessage());
+        }
+    }
+
+    private static Set<Long> removedIds(Set<Long> productIds, List<Product> found) {
+        Set<Long> removed = new LinkedHashSet<>(productIds);
+        for (Product product : found) {
+            removed.remove(product.getId());
+        }
+        return removed;
+    }
+
+    private void updateLag() {
+        try {
+            lagMs.set(outboxRepository.findFirstByOrderByIdAsc()
+                    .map(oldest -> Duration.between(oldest.getCreatedAt(), LocalDateTime.now()).toMillis())
+                    .orElse(0L));
+        } catch (Exception e) {
+            log.warn("Could not read search outbox lag: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,336 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.ReindexStatusDto;
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.models.ProductSearchDocument;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.utils.ChangeWatermark;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.AliasAction;
+import org.springframework.data.elasticsearch.core.index.AliasActionParameters;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.IndexQuery;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Zero-downtime rebuild of the product search index.
+ * Products are streamed from MySQL in keyset pages and written with parallel _bulk requests
+ * (bounded by a semaphore for backpressure) into a fresh versioned index. Searches keep hitting
+ * the old index through the alias until the new one is complete; the alias is then swapped in a
+ * single atomic _aliases call and the old index is dropped. Products indexed or removed during
+ * the rebuild, and rows updated since it started, are applied to the new index again after the swap.
+ */
+@Service
+@Slf4j
+public class SearchReindexService {
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+    private final ProductRepository productRepository;
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final SearchService searchService;
+    private final ElasticsearchSearchBackend elasticsearchSearchBackend;
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+    private final AtomicReference<ReindexJob> currentJob = new AtomicReference<>();
+
+    @Value("${spring.elasticsearch.index-name:products}")
+    private String aliasName;
+
+    @Value("${spring.elasticsearch.number-of-shards:1}")
+    private int numberOfShards;
+
+    @Value("${spring.elasticsearch.number-of-replicas:0}")
+    private int numberOfReplicas;
+
+    @Value("${app.search.reindex.page-size:500}")
+    private int pageSize;
+
+    @Value("${app.search.reindex.parallelism:4}")
+    private int parallelism;
+
+    @Value("${app.search.reindex.max-in-flight:8}")
+    private int maxInFlight;
+
+    @Value("${app.search.reindex.migrate-on-startup:true}")
+    private boolean migrateOnStartup;
+
+    public SearchReindexService(ProductRepository productRepository,
+                                ElasticsearchOperations elasticsearchOperations,
+                                SearchService searchService,
+                                ElasticsearchSearchBackend elasticsearchSearchBackend) {
+        this.productRepository = productRepository;
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.searchService = searchService;
+        this.elasticsearchSearchBackend = elasticsearchSearchBackend;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupts a running job, which then deletes its partial index
+        jobExecutor.shutdownNow();
+    }
+
+    /**
+     * Start a background reindex. If one is already running its status is returned instead.
+     */
+    public synchronized ReindexStatusDto startReindex() {
+        ReindexJob running = currentJob.get();
+        if (running != null && "RUNNING".equals(running.state)) {
+            return running.toDto(aliasName);
+        }
+
+        String targetIndex = aliasName + "_v" + LocalDateTime.now().format(VERSION_FORMAT);
+        ReindexJob job = new ReindexJob(targetIndex, productRepository.count());
+        currentJob.set(job);
+        jobExecutor.submit(() -> runReindex(job));
+        return job.toDto(aliasName);
+    }
+
+    /**
+     * Indices created before documents were keyed by product id live directly under the alias
+     * name and may hold duplicate, randomly keyed documents. Rebuild them once through the
+     * normal reindex flow, which also moves the index behind the alias. The index is no longer
+     * created implicitly at startup, so a missing alias is built the same way.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrateLegacyIndex() {
+        if (!migrateOnStartup || !searchService.usesElasticsearch()) return;
+        try {
+            IndexOperations aliasOps = elasticsearchOperations.indexOps(IndexCoordinates.of(aliasName));
+            if (aliasTargets(aliasOps).isEmpty()) {
+                log.info("Search index {} is not behind an alias yet, rebuilding it", aliasName);
+                startReindex();
+            }
+        } catch (Exception e) {
+            log.warn("Could not check search index layout: {}", e.getMessage());
+        }
+    }
+
+    public ReindexStatusDto getStatus() {
+        ReindexJob job = currentJob.get();
+        if (job == null) {
+            ReindexStatusDto idle = new ReindexStatusDto();
+            idle.setState("IDLE");
+            idle.setAlias(aliasName);
+            return idle;
+        }
+        return job.toDto(aliasName);
+    }
+
+    private void runReindex(ReindexJob job) {
+        IndexOperations targetOps = elasticsearchOperations.indexOps(IndexCoordinates.of(job.targetIndex));
+        ExecutorService bulkExecutor = Executors.newFixedThreadPool(parallelism);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        try {
+            searchService.startRecordingChanges();
+            createTargetIndex(targetOps);
+
+            long lastSeenId = 0L;
+            List<Product> page;
+            do {
+                page = productRepository.findPageAfterId(lastSeenId, PageRequest.of(0, pageSize));
+                if (!page.isEmpty()) {
+                    lastSeenId = page.get(page.size() - 1).getId();
+                    submitBulk(job, toIndexQueries(page), bulkExecutor, inFlight);
+                }
+            } while (page.size() == pageSize && job.failure.get() == null);
+
+            // Wait for every outstanding bulk request
+            inFlight.acquire(maxInFlight);
+            inFlight.release(maxInFlight);
+            throwIfFailed(job);
+
+            // Catch up with products written while the bulk load was running
+            List<Product> changed = productRepository.findUpdatedSince(job.changesSince());
+            if (!changed.isEmpty()) {
+                elasticsearchOperations.bulkIndex(toIndexQueries(changed), IndexCoordinates.of(job.targetIndex));
+                job.indexed.addAndGet(changed.size());
+            }
+
+            targetOps.refresh();
+            swapAlias(job.targetIndex);
+            replayChanges(job);
+            searchService.onIndexSwapped();
+            job.finish("COMPLETED", null);
+            log.info("Reindex into {} completed: {} documents", job.targetIndex, job.indexed.get());
+        } catch (Exception e) {
+            searchService.stopRecordingChanges();
+            log.error("Reindex into {} failed: {}", job.targetIndex, e.getMessage(), e);
+            job.finish("FAILED", e.getMessage());
+            try {
+                targetOps.delete();
+            } catch (Exception cleanup) {
+                log.warn("Could not delete partial index {}: {}", job.targetIndex, cleanup.getMessage());
+            }
+        } finally {
+            bulkExecutor.shutdown();
+        }
+    }
+
+    private void createTargetIndex(IndexOperations targetOps) {
+        IndexOperations documentOps = elasticsearchOperations.indexOps(ProductSearchDocument.class);
+        Settings settings = documentOps.createSettings();
+        settings.put("index.number_of_shards", numberOfShards);
+        settings.put("index.number_of_replicas", numberOfReplicas);
+        Document mapping = documentOps.createMapping();
+        targetOps.create(settings, mapping);
+    }
+
+    /**
+     * Blocks when maxInFlight bulk requests are outstanding, so reading from MySQL never runs
+     * ahead of what Elasticsearch can absorb.
+     */
+    private void submitBulk(ReindexJob job, List<IndexQuery> queries, ExecutorService bulkExecutor,
+                            Semaphore inFlight) throws InterruptedException {
+        inFlight.acquire();
+        job.inFlight.incrementAndGet();
+        bulkExecutor.execute(() -> {
+            try {
+                elasticsearchOperations.bulkIndex(queries, IndexCoordinates.of(job.targetIndex));
+                job.indexed.addAndGet(queries.size());
+            } catch (Exception e) {
+                job.failure.compareAndSet(null, e);
+            } finally {
+                job.inFlight.decrementAndGet();
+                inFlight.release();
+            }
+        });
+    }
+
+    private void throwIfFailed(ReindexJob job) {
+        Exception failure = job.failure.get();
+        if (failure != null) {
+            throw new IllegalStateException("Bulk indexing failed: " + failure.getMessage(), failure);
+        }
+    }
+
+    /**
+     * Point the alias at the new index in one atomic request. A concrete index that still carries
+     * the alias name (pre-alias deployments) is removed in the same request.
+     */
+    private void swapAlias(String targetIndex) {
+        IndexOperations aliasOps = elasticsearchOperations.indexOps(IndexCoordinates.of(aliasName));
+        Set<String> previousIndices = aliasTargets(aliasOps);
+        boolean concreteIndex = previousIndices.isEmpty() && aliasOps.exists();
+
+        List<AliasAction> actions = new ArrayList<>();
+        if (concreteIndex) {
+            actions.add(new AliasAction.RemoveIndex(AliasActionParameters.builder()
+                    .withIndices(aliasName)
+                    .build()));
+        } else if (!previousIndices.isEmpty()) {
+            actions.add(new AliasAction.Remove(AliasActionParameters.builder()
+                    .withIndices(previousIndices.toArray(new String[0]))
+                    .withAliases(aliasName)
+                    .build()));
+        }
+        actions.add(new AliasAction.Add(AliasActionParameters.builder()
+                .withIndices(targetIndex)
+                .withAliases(aliasName)
+                .withIsWriteIndex(true)
+                .build()));
+        aliasOps.alias(new AliasActions(actions.toArray(new AliasAction[0])));
+
+        for (String previousIndex : previousIndices) {
+            elasticsearchOperations.indexOps(IndexCoordinates.of(previousIndex)).delete();
+        }
+    }
+
+    /**
+     * Writes relayed between the catch-up pass and the swap reached the old index only, and removed
+     * products may have been copied before they went. Now that the alias points at the new index,
+     * re-read every product recorded as changed or updated since the job started and index or
+     * delete it through the alias.
+     */
+    private void replayChanges(ReindexJob job) {
+        Set<Long> changed = new HashSet<>(searchService.stopRecordingChanges());
+        changed.addAll(productRepository.findIdsUpdatedSince(job.changesSince()));
+        if (changed.isEmpty()) return;
+        List<Product> current = productRepository.findAllWithCategoryByIdIn(changed);
+        current.forEach(product -> changed.remove(product.getId()));
+        elasticsearchSearchBackend.indexProducts(current);
+        elasticsearchSearchBackend.deleteProducts(changed);
+        log.info("Reindex into {}: re-applied {} updates and {} removals made during the rebuild",
+                job.targetIndex, current.size(), changed.size());
+    }
+
+    private Set<String> aliasTargets(IndexOperations aliasOps) {
+        try {
+            return aliasOps.getAliases(aliasName).keySet();
+        } catch (Exception e) {
+            // Elasticsearch answers 404 when the alias does not exist yet
+            return Set.of();
+        }
+    }
+
+    private List<IndexQuery> toIndexQueries(List<Product> products) {
+        List<IndexQuery> queries = new ArrayList<>(products.size());
+        for (Product product : products) {
+            queries.add(elasticsearchSearchBackend.toIndexQuery(product));
+        }
+        return queries;
+    }
+
+    private static final class ReindexJob {
+        private final String targetIndex;
+        private final long totalProducts;
+        private final LocalDateTime startedAt = LocalDateTime.now();
+        private final AtomicLong indexed = new AtomicLong();
+        private final AtomicLong inFlight = new AtomicLong();
+        private final AtomicReference<Exception> failure = new AtomicReference<>();
+        private volatile String state = "RUNNING";
+        private volatile LocalDateTime finishedAt;
+        private volatile String error;
+
+        private ReindexJob(String targetIndex, long totalProducts) {
+            this.targetIndex = targetIndex;
+            this.totalProducts = totalProducts;
+        }
+
+        private LocalDateTime changesSince() {
+            return startedAt.minus(Duration.ofMillis(ChangeWatermark.OVERLAP_MS));
+        }
+
+        private void finish(String state, String error) {
+            this.error = error;
+            this.finishedAt = LocalDateTime.now();
+            this.state = state;
+        }
+
+        private ReindexStatusDto toDto(String alias) {
+            ReindexStatusDto dto = new ReindexStatusDto();
+            dto.setState(state);
+            dto.setTargetIndex(targetIndex);
+            dto.setAlias(alias);
+            dto.setTotalProducts(totalProducts);
+            dto.setIndexedDocuments(indexed.get());
+            dto.setInFlightBulkRequests(inFlight.get());
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setError(error);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.SearchFiltersDto;
+import com.gitanjsheth.productservice.dtos.SearchResultDto;
+import com.gitanjsheth.productservice.utils.BoundedLruCache;
+import com.gitanjsheth.productservice.utils.CompletionTrie;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LRU cache of /search result pages keyed by normalized query, filters, page, size and index
+ * generation.
+ * Any write to the index bumps the generation, so entries from before the write are never
+ * served again and simply age out of the LRU - no explicit invalidation needed. Index writes
+ * relayed by another instance bump it too (see SearchOutboxService); entries also expire after
+ * ttl-ms, which bounds staleness if such an announcement is lost.
+ */
+@Component
+public class SearchResultCache {
+
+    private final AtomicLong generation = new AtomicLong();
+    private final BoundedLruCache<String, Entry> cache;
+    private final long ttlMs;
+
+    public SearchResultCache(@Value("${app.search.result-cache.max-entries:10000}") int maxEntries,
+                             @Value("${app.search.result-cache.ttl-ms:300000}") long ttlMs) {
+        this.cache = new BoundedLruCache<>(maxEntries);
+        this.ttlMs = ttlMs;
+    }
+
+    public SearchResultDto get(String query, SearchFiltersDto filters, int page, int size) {
+        String key = cacheKey(query, filters, page, size, generation.get());
+        Entry entry = cache.get(key);
+        if (entry == null) return null;
+        if (System.currentTimeMillis() >= entry.expiresAtMillis) {
+            cache.remove(key);
+            return null;
+        }
+        return entry.result;
+    }
+
+    /**
+     * Store a result computed under the given generation. A result computed before a concurrent
+     * index write is filed under the old generation and therefore never served.
+     */
+    public void put(String query, SearchFiltersDto filters, int page, int size, long computedAtGeneration,
+                    SearchResultDto result) {
+        cache.put(cacheKey(query, filters, page, size, computedAtGeneration),
+                new Entry(result, System.currentTimeMillis() + ttlMs));
+    }
+
+    public long currentGeneration() {
+        return generation.get();
+    }
+
+    public void bumpGeneration() {
+        generation.incrementAndGet();
+    }
+
+    private String cacheKey(String query, SearchFiltersDto filters, int page, int size, long generation) {
+        return generation + ":" + page + ":" + size + ":" + filters.toKey() + ":" + CompletionTrie.normalize(query);
+    }
+
+    private record Entry(SearchResultDto result, long expiresAtMillis) {
+    }
+}
@@ -1,98 +1,385 @@
 package com.gitanjsheth.productservice.services;
 
+import com.gitanjsheth.productservice.dtos.SearchBenchmarkDto;
+import com.gitanjsheth.productservice.dtos.SearchFiltersDto;
+import com.gitanjsheth.productservice.dtos.SearchResultDto;
 import com.gitanjsheth.productservice.models.Product;
 import com.gitanjsheth.productservice.models.ProductSearchDocument;
-import com.gitanjsheth.productservice.repositories.ProductSearchRepository;
 import com.gitanjsheth.productservice.repositories.ProductRepository;
-import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import com.gitanjsheth.productservice.repositories.SearchAnalyticsRollupRepository;
+import com.gitanjsheth.productservice.utils.CircuitBreaker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
-import org.springframework.data.elasticsearch.core.SearchHit;
-import org.springframework.data.elasticsearch.core.SearchHits;
-import org.springframework.data.elasticsearch.client.elc.NativeQuery;
-import org.springframework.data.elasticsearch.core.query.Query;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
-// query builders provided via NativeQuery lambdas
-
+/**
+ * Entry point for product search. Queries are answered by the active backend
+ * (app.search.backend: elasticsearch or embedded) through the result cache; index changes
+ * from the search outbox are written to every enabled backend.
+ * Elasticsearch queries run under a latency budget: shards time out at the budget and return
+ * partial results, the caller stops waiting at a hard timeout, and slow or failed queries trip
+ * a circuit breaker that routes searches to the embedded index (when enabled) or else a bounded
+ * MySQL title lookup while it is open.
+ */
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class SearchService {
 
-    private final ProductSearchRepository productSearchRepository;
-    private final ElasticsearchOperations elasticsearchOperations;
+    private static final int DEFAULT_PAGE_SIZE = 10;
+
+    private final ElasticsearchSearchBackend elasticsearchBackend;
+    private final LuceneSearchBackend embeddedBackend;
+    private final SearchResultCache searchResultCache;
+    private final SearchAnalyticsRollupRepository searchAnalyticsRollupRepository;
+    private final SearchBackend activeBackend;
     private final ProductRepository productRepository;
+    private final CircuitBreaker circuitBreaker;
+    private final ThreadPoolExecutor searchExecutor;
+    private final AtomicLong fallbackCount = new AtomicLong();
+    private final AtomicLong partialCount = new AtomicLong();
+    // Products indexed or removed while a reindex builds its new index; null when no reindex is running
+    private volatile Set<Long> changedDuringReindex;
+
+    @Value("${app.search.latency.hard-timeout-ms:1000}")
+    private long hardTimeoutMs;
+
+    @Value("${app.search.fallback.max-results:50}")
+    private int fallbackMaxResults;
 
-    public void indexProduct(Product product) {
-        if (product == null) return;
-        ProductSearchDocument doc = toDocument(product);
-        productSearchRepository.save(doc);
+    @Value("${app.search.result-cache.warm-query-count:50}")
+    private int warmQueryCount;
+
+    @Value("${app.search.result-cache.warm-window-days:7}")
+    private int warmWindowDays;
+
+    public SearchService(ElasticsearchSearchBackend elasticsearchBackend,
+                         LuceneSearchBackend embeddedBackend,
+                         SearchResultCache searchResultCache,
+                         SearchAnalyticsRollupRepository searchAnalyticsRollupRepository,
+                         ProductRepository productRepository,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.search.backend:elasticsearch}") String backend,
+                         @Value("${app.search.breaker.failure-threshold:5}") int failureThreshold,
+                         @Value("${app.search.breaker.open-duration-ms:10000}") long openDurationMs,
+                         @Value("${app.search.latency.max-concurrent:64}") int maxConcurrent) {
+        this.elasticsearchBackend = elasticsearchBackend;
+        this.embeddedBackend = embeddedBackend;
+        this.searchResultCache = searchResultCache;
+        this.searchAnalyticsRollupRepository = searchAnalyticsRollupRepository;
+        this.productRepository = productRepository;
+        this.activeBackend = LuceneSearchBackend.NAME.equals(backend) ? embeddedBackend : elasticsearchBackend;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openDurationMs);
+        // Bounded: when Elasticsearch is this backed up, new searches go straight to the fallback
+        this.searchExecutor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(maxConcurrent));
+        this.searchExecutor.allowCoreThreadTimeOut(true);
+
+        Gauge.builder("search.breaker.open", circuitBreaker, cb -> cb.getState() == CircuitBreaker.State.CLOSED ? 0 : 1)
+                .description("1 while searches bypass Elasticsearch because of timeouts or errors")
+                .register(meterRegistry);
+        FunctionCounter.builder("search.fallback", fallbackCount, AtomicLong::get)
+                .description("Searches answered without Elasticsearch (embedded index or database title lookup)")
+                .register(meterRegistry);
+        FunctionCounter.builder("search.partial", partialCount, AtomicLong::get)
+                .description("Searches with timed-out or failed shards that returned partial results")
+                .register(meterRegistry);
+        log.info("Search backend: {}", activeBackend.getName());
     }
 
-    public void deleteProductIndex(Long productId) {
-        if (productId == null) return;
-        Query query = NativeQuery.builder()
-                .withQuery(q -> q.term(t -> t.field("productId").value(productId)))
-                .build();
-        SearchHits<ProductSearchDocument> hits = elasticsearchOperations.search(query, ProductSearchDocument.class);
-        hits.forEach(hit -> productSearchRepository.deleteById(hit.getId()));
+    @PreDestroy
+    public void shutdown() {
+        searchExecutor.shutdownNow();
     }
 
-    public long reindexAll() {
-        Iterable<Product> products = productRepository.findAll();
-        long count = 0;
-        for (Product product : products) {
-            indexProduct(product);
-            count++;
+    /**
+     * Elasticsearch is skipped entirely in embedded mode (no cluster required).
+     */
+    public boolean usesElasticsearch() {
+        return activeBackend == elasticsearchBackend;
+    }
+
+    /**
+     * Index or overwrite documents for the given products in every enabled backend. The embedded
+     * index is written first, so an Elasticsearch failure (which keeps the outbox rows for a
+     * retry) does not leave it stale.
+     */
+    public void bulkIndexProducts(List<Product> products) {
+        if (products.isEmpty()) return;
+        recordChanges(products.stream().map(Product::getId).toList());
+        try {
+            for (SearchBackend backend : writeBackends()) {
+                backend.indexProducts(products);
+            }
+        } finally {
+            searchResultCache.bumpGeneration();
         }
-        return count;
-    }
-
-    public Page<ProductSearchDocument> search(String queryText, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size);
-        Query esQuery = NativeQuery.builder()
-                .withQuery(q -> q.bool(b -> b
-                        .should(s -> s.match(m -> m.field("title").query(queryText)))
-                        .should(s -> s.match(m -> m.field("description").query(queryText)))
-                ))
-                .withPageable(pageable)
-                .build();
-        SearchHits<ProductSearchDocument> hits = elasticsearchOperations.search(esQuery, ProductSearchDocument.class);
-        List<ProductSearchDocument> results = hits.getSearchHits().stream()
-                .map(SearchHit::getContent)
-                .collect(Collectors.toList());
-        return new PageImpl<>(results, pageable, hits.getTotalHits());
-    }
-
-    public List<String> autocomplete(String prefix, int size) {
-        Query esQuery = NativeQuery.builder()
-                .withQuery(q -> q.prefix(p -> p.field("title").value(prefix)))
-                .withPageable(PageRequest.of(0, size))
-                .build();
-        SearchHits<ProductSearchDocument> hits = elasticsearchOperations.search(esQuery, ProductSearchDocument.class);
-        return hits.getSearchHits().stream()
-                .map(hit -> hit.getContent().getTitle())
-                .distinct()
-                .collect(Collectors.toList());
-    }
-
-    private ProductSearchDocument toDocument(Product product) {
-        ProductSearchDocument doc = new ProductSearchDocument();
-        doc.setProductId(product.getId());
-        doc.setTitle(product.getTitle());
-        doc.setDescription(product.getDescription());
-        doc.setCategory(product.getCategory() != null ? product.getCategory().getTitle() : null);
-        doc.setPrice(product.getPrice());
-        doc.setAvailableQuantity(product.getAvailableQuantity());
-        doc.setIsActive(Boolean.TRUE.equals(product.getIsActive()));
-        return doc;
     }
-}
 
+    /**
+     * Remove the documents of several products from every enabled backend, embedded index first.
+     */
+    public void deleteProductIndexes(Collection<Long> productIds) {
+        if (productIds.isEmpty()) return;
+        recordChanges(productIds);
+        try {
+            for (SearchBackend backend : writeBackends()) {
+                backend.deleteProducts(productIds);
+            }
+        } finally {
+            searchResultCache.bumpGeneration();
+        }
+    }
+
+    public boolean usesEmbeddedIndex() {
+        return embeddedBackend.isEnabled();
+    }
+
+    /**
+     * A catalog write committed on some instance. Bring this instance's embedded index up to date
+     * straight away rather than after the outbox relay, which stalls while Elasticsearch is down.
+     * The relay applies the same rows again later; index writes are idempotent.
+     */
+    public void onProductsWritten(List<Product> products, Collection<Long> removedIds) {
+        if (!embeddedBackend.isEnabled()) return;
+        embeddedBackend.indexProducts(products);
+        embeddedBackend.deleteProducts(removedIds);
+        searchResultCache.bumpGeneration();
+    }
+
+    /**
+     * Index changes another instance's outbox relay has applied: Elasticsearch already has them,
+     * so only this instance's embedded index (when enabled) and result cache need updating.
+     */
+    public void onIndexedElsewhere(List<Product> products, Collection<Long> removedIds) {
+        recordChanges(products.stream().map(Product::getId).toList());
+        recordChanges(removedIds);
+        if (embeddedBackend.isEnabled()) {
+            embeddedBackend.indexProducts(products);
+            embeddedBackend.deleteProducts(removedIds);
+        }
+        searchResultCache.bumpGeneration();
+    }
+
+    /**
+     * A reindex is about to copy the catalog into a new index: from now on, the ids of indexed and
+     * removed products are kept so they can be applied to the new index once the alias points at it.
+     */
+    public void startRecordingChanges() {
+        changedDuringReindex = ConcurrentHashMap.newKeySet();
+    }
+
+    /**
+     * Stop recording and return what was indexed or removed since startRecordingChanges. Call after
+     * the alias swap: any write not in the result reaches Elasticsearch after the swap.
+     */
+    public Set<Long> stopRecordingChanges() {
+        Set<Long> changed = changedDuringReindex;
+        changedDuringReindex = null;
+        return changed != null ? Set.copyOf(changed) : Set.of();
+    }
+
+    // Recorded before the Elasticsearch write is sent, see stopRecordingChanges
+    private void recordChanges(Collection<Long> productIds) {
+        Set<Long> recording = changedDuringReindex;
+        if (recording != null && !productIds.isEmpty()) {
+            recording.addAll(productIds);
+        }
+    }
+
+    public SearchResultDto search(String queryText, int page, int size) {
+        return search(queryText, new SearchFiltersDto(), page, size);
+    }
+
+    /**
+     * Full-text match with structured filters and facet counts in one request.
+     * Cached by normalized query, filters and page for the current index generation;
+     * partial and fallback results are not cached.
+     */
+    public SearchResultDto search(String queryText, SearchFiltersDto filters, int page, int size) {
+        SearchResultDto cached = searchResultCache.get(queryText, filters, page, size);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = searchResultCache.currentGeneration();
+        SearchResultDto result = usesElasticsearch()
+                ? guardedSearch(queryText, filters, page, size)
+                : activeBackend.search(queryText, filters, page, size);
+        if (!result.isPartial() && !result.isFallback()) {
+            searchResultCache.put(queryText, filters, page, size, generation, result);
+        }
+        return result;
+    }
+
+    /**
+     * Called after the reindex flow moved the alias: drop cached pages and pre-run the most
+     * popular recent queries so the first users after a swap do not all miss.
+     */
+    public void onIndexSwapped() {
+        searchResultCache.bumpGeneration();
+        try {
+            LocalDateTime since = LocalDateTime.now().minusDays(warmWindowDays);
+            List<String> topQueries = searchAnalyticsRollupRepository.findTopQueriesSince(since, PageRequest.of(0, warmQueryCount));
+            for (String query : topQueries) {
+                search(query, 0, DEFAULT_PAGE_SIZE);
+            }
+            log.info("Search cache pre-warmed with {} queries", topQueries.size());
+        } catch (Exception e) {
+            log.warn("Could not pre-warm search cache: {}", e.getMessage());
+        }
+    }
 
+    /**
+     * Run the same uncached query repeatedly against each available backend and report latency.
+     */
+    public List<SearchBenchmarkDto> benchmark(String queryText, int iterations) {
+        List<SearchBenchmarkDto> results = new ArrayList<>();
+        for (SearchBackend backend : writeBackends()) {
+            long[] latenciesNanos = new long[iterations];
+            long totalHits = 0;
+            for (int i = 0; i < iterations; i++) {
+                long start = System.nanoTime();
+                SearchResultDto result = backend.search(queryText, new SearchFiltersDto(), 0, DEFAULT_PAGE_SIZE);
+                latenciesNanos[i] = System.nanoTime() - start;
+                totalHits = result.getTotalElements();
+            }
+            results.add(toBenchmark(backend.getName(), latenciesNanos, totalHits));
+        }
+        return results;
+    }
+
+    private SearchResultDto guardedSearch(String queryText, SearchFiltersDto filters, int page, int size) {
+        if (!circuitBreaker.allowRequest()) {
+            return degradedSearch(queryText, filters, page, size);
+        }
+        Future<SearchResultDto> future;
+        try {
+            future = searchExecutor.submit(() -> elasticsearchBackend.search(queryText, filters, page, size));
+        } catch (RejectedExecutionException e) {
+            // Every slot is waiting on Elasticsearch: it is not keeping up
+            circuitBreaker.recordFailure();
+            return degradedSearch(queryText, filters, page, size);
+        }
+        try {
+            SearchResultDto result = future.get(hardTimeoutMs, TimeUnit.MILLISECONDS);
+            if (result.isPartial()) {
+                partialCount.incrementAndGet();
+                circuitBreaker.recordFailure();
+            } else {
+                circuitBreaker.recordSuccess();
+            }
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            circuitBreaker.recordFailure();
+            log.warn("Elasticsearch search exceeded {} ms, serving fallback", hardTimeoutMs);
+        } catch (ExecutionException e) {
+            circuitBreaker.recordFailure();
+            log.warn("Elasticsearch search failed, serving fallback: {}", e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            // No outcome to report, but a half-open trial must not stay taken forever
+            circuitBreaker.releasePermit();
+            Thread.currentThread().interrupt();
+        }
+        return degradedSearch(queryText, filters, page, size);
+    }
+
+    /**
+     * Served while Elasticsearch is skipped: the embedded index when this instance keeps one
+     * (same ranking and facets, fed by the same outbox), otherwise the MySQL title lookup.
+     * Either way the result is flagged as a fallback and not cached.
+     */
+    private SearchResultDto degradedSearch(String queryText, SearchFiltersDto filters, int page, int size) {
+        if (embeddedBackend.isEnabled()) {
+            try {
+                SearchResultDto result = embeddedBackend.search(queryText, filters, page, size);
+                fallbackCount.incrementAndGet();
+                result.setFallback(true);
+                return result;
+            } catch (Exception e) {
+                log.warn("Embedded search failed, serving database fallback: {}", e.getMessage());
+            }
+        }
+        return fallbackSearch(queryText, filters, page, size);
+    }
+
+    /**
+     * Bounded title lookup in MySQL. No relevance ranking and no facets; the total only
+     * reflects the rows read, so clients can page forward while content keeps coming.
+     */
+    private SearchResultDto fallbackSearch(String queryText, SearchFiltersDto filters, int page, int size) {
+        fallbackCount.incrementAndGet();
+        int pageSize = Math.max(1, Math.min(size, fallbackMaxResults));
+        String title = queryText == null ? "" : queryText.trim();
+        String category = filters.getCategory() == null || filters.getCategory().isBlank() ? null : filters.getCategory();
+        List<Product> products = productRepository.searchByTitleFallback(title, category,
+                filters.getMinPrice(), filters.getMaxPrice(), filters.isInStock(), PageRequest.of(page, pageSize));
+
+        SearchResultDto result = new SearchResultDto();
+        result.setContent(products.stream().map(ProductSearchDocument::from).collect(Collectors.toList()));
+        result.setNumber(page);
+        result.setSize(pageSize);
+        result.setTotalElements((long) page * pageSize + products.size());
+        result.setTotalPages(products.size() < pageSize ? page + 1 : page + 2);
+        result.setCategoryFacets(new ArrayList<>());
+        result.setPriceFacets(new ArrayList<>());
+        result.setFallback(true);
+        return result;
+    }
+
+    // Embedded first: a local disk write does not wait on, or fail with, Elasticsearch
+    private List<SearchBackend> writeBackends() {
+        List<SearchBackend> backends = new ArrayList<>(2);
+        if (embeddedBackend.isEnabled()) {
+            backends.add(embeddedBackend);
+        }
+        if (usesElasticsearch()) {
+            backends.add(elasticsearchBackend);
+        }
+        return backends;
+    }
+
+    private SearchBenchmarkDto toBenchmark(String backend, long[] latenciesNanos, long totalHits) {
+        Arrays.sort(latenciesNanos);
+        long sum = 0;
+        for (long latency : latenciesNanos) {
+            sum += latency;
+        }
+        SearchBenchmarkDto dto = new SearchBenchmarkDto();
+        dto.setBackend(backend);
+        dto.setIterations(latenciesNanos.length);
+        dto.setAverageMs(sum / (double) latenciesNanos.length / 1_000_000);
+        dto.setP50Ms(percentile(latenciesNanos, 0.50));
+        dto.setP99Ms(percentile(latenciesNanos, 0.99));
+        dto.setMaxMs(latenciesNanos[latenciesNanos.length - 1] / 1_000_000.0);
+        dto.setTotalHits(totalHits);
+        return dto;
+    }
+
+    private static double percentile(long[] sortedNanos, double quantile) {
+        int index = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(0, index)] / 1_000_000.0;
+    }
+}
@@ -12,9 +12,11 @@ import java.util.List;
 public class SelfCategoryService implements CategoryServiceInterface {
 
     private final CategoryRepository categoryRepository;
+    private final CategoryCache categoryCache;
 
-    public SelfCategoryService(CategoryRepository categoryRepository) {
+    public SelfCategoryService(CategoryRepository categoryRepository, CategoryCache categoryCache) {
         this.categoryRepository = categoryRepository;
+        this.categoryCache = categoryCache;
     }
 
     @Override
@@ -22,13 +24,13 @@ public class SelfCategoryService implements CategoryServiceInterface {
         if (categoryId == null || categoryId <= 0) {
             throw new IllegalArgumentException("Category ID must be a positive number");
         }
-        return categoryRepository.findById(categoryId)
+        return categoryCache.findById(categoryId)
                 .orElseThrow(() -> new CategoryNotFoundException("Category not found with id: " + categoryId, categoryId));
     }
 
     @Override
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return categoryCache.getAll();
     }
 
     @Override
@@ -37,7 +39,9 @@ public class SelfCategoryService implements CategoryServiceInterface {
         if (category == null) {
             throw new IllegalArgumentException("Category cannot be null");
         }
-        return categoryRepository.save(category);
+        Category saved = categoryRepository.save(category);
+        categoryCache.onCategorySaved(saved);
+        return saved;
     }
 
     @Override
@@ -60,7 +64,9 @@ public class SelfCategoryService implements CategoryServiceInterface {
             existingCategory.setTitle(category.getTitle());
         }
         
-        return categoryRepository.save(existingCategory);
+        Category saved = categoryRepository.save(existingCategory);
+        categoryCache.onCategorySaved(saved);
+        return saved;
     }
 
     @Override
@@ -77,6 +83,7 @@ public class SelfCategoryService implements CategoryServiceInterface {
         
         // Use hard delete for permanent removal
         categoryRepository.hardDeleteById(categoryId);
+        categoryCache.onCategoryRemoved(categoryId);
     }
     
     @Override
@@ -93,6 +100,7 @@ public class SelfCategoryService implements CategoryServiceInterface {
         
         // deleteById now triggers soft delete via @SQLDelete annotation
         categoryRepository.deleteById(categoryId);
+        categoryCache.onCategoryRemoved(categoryId);
     }
 
 
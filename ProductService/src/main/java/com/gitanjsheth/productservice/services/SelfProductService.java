@@ -17,12 +17,15 @@ public class SelfProductService implements ProductServiceInterface{
 
     private ProductRepository productRepository;
     private CategoryRepository categoryRepository;
-    private final SearchService searchService;
+    private final SearchOutboxService searchOutboxService;
+    private final CategoryCache categoryCache;
 
-    public SelfProductService(ProductRepository productRepository, CategoryRepository categoryRepository, SearchService searchService) {
+    public SelfProductService(ProductRepository productRepository, CategoryRepository categoryRepository,
+                              SearchOutboxService searchOutboxService, CategoryCache categoryCache) {
         this.productRepository = productRepository;
         this.categoryRepository = categoryRepository;
-        this.searchService = searchService;
+        this.searchOutboxService = searchOutboxService;
+        this.categoryCache = categoryCache;
     }
 
     @Override
@@ -54,7 +57,7 @@ public class SelfProductService implements ProductServiceInterface{
         product.setCategory(resolvedCategory);
 
         Product saved = productRepository.save(product);
-        searchService.indexProduct(saved);
+        searchOutboxService.enqueue(saved.getId());
         return saved;
     }
 
@@ -94,7 +97,7 @@ public class SelfProductService implements ProductServiceInterface{
         }
 
         Product saved = productRepository.save(existingProduct);
-        searchService.indexProduct(saved);
+        searchOutboxService.enqueue(saved.getId());
         return saved;
     }
 
@@ -112,7 +115,7 @@ public class SelfProductService implements ProductServiceInterface{
         
         // Use hard delete for permanent removal
         productRepository.hardDeleteById(productId);
-        searchService.deleteProductIndex(productId);
+        searchOutboxService.enqueue(productId);
     }
 
     @Override
@@ -129,7 +132,7 @@ public class SelfProductService implements ProductServiceInterface{
         
         // deleteById now triggers soft delete via @SQLDelete annotation
         productRepository.deleteById(productId);
-        searchService.deleteProductIndex(productId);
+        searchOutboxService.enqueue(productId);
     }
     
     @Override
@@ -138,7 +141,7 @@ public class SelfProductService implements ProductServiceInterface{
             throw new IllegalArgumentException("Category ID must be a positive number");
         }
         
-        Category category = categoryRepository.findById(categoryId)
+        Category category = categoryCache.findById(categoryId)
                 .orElseThrow(() -> new CategoryNotFoundException("Category not found with id: " + categoryId, categoryId));
         
         return productRepository.findByCategory(category);
@@ -165,6 +168,7 @@ public class SelfProductService implements ProductServiceInterface{
     /**
      * Gets an existing category by title or creates a new one if it doesn't exist
      * Uses proper entity state management to handle concurrent scenarios
+     * Existing categories are resolved from the in-memory CategoryCache
      */
     private Category getOrCreateCategory(Category category) {
         if (category.getTitle() == null || category.getTitle().trim().isEmpty()) {
@@ -172,7 +176,7 @@ public class SelfProductService implements ProductServiceInterface{
         }
         
         // Try to find existing category first
-        Optional<Category> existingCategory = categoryRepository.findByTitle(category.getTitle());
+        Optional<Category> existingCategory = categoryCache.findByTitle(category.getTitle());
         if (existingCategory.isPresent()) {
             return existingCategory.get();
         }
@@ -183,7 +187,9 @@ public class SelfProductService implements ProductServiceInterface{
         newCategory.setTitle(category.getTitle());
         
         try {
-            return categoryRepository.save(newCategory);
+            Category saved = categoryRepository.save(newCategory);
+            categoryCache.onCategorySaved(saved);
+            return saved;
         } catch (Exception e) {
             // Handle potential race condition - another thread might have created the category
             Optional<Category> raceCheckCategory = categoryRepository.findByTitle(category.getTitle());
@@ -0,0 +1,148 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.messaging.BroadcastListener;
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.utils.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of the products that are out of stock or low in stock, maintained as stock changes instead
+ * of being found by scanning the catalog. The durable copy is the is_out_of_stock / is_low_stock
+ * flags (indexed), which InventoryService sets on every stock write; this class keeps an in-memory
+ * set of each and announces every threshold crossing on inventory.stock-levels, which dashboards,
+ * back-in-stock alerts and the other instances consume. A periodic reconcile recomputes the flags
+ * from stock and reloads the sets, covering lost announcements and rows written in bulk.
+ */
+@Component
+@Slf4j
+public class StockLevelTracker {
+
+    public static final String TOPIC = "inventory.stock-levels";
+
+    private final ProductRepository productRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Set<Long> outOfStockIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> lowStockIds = ConcurrentHashMap.newKeySet();
+
+    public StockLevelTracker(ProductRepository productRepository,
+                             KafkaTemplate<String, Object> kafkaTemplate,
+                             MeterRegistry meterRegistry) {
+        this.productRepository = productRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        Gauge.builder("inventory.out_of_stock.products", outOfStockIds, Set::size).register(meterRegistry);
+        Gauge.builder("inventory.low_stock.products", lowStockIds, Set::size).register(meterRegistry);
+    }
+
+    public Set<Long> getOutOfStockIds() {
+        return Set.copyOf(outOfStockIds);
+    }
+
+    public Set<Long> getLowStockIds() {
+        return Set.copyOf(lowStockIds);
+    }
+
+    /**
+     * Record a product whose stock flags were just recomputed; wasLowStock and wasOutOfStock are
+     * the flags it was loaded with. Only crossings are applied, after the transaction commits.
+     */
+    public void onStockUpdated(Product product, boolean wasLowStock, boolean wasOutOfStock) {
+        boolean lowStock = Boolean.TRUE.equals(product.getIsLowStock());
+        boolean outOfStock = Boolean.TRUE.equals(product.getIsOutOfStock());
+        if (lowStock == wasLowStock && outOfStock == wasOutOfStock) {
+            return;
+        }
+        Map<String, Object> event = new HashMap<>();
+        event.put("eventType", eventType(lowStock, wasLowStock, outOfStock, wasOutOfStock));
+        event.put("productId", product.getId());
+        event.put("lowStock", lowStock);
+        event.put("outOfStock", outOfStock);
+        event.put("stockQuantity", product.getStockQuantity());
+        event.put("availableQuantity", product.getAvailableQuantity());
+        event.put("lowStockThreshold", product.getLowStockThreshold());
+        event.put("origin", instanceId);
+        AfterCommit.run(() -> {
+            apply(product.getId(), lowStock, outOfStock);
+            publish(product.getId(), event);
+        });
+    }
+
+    /**
+     * Aligns both flags with stock for rows whose flags were not maintained (written before the
+     * low-stock flag existed, or outside the entity), then loads both sets from the flags. The
+     * corrections only touch mismatched rows and only the flagged rows are read.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.inventory.stock-levels.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.inventory.stock-levels.refresh-interval-ms:300000}")
+    public void reconcile() {
+        try {
+            int corrected = productRepository.markLowStock() + productRepository.clearLowStock()
+                    + productRepository.markOutOfStock() + productRepository.clearOutOfStock();
+            if (corrected > 0) {
+                log.info("Corrected stock level flags on {} products", corrected);
+            }
+        } catch (Exception e) {
+            log.warn("Stock level flag reconciliation failed: {}", e.getMessage());
+        }
+        reload();
+    }
+
+    private void reload() {
+        try {
+            replace(outOfStockIds, Set.copyOf(productRepository.findOutOfStockIds()));
+            replace(lowStockIds, Set.copyOf(productRepository.findLowStockIds()));
+            log.debug("Stock levels loaded: {} out of stock, {} low in stock", outOfStockIds.size(), lowStockIds.size());
+        } catch (Exception e) {
+            log.warn("Stock level reload failed, keeping previous sets: {}", e.getMessage());
+        }
+    }
+
+    @BroadcastListener(id = "stock-levels", topics = TOPIC)
+    public void handleStockLevelEvent(Map<String, Object> event) {
+        if (instanceId.equals(event.get("origin")) || !(event.get("productId") instanceof Number productId)) {
+            return;
+        }
+        apply(productId.longValue(), Boolean.TRUE.equals(event.get("lowStock")), Boolean.TRUE.equals(event.get("outOfStock")));
+    }
+
+    private void apply(Long productId, boolean lowStock, boolean outOfStock) {
+        if (lowStock) lowStockIds.add(productId); else lowStockIds.remove(productId);
+        if (outOfStock) outOfStockIds.add(productId); else outOfStockIds.remove(productId);
+    }
+
+    private void publish(Long productId, Map<String, Object> event) {
+        try {
+            kafkaTemplate.send(TOPIC, String.valueOf(productId), event);
+        } catch (Exception e) {
+            // Other instances catch up on their next periodic reload
+            log.warn("Could not announce stock level change for product {}: {}", productId, e.getMessage());
+        }
+    }
+
+    // The most significant crossing names the event; the flags carry the full state
+    private static String eventType(boolean lowStock, boolean wasLowStock, boolean outOfStock, boolean wasOutOfStock) {
+        if (outOfStock && !wasOutOfStock) return "OUT_OF_STOCK";
+        if (!outOfStock && wasOutOfStock) return "BACK_IN_STOCK";
+        return lowStock ? "LOW_STOCK" : "STOCK_RECOVERED";
+    }
+
+    private static void replace(Set<Long> target, Set<Long> ids) {
+        target.retainAll(ids);
+        target.addAll(ids);
+    }
+}
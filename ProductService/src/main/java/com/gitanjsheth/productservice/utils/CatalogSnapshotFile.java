@@ -0,0 +1,245 @@
+package com.gitanjsheth.productservice.utils;
+
+import com.gitanjsheth.productservice.dtos.ProductDto;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Binary catalog snapshot: a header, one fixed-width record per product sorted by id, then a heap
+ * of UTF-8 strings the records point into. Readers memory-map the file and find a product by
+ * binary search over the records, so a lookup reads the mapped pages directly and only allocates
+ * the DTO it returns. The whole file must stay under 2 GB (one mapping).
+ *
+ * Header (32 bytes): magic, format version, asOfMillis, record count, pad, heap start.
+ * Record (72 bytes): id, categoryId, price, stockQuantity, reservedQuantity, lowStockThreshold,
+ * four boolean bytes, then (offset, length) heap references for title, description, imageURL and
+ * category title. Nullable numbers use NULL_LONG / NULL_INT, null strings length -1, null booleans 2.
+ */
+public final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x50435331; // "PCS1"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 32;
+    private static final int RECORD_SIZE = 72;
+    private static final long NULL_LONG = Long.MIN_VALUE;
+    private static final int NULL_INT = Integer.MIN_VALUE;
+
+    private final MappedByteBuffer buffer;
+    private final long asOfMillis;
+    private final int recordCount;
+    private final int heapStart;
+
+    private CatalogSnapshotFile(MappedByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Not a catalog snapshot (format " + FORMAT_VERSION + ")");
+        }
+        this.asOfMillis = buffer.getLong(8);
+        this.recordCount = buffer.getInt(16);
+        this.heapStart = (int) buffer.getLong(24);
+        if (heapStart != HEADER_SIZE + (long) recordCount * RECORD_SIZE || heapStart > buffer.capacity()) {
+            throw new IllegalArgumentException("Truncated catalog snapshot");
+        }
+    }
+
+    public static CatalogSnapshotFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return new CatalogSnapshotFile(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // When the data was read: every change after this is newer than the snapshot
+    public long getAsOfMillis() {
+        return asOfMillis;
+    }
+
+    public int size() {
+        return recordCount;
+    }
+
+    /**
+     * The product with this id, or null when the snapshot does not contain it.
+     */
+    public ProductDto find(long productId) {
+        int low = 0;
+        int high = recordCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long id = buffer.getLong(recordOffset(mid));
+            if (id < productId) {
+                low = mid + 1;
+            } else if (id > productId) {
+                high = mid - 1;
+            } else {
+                return read(recordOffset(mid));
+            }
+        }
+        return null;
+    }
+
+    private ProductDto read(int at) {
+        long categoryId = buffer.getLong(at + 8);
+        return new ProductDto(
+                buffer.getLong(at),
+                string(at + 36),
+                nullableInt(buffer.getInt(at + 16)),
+                string(at + 44),
+                string(at + 52),
+                categoryId == NULL_LONG ? null : categoryId,
+                string(at + 60),
+                buffer.getInt(at + 20),
+                buffer.getInt(at + 24),
+                bool(buffer.get(at + 32)),
+                bool(buffer.get(at + 33)),
+                bool(buffer.get(at + 34)),
+                nullableInt(buffer.getInt(at + 28)),
+                bool(buffer.get(at + 35)));
+    }
+
+    private String string(int refAt) {
+        int length = buffer.getInt(refAt + 4);
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        buffer.get(heapStart + buffer.getInt(refAt), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static int recordOffset(int index) {
+        return HEADER_SIZE + index * RECORD_SIZE;
+    }
+
+    private static Integer nullableInt(int value) {
+        return value == NULL_INT ? null : value;
+    }
+
+    private static Boolean bool(byte value) {
+        return value == 2 ? null : value == 1;
+    }
+
+    /**
+     * Streams products into a new snapshot. Records and strings are spooled to two temporary
+     * files (the record count is only known at the end) and joined into the target on finish(),
+     * which replaces any previous snapshot atomically.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final Path target;
+        private final long asOfMillis;
+        private final Path recordsFile;
+        private final Path heapFile;
+        private final DataOutputStream records;
+        private final DataOutputStream heap;
+        private int recordCount;
+        private long lastId = Long.MIN_VALUE;
+
+        public Writer(Path target, long asOfMillis) throws IOException {
+            this.target = target;
+            this.asOfMillis = asOfMillis;
+            Path directory = target.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            this.recordsFile = Files.createTempFile(directory, "catalog-records", ".tmp");
+            this.heapFile = Files.createTempFile(directory, "catalog-heap", ".tmp");
+            this.records = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(recordsFile), 1 << 16));
+            this.heap = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(heapFile), 1 << 16));
+        }
+
+        /**
+         * Products must be added in ascending id order.
+         */
+        public void add(ProductDto product) throws IOException {
+            if (product.getId() <= lastId) {
+                throw new IllegalArgumentException("Products must be added in ascending id order: " + product.getId());
+            }
+            lastId = product.getId();
+            records.writeLong(product.getId());
+            records.writeLong(product.getCategory() != null ? product.getCategory().getId() : NULL_LONG);
+            records.writeInt(product.getPrice() != null ? product.getPrice() : NULL_INT);
+            records.writeInt(product.getStockQuantity());
+            records.writeInt(product.getReservedQuantity());
+            records.writeInt(product.getLowStockThreshold() != null ? product.getLowStockThreshold() : NULL_INT);
+            records.writeByte(bool(product.getIsOutOfStock()));
+            records.writeByte(bool(product.getShowWhenOutOfStock()));
+            records.writeByte(bool(product.getAllowBackorder()));
+            records.writeByte(bool(product.getIsActive()));
+            writeString(product.getTitle());
+            writeString(product.getDescription());
+            writeString(product.getImageURL());
+            writeString(product.getCategory() != null ? product.getCategory().getTitle() : null);
+            records.writeInt(0);
+            recordCount++;
+        }
+
+        public int getRecordCount() {
+            return recordCount;
+        }
+
+        public void finish() throws IOException {
+            records.close();
+            heap.close();
+            long heapStart = HEADER_SIZE + (long) recordCount * RECORD_SIZE;
+            if (heapStart + heap.size() > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Catalog snapshot would exceed 2 GB");
+            }
+            Path joined = Files.createTempFile(target.toAbsolutePath().getParent(), "catalog-snapshot", ".tmp");
+            try (FileChannel out = FileChannel.open(joined, StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                        .putInt(MAGIC).putInt(FORMAT_VERSION).putLong(asOfMillis)
+                        .putInt(recordCount).putInt(0).putLong(heapStart)
+                        .flip();
+                while (header.hasRemaining()) out.write(header);
+                append(out, recordsFile);
+                append(out, heapFile);
+                out.force(true);
+            }
+            Files.move(joined, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            records.close();
+            heap.close();
+            Files.deleteIfExists(recordsFile);
+            Files.deleteIfExists(heapFile);
+        }
+
+        private void writeString(String value) throws IOException {
+            if (value == null) {
+                records.writeInt(0);
+                records.writeInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if ((long) heap.size() + bytes.length >= Integer.MAX_VALUE) {
+                throw new IllegalStateException("Catalog snapshot string heap would exceed 2 GB");
+            }
+            records.writeInt(heap.size());
+            records.writeInt(bytes.length);
+            heap.write(bytes);
+        }
+
+        private static byte bool(Boolean value) {
+            return (byte) (value == null ? 2 : value ? 1 : 0);
+        }
+
+        private static void append(FileChannel out, Path file) throws IOException {
+            try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                long position = 0;
+                long size = in.size();
+                while (position < size) {
+                    position += in.transferTo(position, size - position, out);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.gitanjsheth.productservice.utils;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * HTTP validators for a catalog response: a strong ETag and a Last-Modified time, derived from
+ * the row count and the latest lastUpdatedAt of what the response contains. The count is part
+ * of the tag so that removing a row changes it too.
+ */
+public final class CatalogVersion {
+
+    private final String tag;
+    private final long lastModifiedMillis;
+
+    private CatalogVersion(String tag, long lastModifiedMillis) {
+        this.tag = tag;
+        this.lastModifiedMillis = lastModifiedMillis;
+    }
+
+    public static CatalogVersion of(String prefix, long count, LocalDateTime lastUpdatedAt) {
+        long millis = lastUpdatedAt != null ? lastUpdatedAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+        return new CatalogVersion(prefix + "-" + count + "-" + Math.max(millis, 0), millis);
+    }
+
+    public static <T> CatalogVersion of(String prefix, Collection<T> items, Function<T, LocalDateTime> lastUpdatedAt) {
+        LocalDateTime latest = items.stream()
+                .map(lastUpdatedAt)
+                .filter(Objects::nonNull)
+                .max(LocalDateTime::compareTo)
+                .orElse(null);
+        return of(prefix, items.size(), latest);
+    }
+
+    /**
+     * For responses that embed data from two tables (products with their category titles).
+     */
+    public CatalogVersion and(CatalogVersion other) {
+        return new CatalogVersion(tag + "." + other.tag, Math.max(lastModifiedMillis, other.lastModifiedMillis));
+    }
+
+    public String getEtag() {
+        return "\"" + tag + "\"";
+    }
+
+    // -1 when unknown; Spring then validates on the ETag alone
+    public long getLastModifiedMillis() {
+        return lastModifiedMillis;
+    }
+}
@@ -0,0 +1,53 @@
+package com.gitanjsheth.productservice.utils;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Position of a last_updated_at poll that picks up product writes whose announcements were lost.
+ * Every read starts OVERLAP_MS before the previous poll began, so writes that committed late with
+ * an earlier timestamp are still caught; seeing a few ids twice is harmless for the callers.
+ * Not thread-safe for concurrent polls - callers poll from a single scheduled method.
+ */
+public class ChangeWatermark {
+
+    public static final long OVERLAP_MS = 5000;
+
+    private final LongSupplier clock;
+    private volatile long polledFromMillis;
+
+    public ChangeWatermark() {
+        this(System::currentTimeMillis);
+    }
+
+    public ChangeWatermark(LongSupplier clock) {
+        this.clock = clock;
+        this.polledFromMillis = clock.getAsLong();
+    }
+
+    /**
+     * Restart from a known point in time, e.g. when a snapshot taken at asOfMillis is loaded.
+     */
+    public void resetTo(long millis) {
+        polledFromMillis = millis;
+    }
+
+    /**
+     * Read the ids changed since the watermark and hand them to apply. The watermark only moves
+     * forward when apply reports success; a failed read propagates and leaves it in place too.
+     */
+    public void poll(Function<LocalDateTime, ? extends Collection<Long>> changedSince, Predicate<Set<Long>> apply) {
+        long now = clock.getAsLong();
+        LocalDateTime since = LocalDateTime.ofInstant(Instant.ofEpochMilli(polledFromMillis - OVERLAP_MS), ZoneId.systemDefault());
+        if (apply.test(new HashSet<>(changedSince.apply(since)))) {
+            polledFromMillis = now;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.gitanjsheth.productservice.utils;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Browse index over products held as columns: one slot per product in primitive arrays (id,
+ * price, category id), an in-stock bitmap and one bitmap per category. A filter is a few bitmap
+ * ANDs plus a price check per candidate; sorting packs (price, slot) into longs and sorts those,
+ * so a query allocates a handful of arrays and no objects per product. Products are upserted and
+ * removed one at a time; freed slots are reused. Thread-safe (read/write lock).
+ */
+public final class ColumnarProductIndex {
+
+    public enum Sort { PRICE_ASC, PRICE_DESC }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Integer> slotById = new HashMap<>();
+    private final Map<Long, BitSet> slotsByCategory = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private long[] ids = new long[1024];
+    private int[] prices = new int[1024];
+    private long[] categoryIds = new long[1024];
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    private int slotCount;
+
+    public void upsert(long productId, int price, long categoryId, boolean available) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = slotById.get(productId);
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                if (categoryIds[slot] != categoryId) {
+                    clearCategory(slot);
+                }
+            } else {
+                slot = freeCount > 0 ? freeSlots[--freeCount] : slotCount++;
+                ensureCapacity(slot + 1);
+                slotById.put(productId, slot);
+                live.set(slot);
+            }
+            ids[slot] = productId;
+            prices[slot] = price;
+            categoryIds[slot] = categoryId;
+            slotsByCategory.computeIfAbsent(categoryId, id -> new BitSet()).set(slot);
+            inStock.set(slot, available);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long productId) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.remove(productId);
+            if (slot == null) return;
+            clearCategory(slot);
+            live.clear(slot);
+            inStock.clear(slot);
+            if (freeCount == freeSlots.length) {
+                freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+            }
+            freeSlots[freeCount++] = slot;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Stock crossings arrive on their own; unknown products are ignored
+    public void setInStock(long productId, boolean available) {
+        lock.writeLock().lock();
+        try {
+            Integer slot = slotById.get(productId);
+            if (slot != null) {
+                inStock.set(slot, available);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Product ids matching the filters (null = any), sorted, from offset up to limit of them,
+     * along with the total number of matches.
+     */
+    public Page query(Long categoryId, Integer minPrice, Integer maxPrice, boolean inStockOnly,
+                      Sort sort, int offset, int limit) {
+        lock.readLock().lock();
+        try {
+            BitSet candidates;
+            if (categoryId != null) {
+                BitSet category = slotsByCategory.get(categoryId);
+                if (category == null) return new Page(new long[0], 0);
+                candidates = (BitSet) category.clone();
+            } else {
+                candidates = (BitSet) live.clone();
+            }
+            if (inStockOnly) {
+                candidates.and(inStock);
+            }
+
+            int min = minPrice != null ? minPrice : Integer.MIN_VALUE;
+            int max = maxPrice != null ? maxPrice : Integer.MAX_VALUE;
+            long[] keys = new long[candidates.cardinality()];
+            int matches = 0;
+            for (int slot = candidates.nextSetBit(0); slot >= 0; slot = candidates.nextSetBit(slot + 1)) {
+                int price = prices[slot];
+                if (price < min || price > max) continue;
+                // Prices are never negative, so (price, slot) packs into a sortable long; ties keep slot order
+                long sortPrice = sort == Sort.PRICE_DESC ? Integer.MAX_VALUE - price : price;
+                keys[matches++] = (sortPrice << 32) | slot;
+            }
+            Arrays.sort(keys, 0, matches);
+
+            int from = Math.min(Math.max(offset, 0), matches);
+            int to = (int) Math.min((long) from + Math.max(limit, 0), matches);
+            long[] pageIds = new long[to - from];
+            for (int i = from; i < to; i++) {
+                pageIds[i - from] = ids[(int) keys[i]];
+            }
+            return new Page(pageIds, matches);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void clearCategory(int slot) {
+        BitSet category = slotsByCategory.get(categoryIds[slot]);
+        if (category != null) {
+            category.clear(slot);
+            if (category.isEmpty()) {
+                slotsByCategory.remove(categoryIds[slot]);
+            }
+        }
+    }
+
+    private void ensureCapacity(int slots) {
+        if (slots <= ids.length) return;
+        int capacity = Math.max(slots, ids.length * 2);
+        ids = Arrays.copyOf(ids, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        categoryIds = Arrays.copyOf(categoryIds, capacity);
+    }
+
+    public static final class Page {
+        private final long[] productIds;
+        private final int totalMatches;
+
+        public Page(long[] productIds, int totalMatches) {
+            this.productIds = productIds;
+            this.totalMatches = totalMatches;
+        }
+
+        public long[] getProductIds() {
+            return productIds;
+        }
+
+        public int getTotalMatches() {
+            return totalMatches;
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.gitanjsheth.productservice.utils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prefix index for autocomplete with the top-k completions precomputed at every node, so a
+ * lookup is a walk down the prefix plus a copy of at most k results.
+ * Every entry is indexed under its full text and under each word-start suffix, so "phone"
+ * completes "Smart Phone X". Keys are normalized (lower case, single spaces) and cut at
+ * maxKeyLength to bound memory; longer prefixes are answered by filtering the deepest node.
+ * Entries with the same normalized text (e.g. several products with one title) take a single
+ * top-k slot, held by the best-ranked of them.
+ * Not thread-safe - callers synchronize externally.
+ */
+public class CompletionTrie {
+
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingLong((Entry e) -> e.weight).reversed()
+            .thenComparing(e -> e.text);
+
+    private final int topK;
+    private final int maxKeyLength;
+    private final Node root = new Node();
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    public CompletionTrie(int topK, int maxKeyLength) {
+        if (topK <= 0 || maxKeyLength <= 0) {
+            throw new IllegalArgumentException("topK and maxKeyLength must be positive");
+        }
+        this.topK = topK;
+        this.maxKeyLength = maxKeyLength;
+    }
+
+    /**
+     * Add or replace the entry for an id.
+     */
+    public void put(long id, String text, long weight) {
+        remove(id);
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        Entry entry = new Entry(id, text, normalized, weight, keysOf(normalized));
+        entries.put(id, entry);
+        for (String key : entry.keys) {
+            List<Node> path = pathFor(key, true);
+            path.get(path.size() - 1).terminals.put(id, entry);
+            for (Node node : path) {
+                node.offer(entry, topK);
+            }
+        }
+    }
+
+    public void remove(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (String key : entry.keys) {
+            List<Node> path = pathFor(key, false);
+            path.get(path.size() - 1).terminals.remove(id);
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node node = path.get(i);
+                if (node.containsInTop(id)) {
+                    node.recompute(topK);
+                }
+                if (i > 0 && node.isEmpty()) {
+                    path.get(i - 1).children.remove(key.charAt(i - 1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Best completions for a prefix, highest weight first.
+     */
+    public List<String> complete(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String walk = normalized.length() > maxKeyLength ? normalized.substring(0, maxKeyLength) : normalized;
+        Node node = root;
+        for (int i = 0; i < walk.length() && node != null; i++) {
+            node = node.children.get(walk.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+
+        List<Entry> candidates;
+        if (walk.length() == normalized.length()) {
+            candidates = node.top;
+        } else {
+            candidates = new ArrayList<>();
+            collect(node, candidates);
+            candidates.removeIf(entry -> !entry.matches(normalized));
+            candidates.sort(RANKING);
+        }
+
+        List<String> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        Set<String> seen = new HashSet<>();
+        for (Entry entry : candidates) {
+            if (result.size() == limit) break;
+            if (seen.add(entry.normalized)) {
+                result.add(entry.text);
+            }
+        }
+        return result;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public static String normalize(String text) {
+        if (text == null) return "";
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private List<String> keysOf(String normalized) {
+        List<String> keys = new ArrayList<>();
+        int start = 0;
+        while (start < normalized.length()) {
+            keys.add(normalized.substring(start, Math.min(normalized.length(), start + maxKeyLength)));
+            int space = normalized.indexOf(' ', start);
+            if (space < 0) break;
+            start = space + 1;
+        }
+        return keys;
+    }
+
+    private List<Node> pathFor(String key, boolean create) {
+        List<Node> path = new ArrayList<>(key.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < key.length(); i++) {
+            Node child = node.children.get(key.charAt(i));
+            if (child == null) {
+                if (!create) break;
+                child = new Node();
+                node.children.put(key.charAt(i), child);
+            }
+            node = child;
+            path.add(node);
+        }
+        return path;
+    }
+
+    private void collect(Node node, List<Entry> target) {
+        for (Entry entry : node.terminals.values()) {
+            if (!target.contains(entry)) {
+                target.add(entry);
+            }
+        }
+        for (Node child : node.children.values()) {
+            collect(child, target);
+        }
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String text;
+        private final String normalized;
+        private final long weight;
+        private final List<String> keys;
+
+        private Entry(long id, String text, String normalized, long weight, List<String> keys) {
+            this.id = id;
+            this.text = text;
+            this.normalized = normalized;
+            this.weight = weight;
+            this.keys = keys;
+        }
+
+        // Keys are truncated, so a long prefix is checked against the full normalized text
+        private boolean matches(String prefix) {
+            return normalized.startsWith(prefix) || normalized.contains(" " + prefix);
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private final Map<Long, Entry> terminals = new LinkedHashMap<>(2);
+        private List<Entry> top = new ArrayList<>(2);
+
+        private void offer(Entry entry, int topK) {
+            if (containsInTop(entry.id)) {
+                return;
+            }
+            for (int i = 0; i < top.size(); i++) {
+                Entry existing = top.get(i);
+                if (existing.normalized.equals(entry.normalized)) {
+                    if (RANKING.compare(existing, entry) <= 0) {
+                        return;
+                    }
+                    top.remove(i);
+                    break;
+                }
+            }
+            int position = 0;
+            while (position < top.size() && RANKING.compare(top.get(position), entry) <= 0) {
+                position++;
+            }
+            if (position < topK) {
+                top.add(position, entry);
+                if (top.size() > topK) {
+                    top.remove(top.size() - 1);
+                }
+            }
+        }
+
+        private boolean containsInTop(long id) {
+            for (Entry entry : top) {
+                if (entry.id == id) return true;
+            }
+            return false;
+        }
+
+        private void recompute(int topK) {
+            top = new ArrayList<>(2);
+            for (Entry entry : terminals.values()) {
+                offer(entry, topK);
+            }
+            for (Node child : children.values()) {
+                for (Entry entry : child.top) {
+                    offer(entry, topK);
+                }
+            }
+        }
+
+        private boolean isEmpty() {
+            return children.isEmpty() && terminals.isEmpty();
+        }
+    }
+}
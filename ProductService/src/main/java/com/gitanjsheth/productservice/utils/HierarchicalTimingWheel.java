@@ -0,0 +1,166 @@
+package com.gitanjsheth.productservice.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Hierarchical timing wheel for keyed deadlines.
+ * Each level covers tickMs * wheelSize milliseconds; deadlines further out go to a lazily
+ * created overflow level whose tick is the full span of the level below, and cascade down
+ * as time advances. Adding, cancelling and expiring a key are O(1).
+ * A key never expires before its deadline and at most one tick after it.
+ * Not thread-safe - callers synchronize externally.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final Level root;
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+
+    public HierarchicalTimingWheel(long tickMs, int wheelSize, long startMs) {
+        if (tickMs <= 0 || wheelSize <= 1) {
+            throw new IllegalArgumentException("tickMs must be positive and wheelSize greater than 1");
+        }
+        this.root = new Level(tickMs, wheelSize, startMs);
+    }
+
+    /**
+     * Schedule (or reschedule) a key. Returns false when the deadline has already passed,
+     * in which case nothing is scheduled and the caller should expire the key itself.
+     */
+    public boolean schedule(K key, long deadlineMs) {
+        cancel(key);
+        if (deadlineMs <= root.currentTime) {
+            return false;
+        }
+        Entry<K> entry = new Entry<>(key, deadlineMs);
+        entries.put(key, entry);
+        place(entry);
+        return true;
+    }
+
+    /**
+     * Remove a key before it expires. Returns true if the key was scheduled.
+     */
+    public boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.bucket.remove(key);
+        return true;
+    }
+
+    /**
+     * Advance the wheel to the given time and return every key whose deadline has passed,
+     * in deadline order at tick granularity.
+     */
+    public List<K> advance(long nowMs) {
+        List<K> expired = new ArrayList<>();
+        while (root.currentTime + root.tickMs <= nowMs) {
+            long time = root.currentTime + root.tickMs;
+            List<Entry<K>> cascaded = new ArrayList<>();
+            for (Level level = root.overflow; level != null; level = level.overflow) {
+                if (time % level.tickMs != 0) {
+                    break;
+                }
+                level.currentTime = time;
+                drain(level.bucketAt(time), cascaded);
+            }
+            root.currentTime = time;
+            for (Entry<K> entry : drain(root.bucketAt(time), new ArrayList<>())) {
+                entries.remove(entry.key);
+                expired.add(entry.key);
+            }
+            for (Entry<K> entry : cascaded) {
+                if (entry.deadlineMs <= time) {
+                    entries.remove(entry.key);
+                    expired.add(entry.key);
+                } else {
+                    place(entry);
+                }
+            }
+        }
+        return expired;
+    }
+
+    public boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getCurrentTime() {
+        return root.currentTime;
+    }
+
+    private void place(Entry<K> entry) {
+        Level level = root;
+        long slot = ceilDiv(entry.deadlineMs, level.tickMs);
+        while (slot - level.currentTime / level.tickMs > level.wheelSize) {
+            level = level.overflow();
+            slot = entry.deadlineMs / level.tickMs;
+        }
+        Set<K> bucket = level.buckets[(int) (slot % level.wheelSize)];
+        bucket.add(entry.key);
+        entry.bucket = bucket;
+    }
+
+    private List<Entry<K>> drain(Set<K> bucket, List<Entry<K>> target) {
+        for (K key : bucket) {
+            target.add(entries.get(key));
+        }
+        bucket.clear();
+        return target;
+    }
+
+    private static long ceilDiv(long value, long divisor) {
+        return -Math.floorDiv(-value, divisor);
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long deadlineMs;
+        private Set<K> bucket;
+
+        private Entry(K key, long deadlineMs) {
+            this.key = key;
+            this.deadlineMs = deadlineMs;
+        }
+    }
+
+    private final class Level {
+        private final long tickMs;
+        private final int wheelSize;
+        private final Set<K>[] buckets;
+        private long currentTime;
+        private Level overflow;
+
+        @SuppressWarnings("unchecked")
+        private Level(long tickMs, int wheelSize, long startMs) {
+            this.tickMs = tickMs;
+            this.wheelSize = wheelSize;
+            this.currentTime = startMs - Math.floorMod(startMs, tickMs);
+            this.buckets = new Set[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new LinkedHashSet<>();
+            }
+        }
+
+        private Level overflow() {
+            if (overflow == null) {
+                overflow = new Level(tickMs * wheelSize, wheelSize, currentTime);
+            }
+            return overflow;
+        }
+
+        private Set<K> bucketAt(long time) {
+            return buckets[(int) ((time / tickMs) % wheelSize)];
+        }
+    }
+}
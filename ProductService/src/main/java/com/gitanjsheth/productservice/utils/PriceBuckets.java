@@ -0,0 +1,39 @@
+package com.gitanjsheth.productservice.utils;
+
+/**
+ * Price facet buckets shared by the search backends: [*, b0), [b0, b1), ..., [bn, *).
+ */
+public class PriceBuckets {
+
+    private final int[] breaks;
+
+    public PriceBuckets(int[] breaks) {
+        this.breaks = breaks.clone();
+    }
+
+    public int size() {
+        return breaks.length + 1;
+    }
+
+    public Integer from(int bucket) {
+        return bucket == 0 ? null : breaks[bucket - 1];
+    }
+
+    public Integer to(int bucket) {
+        return bucket == breaks.length ? null : breaks[bucket];
+    }
+
+    public String key(int bucket) {
+        Integer from = from(bucket);
+        Integer to = to(bucket);
+        return (from != null ? from : "*") + "-" + (to != null ? to : "*");
+    }
+
+    public int bucketOf(long price) {
+        int bucket = 0;
+        while (bucket < breaks.length && price >= breaks[bucket]) {
+            bucket++;
+        }
+        return bucket;
+    }
+}
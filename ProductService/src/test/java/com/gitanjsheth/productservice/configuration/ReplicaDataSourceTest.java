@@ -0,0 +1,103 @@
+package com.gitanjsheth.productservice.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaDataSourceTest {
+
+    @Mock
+    private HikariDataSource replica1;
+
+    @Mock
+    private HikariDataSource replica2;
+
+    @Mock
+    private DataSource primary;
+
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+    private final Connection primaryConnection = mock(Connection.class);
+
+    private ReplicaDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReplicaDataSource(List.of(replica1, replica2), primary, 5);
+    }
+
+    @Test
+    void getConnection_RoundRobinsOverReplicas() throws SQLException {
+        // Arrange
+        when(replica1.getConnection()).thenReturn(replica1Connection);
+        when(replica2.getConnection()).thenReturn(replica2Connection);
+
+        // Act
+        List<Connection> connections = List.of(dataSource.getConnection(), dataSource.getConnection(),
+                dataSource.getConnection());
+
+        // Assert
+        assertEquals(List.of(replica1Connection, replica2Connection, replica1Connection), connections);
+        assertEquals(0, dataSource.getFallbackCount());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void getConnection_SkipsFailedReplicaThenFallsBackToPrimary() throws SQLException {
+        // Arrange
+        when(replica1.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(replica2.getConnection()).thenReturn(replica2Connection).thenThrow(new SQLException("Connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        // Act
+        Connection first = dataSource.getConnection();
+        Connection second = dataSource.getConnection();
+
+        // Assert
+        assertSame(replica2Connection, first);
+        assertSame(primaryConnection, second);
+        assertEquals(0, dataSource.getHealthyReplicaCount());
+        assertEquals(1, dataSource.getFallbackCount());
+    }
+
+    @Test
+    void checkLag_TakesLaggingReplicaOutOfRotation() throws SQLException {
+        // Arrange
+        stubLag(replica1, 30L);
+        stubLag(replica2, 1L);
+
+        // Act
+        dataSource.checkLag();
+
+        // Assert
+        assertEquals(1, dataSource.getHealthyReplicaCount());
+        assertEquals(30, dataSource.getMaxReplicaLagSeconds());
+        assertSame(replica2Connection, dataSource.getConnection());
+        assertSame(replica2Connection, dataSource.getConnection());
+    }
+
+    private void stubLag(HikariDataSource replica, long lagSeconds) throws SQLException {
+        Connection connection = replica == replica1 ? replica1Connection : replica2Connection;
+        Statement statement = mock(Statement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        when(replica.getConnection()).thenReturn(connection);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery("SHOW REPLICA STATUS")).thenReturn(resultSet);
+        when(resultSet.next()).thenReturn(true);
+        when(resultSet.getLong("Seconds_Behind_Source")).thenReturn(lagSeconds);
+    }
+}
@@ -0,0 +1,94 @@
+package com.gitanjsheth.productservice.controllers;
+
+import com.gitanjsheth.productservice.dtos.CartItemAvailabilityDto;
+import com.gitanjsheth.productservice.services.InventoryService;
+import com.gitanjsheth.productservice.services.InventoryService.CartItemValidation;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryControllerTest {
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @InjectMocks
+    private InventoryController inventoryController;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void validateCart_ChecksTheWholeCartInOneCallAndListsEachFailure() {
+        // Arrange
+        when(inventoryService.checkCartItems(anyList())).thenReturn(List.of(
+                new CartItemAvailabilityDto(1L, 2, true, true, false, false, 10, 0, null),
+                new CartItemAvailabilityDto(4L, 5, false, true, false, false, 3, 2, "Insufficient stock"),
+                new CartItemAvailabilityDto(9L, 1, false, false, true, false, 0, 1, "Product not found")));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = inventoryController.validateCart(Map.of("items", List.of(
+                Map.of("productId", 1, "quantity", 2),
+                Map.of("productId", 4, "quantity", 5),
+                Map.of("productId", 9, "quantity", 1))), serviceRequest());
+
+        // Assert
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(false, response.getBody().get("valid"));
+        assertEquals(List.of(
+                "Product 4: Insufficient stock (requested 5, available 3)",
+                "Product 9: Product not found (requested 1, available 0)"), response.getBody().get("errors"));
+        assertEquals(3, ((List<CartItemAvailabilityDto>) response.getBody().get("items")).size());
+
+        ArgumentCaptor<List<CartItemValidation>> validations = ArgumentCaptor.forClass(List.class);
+        verify(inventoryService, times(1)).checkCartItems(validations.capture());
+        assertEquals(List.of(1L, 4L, 9L), validations.getValue().stream().map(CartItemValidation::getProductId).toList());
+    }
+
+    @Test
+    void validateCart_AvailableCartHasNoErrors() {
+        // Arrange
+        when(inventoryService.checkCartItems(anyList())).thenReturn(List.of(
+                new CartItemAvailabilityDto(1L, 2, true, true, false, false, 10, 0, null)));
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = inventoryController.validateCart(
+                Map.of("items", List.of(Map.of("productId", 1, "quantity", 2))), serviceRequest());
+
+        // Assert
+        assertEquals(true, response.getBody().get("valid"));
+        assertFalse(response.getBody().containsKey("errors"));
+    }
+
+    @Test
+    void validateCart_RejectsCallersThatAreNotInternalServices() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Service-Name", "UnknownService");
+
+        // Act
+        ResponseEntity<Map<String, Object>> response = inventoryController.validateCart(Map.of("items", List.of()), request);
+
+        // Assert
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatusCode());
+        verifyNoInteractions(inventoryService);
+    }
+
+    private static MockHttpServletRequest serviceRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Service-Name", "CartService");
+        return request;
+    }
+}
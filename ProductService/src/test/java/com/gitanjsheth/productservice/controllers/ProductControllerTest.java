@@ -1,11 +1,14 @@
 package com.gitanjsheth.productservice.controllers;
 
 import com.gitanjsheth.productservice.dtos.ExceptionDto;
+import com.gitanjsheth.productservice.dtos.ProductDto;
 import com.gitanjsheth.productservice.exceptions.CategoryNotFoundException;
 import com.gitanjsheth.productservice.exceptions.ProductNotFoundException;
 import com.gitanjsheth.productservice.models.Category;
 import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.services.ProductQueryService;
 import com.gitanjsheth.productservice.services.ProductServiceInterface;
+import com.gitanjsheth.productservice.utils.CatalogVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,9 +17,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,6 +38,9 @@ class ProductControllerTest {
     @Mock
     private ProductServiceInterface productServiceInterface;
 
+    @Mock
+    private ProductQueryService productQueryService;
+
     @InjectMocks
     private ProductController productController;
 
@@ -52,30 +65,53 @@ class ProductControllerTest {
     @Test
     void getAllProducts_ReturnsListOfProducts() {
         // Arrange
-        List<Product> expectedProducts = Arrays.asList(testProduct);
-        when(productServiceInterface.getAllProducts()).thenReturn(expectedProducts);
+        List<ProductDto> expectedProducts = Arrays.asList(toDto(testProduct));
+        when(productQueryService.getAllProductsVersion()).thenReturn(CatalogVersion.of("all", 1, LocalDateTime.now()));
+        when(productQueryService.getAllProducts()).thenReturn(expectedProducts);
 
         // Act
-        ResponseEntity<List<Product>> response = productController.getAllProducts();
+        ResponseEntity<List<ProductDto>> response = productController.getAllProducts(request("/products"));
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedProducts, response.getBody());
-        verify(productServiceInterface, times(1)).getAllProducts();
+        verify(productQueryService, times(1)).getAllProducts();
+        verify(productServiceInterface, never()).getAllProducts();
     }
 
     @Test
     void getSingleProduct_ValidId_ReturnsProduct() throws ProductNotFoundException {
         // Arrange
-        when(productServiceInterface.getSingleProduct(1L)).thenReturn(testProduct);
+        ProductDto expectedProduct = toDto(testProduct);
+        when(productQueryService.getProductVersion(1L)).thenReturn(CatalogVersion.of("p1", 1, LocalDateTime.now()));
+        when(productQueryService.getProduct(1L)).thenReturn(expectedProduct);
 
         // Act
-        ResponseEntity<Product> response = productController.getSingleProduct(1L);
+        ResponseEntity<ProductDto> response = productController.getSingleProduct(1L, request("/products/1"));
 
         // Assert
         assertEquals(HttpStatus.OK, response.getStatusCode());
-        assertEquals(testProduct, response.getBody());
-        verify(productServiceInterface, times(1)).getSingleProduct(1L);
+        assertEquals(expectedProduct, response.getBody());
+        assertEquals("Electronics", response.getBody().getCategory().getTitle());
+        assertNotNull(response.getHeaders().getCacheControl());
+        verify(productQueryService, times(1)).getProduct(1L);
+    }
+
+    @Test
+    void getSingleProduct_MatchingETag_ReturnsNotModifiedWithoutLoadingProduct() throws ProductNotFoundException {
+        // Arrange
+        CatalogVersion version = CatalogVersion.of("p1", 1, LocalDateTime.now());
+        when(productQueryService.getProductVersion(1L)).thenReturn(version);
+        ServletWebRequest webRequest = request("/products/1");
+        ((MockHttpServletRequest) webRequest.getRequest()).addHeader("If-None-Match", version.getEtag());
+
+        // Act
+        ResponseEntity<ProductDto> response = productController.getSingleProduct(1L, webRequest);
+
+        // Assert
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        verify(productQueryService, never()).getProduct(anyLong());
     }
 
     @Test
@@ -136,5 +172,30 @@ class ProductControllerTest {
         verify(productServiceInterface, times(1)).deleteProduct(1L);
     }
 
+    @Test
+    void getProductsByIds_UnknownField_ReturnsBadRequest() {
+        // Arrange
+        ReflectionTestUtils.setField(productController, "maxMultiGetIds", 200);
+        when(productQueryService.getProducts(List.of(1L, 2L), Set.of("costPrice")))
+                .thenThrow(new IllegalArgumentException("Unknown product fields: [costPrice]"));
+
+        // Act
+        ResponseEntity<List<Map<String, Object>>> response =
+                productController.getProductsByIds(List.of(1L, 2L), Set.of("costPrice"));
 
-} 
\ No newline at end of file
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+    }
+
+    private ServletWebRequest request(String uri) {
+        return new ServletWebRequest(new MockHttpServletRequest("GET", uri), new MockHttpServletResponse());
+    }
+
+    private ProductDto toDto(Product product) {
+        return new ProductDto(product.getId(), product.getTitle(), product.getPrice(), product.getDescription(),
+                product.getImageURL(), product.getCategory().getId(), product.getCategory().getTitle(),
+                product.getStockQuantity(), product.getReservedQuantity(), product.getIsOutOfStock(),
+                product.getShowWhenOutOfStock(), product.getAllowBackorder(), product.getLowStockThreshold(),
+                product.getIsActive());
+    }
+}
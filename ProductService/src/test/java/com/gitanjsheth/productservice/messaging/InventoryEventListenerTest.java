@@ -0,0 +1,109 @@
+package com.gitanjsheth.productservice.messaging;
+
+import com.gitanjsheth.productservice.dtos.OrderInventoryResultDto;
+import com.gitanjsheth.productservice.services.InventoryService;
+import com.gitanjsheth.productservice.services.InventoryService.OrderInventoryCommand;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryEventListenerTest {
+
+    @Mock
+    private InventoryService inventoryService;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private InventoryEventListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new InventoryEventListener(inventoryService, kafkaTemplate);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void handleInventoryEvents_InvalidQuantityIsDeadLetteredAndRestApplied() {
+        // Arrange
+        when(inventoryService.applyOrderCommands(anyList()))
+                .thenReturn(List.of(new OrderInventoryResultDto("order-1", true, List.of())));
+
+        // Act
+        listener.handleInventoryEvents(List.of(
+                event("order-1", 3, 2),
+                event("order-2", 4, -1)));
+
+        // Assert
+        ArgumentCaptor<List<OrderInventoryCommand>> commands = ArgumentCaptor.forClass(List.class);
+        verify(inventoryService).applyOrderCommands(commands.capture());
+        assertEquals(List.of("order-1"), commands.getValue().stream().map(OrderInventoryCommand::getOrderReference).toList());
+        verify(kafkaTemplate).send(deadLetter());
+    }
+
+    @Test
+    void handleInventoryEvents_FailedBatchIsolatesTheFailingCommand() {
+        // Arrange
+        when(inventoryService.applyOrderCommands(anyList())).thenAnswer(invocation -> {
+            List<OrderInventoryCommand> commands = invocation.getArgument(0);
+            if (commands.stream().anyMatch(command -> command.getOrderReference().equals("order-2"))) {
+                throw new DataIntegrityViolationException("Data truncation");
+            }
+            return List.of(new OrderInventoryResultDto(commands.get(0).getOrderReference(), true, List.of()));
+        });
+
+        // Act
+        listener.handleInventoryEvents(List.of(event("order-1", 3, 2), event("order-2", 4, 1)));
+
+        // Assert
+        verify(inventoryService, times(3)).applyOrderCommands(anyList());
+        verify(kafkaTemplate, times(1)).send(deadLetter());
+    }
+
+    @Test
+    void handleInventoryEvents_EveryCommandFailingPropagatesForRedelivery() {
+        // Arrange
+        when(inventoryService.applyOrderCommands(anyList())).thenThrow(new IllegalStateException("Database down"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class,
+                () -> listener.handleInventoryEvents(List.of(event("order-1", 3, 2), event("order-2", 4, 1))));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void handleInventoryEvents_SingleFailingCommandPropagatesToTheErrorHandler() {
+        // Arrange
+        when(inventoryService.applyOrderCommands(anyList())).thenThrow(new IllegalStateException("Database down"));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> listener.handleInventoryEvents(List.of(event("order-1", 3, 2))));
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    private static ProducerRecord<String, Object> deadLetter() {
+        return argThat(record -> record.topic().equals(InventoryEventListener.DEAD_LETTER_TOPIC)
+                && record.headers().lastHeader(KafkaHeaders.DLT_EXCEPTION_MESSAGE) != null);
+    }
+
+    private static Map<String, Object> event(String orderId, long productId, int quantity) {
+        return Map.of("eventType", "ORDER_CREATED", "orderId", orderId,
+                "items", List.of(Map.of("productId", productId, "quantity", quantity, "action", "RESERVE")));
+    }
+}
@@ -0,0 +1,89 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.BrowseResultDto;
+import com.gitanjsheth.productservice.dtos.ProductDto;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.utils.ColumnarProductIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BrowseServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryCache categoryCache;
+
+    private final Map<Long, ProductDto> catalog = new HashMap<>();
+
+    private BrowseService browseService;
+
+    @BeforeEach
+    void setUp() {
+        browseService = new BrowseService(productRepository, categoryCache);
+        ReflectionTestUtils.setField(browseService, "pageSize", 1000);
+        when(productRepository.findDtosByIdIn(anyCollection())).thenAnswer(invocation ->
+                ((Collection<?>) invocation.getArgument(0)).stream().map(catalog::get).filter(Objects::nonNull).toList());
+    }
+
+    @Test
+    void rebuild_ReplaysProductsChangedWhileReadingPages() {
+        // Arrange
+        catalog.put(1L, product(1L, 300));
+        when(productRepository.findDtoPageAfterId(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            // Product 2 commits after this page was read: the event reaches the index being replaced
+            catalog.put(2L, product(2L, 100));
+            browseService.handleProductChanges(Map.of("productIds", List.of(2)));
+            return List.of(catalog.get(1L));
+        });
+
+        // Act
+        browseService.rebuild();
+        BrowseResultDto result = browseService.browse(null, null, null, false,
+                ColumnarProductIndex.Sort.PRICE_ASC, 0, 10);
+
+        // Assert
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(2L, 1L), result.getContent().stream().map(ProductDto::getId).toList());
+    }
+
+    @Test
+    void pollChanges_RefreshesRowsUpdatedSinceLastPoll() {
+        // Arrange
+        catalog.put(5L, product(5L, 200));
+        when(productRepository.findIdsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(5L, 6L));
+
+        // Act
+        browseService.pollChanges();
+        BrowseResultDto result = browseService.browse(null, null, null, true,
+                ColumnarProductIndex.Sort.PRICE_ASC, 0, 10);
+
+        // Assert
+        assertEquals(1, result.getTotalElements());
+        assertEquals(5L, result.getContent().get(0).getId());
+    }
+
+    private static ProductDto product(Long id, int price) {
+        return new ProductDto(id, "Product " + id, price, null, null, 1L, "Electronics", 10, 0, false, true, false, 5, true);
+    }
+}
@@ -0,0 +1,101 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.ProductDto;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.utils.CatalogSnapshotFile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogSnapshotServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    private CatalogSnapshotService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Path file = tempDir.resolve("catalog.snapshot");
+        try (CatalogSnapshotFile.Writer writer = new CatalogSnapshotFile.Writer(file, System.currentTimeMillis())) {
+            writer.add(product(1L, "Phone"));
+            writer.add(product(2L, "Cable"));
+            writer.add(product(3L, "Charger"));
+            writer.finish();
+        }
+        service = new CatalogSnapshotService(productRepository, kafkaTemplate);
+        ReflectionTestUtils.setField(service, "snapshotPath", file);
+        ReflectionTestUtils.setField(service, "serveForMs", 60_000L);
+        service.load();
+    }
+
+    @Test
+    void find_ServesSnapshotUntilProductChanges() {
+        // Act
+        ProductDto before = service.find(1L);
+        service.publishChanges(List.of(1L));
+        service.handleProductChanges(Map.of("productIds", List.of(2)));
+
+        // Assert
+        assertEquals("Phone", before.getTitle());
+        assertNull(service.find(1L));
+        assertNull(service.find(2L));
+        assertEquals("Charger", service.find(3L).getTitle());
+        verify(kafkaTemplate).send(eq(CatalogSnapshotService.TOPIC), eq(Map.of("productIds", List.of(1L))));
+    }
+
+    @Test
+    void pollChanges_MarksRowsUpdatedSinceSnapshotStale() {
+        // Arrange
+        when(productRepository.findIdsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(3L));
+
+        // Act
+        service.pollChanges();
+
+        // Assert
+        assertNull(service.find(3L));
+        assertNotNull(service.find(1L));
+    }
+
+    @Test
+    void find_AfterServingWindowReleasesSnapshot() {
+        // Arrange
+        ReflectionTestUtils.setField(service, "serveUntilMillis", System.currentTimeMillis() - 1);
+
+        // Act
+        ProductDto product = service.find(1L);
+        service.pollChanges();
+
+        // Assert
+        assertNull(product);
+        assertNull(service.find(3L));
+        verifyNoInteractions(productRepository);
+    }
+
+    private static ProductDto product(Long id, String title) {
+        return new ProductDto(id, title, 100, null, null, 1L, "Electronics", 10, 0, false, true, false, 5, true);
+    }
+}
@@ -24,6 +24,9 @@ class CategoryServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CategoryCache categoryCache;
+
     @InjectMocks
     private SelfCategoryService categoryService;
 
@@ -40,33 +43,33 @@ class CategoryServiceTest {
     void getAllCategories_ReturnsListOfCategories() {
         // Arrange
         List<Category> expectedCategories = Arrays.asList(testCategory);
-        when(categoryRepository.findAll()).thenReturn(expectedCategories);
+        when(categoryCache.getAll()).thenReturn(expectedCategories);
 
         // Act
         List<Category> actualCategories = categoryService.getAllCategories();
 
         // Assert
         assertEquals(expectedCategories, actualCategories);
-        verify(categoryRepository, times(1)).findAll();
+        verify(categoryRepository, never()).findAll();
     }
 
     @Test
     void getSingleCategory_ValidId_ReturnsCategory() throws CategoryNotFoundException {
         // Arrange
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(testCategory));
+        when(categoryCache.findById(1L)).thenReturn(Optional.of(testCategory));
 
         // Act
         Category actualCategory = categoryService.getSingleCategory(1L);
 
         // Assert
         assertEquals(testCategory, actualCategory);
-        verify(categoryRepository, times(1)).findById(1L);
+        verify(categoryCache, times(1)).findById(1L);
     }
 
     @Test
     void getSingleCategory_InvalidId_ThrowsException() {
         // Arrange
-        when(categoryRepository.findById(999L)).thenReturn(Optional.empty());
+        when(categoryCache.findById(999L)).thenReturn(Optional.empty());
 
         // Act & Assert
         CategoryNotFoundException exception = assertThrows(
@@ -76,7 +79,7 @@ class CategoryServiceTest {
         
         assertEquals("Category not found with id: 999", exception.getMessage());
         assertEquals(999L, exception.getCategoryId());
-        verify(categoryRepository, times(1)).findById(999L);
+        verify(categoryCache, times(1)).findById(999L);
     }
 
     @Test
@@ -0,0 +1,177 @@
+package com.gitanjsheth.productservice.services;
+
+import co.elastic.clients.elasticsearch.ElasticsearchClient;
+import co.elastic.clients.elasticsearch._types.aggregations.AggregationRange;
+import co.elastic.clients.elasticsearch._types.query_dsl.BoolQuery;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TermQuery;
+import co.elastic.clients.elasticsearch.core.BulkRequest;
+import co.elastic.clients.elasticsearch.core.BulkResponse;
+import co.elastic.clients.elasticsearch.core.SearchRequest;
+import co.elastic.clients.elasticsearch.core.SearchResponse;
+import co.elastic.clients.elasticsearch.core.bulk.BulkOperation;
+import co.elastic.clients.elasticsearch.core.bulk.BulkResponseItem;
+import co.elastic.clients.elasticsearch.core.bulk.OperationType;
+import co.elastic.clients.elasticsearch.core.search.TotalHitsRelation;
+import com.gitanjsheth.productservice.dtos.SearchFiltersDto;
+import com.gitanjsheth.productservice.models.ProductSearchDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ElasticsearchSearchBackendTest {
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private ElasticsearchClient elasticsearchClient;
+
+    private ElasticsearchSearchBackend backend;
+
+    @BeforeEach
+    void setUp() {
+        backend = new ElasticsearchSearchBackend(elasticsearchOperations, elasticsearchClient, new int[]{100, 500});
+        ReflectionTestUtils.setField(backend, "categoryFacetSize", 20);
+        ReflectionTestUtils.setField(backend, "latencyBudgetMs", 500L);
+    }
+
+    @Test
+    void search_FiltersGoInFilterContextAndInStockRequiresActiveAvailableStock() throws IOException {
+        // Arrange
+        SearchFiltersDto filters = new SearchFiltersDto();
+        filters.setCategory("Electronics");
+        filters.setMinPrice(100);
+        filters.setMaxPrice(500);
+        filters.setInStock(true);
+
+        // Act
+        SearchRequest request = search("phone", filters);
+
+        // Assert
+        BoolQuery bool = request.query().bool();
+        assertEquals(2, bool.should().size());
+        assertEquals("1", bool.minimumShouldMatch());
+        assertTrue(bool.must().isEmpty());
+
+        List<Query> filter = bool.filter();
+        assertEquals(4, filter.size());
+        assertEquals("category", filter.get(0).term().field());
+        assertEquals("Electronics", filter.get(0).term().value().stringValue());
+        assertEquals("price", filter.get(1).range().number().field());
+        assertEquals(100.0, filter.get(1).range().number().gte());
+        assertEquals(500.0, filter.get(1).range().number().lte());
+        TermQuery active = filter.get(2).term();
+        assertEquals("isActive", active.field());
+        assertTrue(active.value().booleanValue());
+        assertEquals("availableQuantity", filter.get(3).range().number().field());
+        assertEquals(0.0, filter.get(3).range().number().gt());
+        assertEquals("500ms", request.timeout());
+    }
+
+    @Test
+    void search_NoTextOrFiltersMatchesEverything() throws IOException {
+        // Act
+        SearchRequest request = search(null, new SearchFiltersDto());
+
+        // Assert
+        BoolQuery bool = request.query().bool();
+        assertTrue(bool.should().isEmpty());
+        assertTrue(bool.filter().isEmpty());
+    }
+
+    @Test
+    void search_RequestsCategoryTermsAndOneKeyedRangePerPriceBucket() throws IOException {
+        // Act
+        SearchRequest request = search("phone", new SearchFiltersDto());
+
+        // Assert
+        assertEquals(20, request.aggregations().get("categories").terms().size());
+        List<AggregationRange> ranges = request.aggregations().get("prices").range().ranges();
+        assertEquals(List.of("*-100", "100-500", "500-*"), ranges.stream().map(AggregationRange::key).toList());
+        assertNull(ranges.get(0).from());
+        assertEquals(100.0, ranges.get(0).to());
+        assertEquals(100.0, ranges.get(1).from());
+        assertEquals(500.0, ranges.get(1).to());
+        assertEquals(500.0, ranges.get(2).from());
+        assertNull(ranges.get(2).to());
+    }
+
+    @Test
+    void deleteProducts_SendsOneBulkDeletePerDocumentId() throws IOException {
+        // Arrange
+        when(elasticsearchOperations.getIndexCoordinatesFor(ProductSearchDocument.class)).thenReturn(IndexCoordinates.of("products"));
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(bulkResponse());
+
+        // Act
+        backend.deleteProducts(List.of(7L, 9L));
+
+        // Assert
+        ArgumentCaptor<BulkRequest> request = ArgumentCaptor.forClass(BulkRequest.class);
+        verify(elasticsearchClient).bulk(request.capture());
+        List<BulkOperation> operations = request.getValue().operations();
+        assertTrue(operations.stream().allMatch(BulkOperation::isDelete));
+        assertEquals(List.of("7", "9"), operations.stream().map(operation -> operation.delete().id()).toList());
+        assertEquals("products", operations.get(0).delete().index());
+    }
+
+    @Test
+    void deleteProducts_FailedItemIsRaisedSoTheOutboxRetries() throws IOException {
+        // Arrange
+        when(elasticsearchOperations.getIndexCoordinatesFor(ProductSearchDocument.class)).thenReturn(IndexCoordinates.of("products"));
+        BulkResponseItem failed = BulkResponseItem.of(i -> i.operationType(OperationType.Delete)
+                .index("products").id("9").status(503)
+                .error(e -> e.type("unavailable_shards_exception").reason("primary shard is not active")));
+        when(elasticsearchClient.bulk(any(BulkRequest.class))).thenReturn(bulkResponse(failed));
+
+        // Act & Assert
+        IllegalStateException error = assertThrows(IllegalStateException.class, () -> backend.deleteProducts(List.of(7L, 9L)));
+        assertTrue(error.getMessage().contains("9: primary shard is not active"));
+    }
+
+    @Test
+    void deleteProducts_NothingToDeleteSendsNothing() {
+        // Act
+        backend.deleteProducts(List.of());
+
+        // Assert
+        verifyNoInteractions(elasticsearchClient, elasticsearchOperations);
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private SearchRequest search(String queryText, SearchFiltersDto filters) throws IOException {
+        when(elasticsearchOperations.getIndexCoordinatesFor(ProductSearchDocument.class)).thenReturn(IndexCoordinates.of("products"));
+        SearchResponse<Map> empty = SearchResponse.of(r -> r
+                .took(1)
+                .timedOut(false)
+                .shards(s -> s.total(1).successful(1).failed(0))
+                .hits(h -> h.hits(List.of()).total(t -> t.value(0).relation(TotalHitsRelation.Eq))));
+        when(elasticsearchClient.search(any(SearchRequest.class), eq(Map.class))).thenReturn(empty);
+
+        backend.search(queryText, filters, 0, 20);
+
+        ArgumentCaptor<SearchRequest> request = ArgumentCaptor.forClass(SearchRequest.class);
+        verify(elasticsearchClient).search(request.capture(), eq(Map.class));
+        return request.getValue();
+    }
+
+    private static BulkResponse bulkResponse(BulkResponseItem... failures) {
+        return BulkResponse.of(r -> r.errors(failures.length > 0).took(1).items(List.of(failures)));
+    }
+}
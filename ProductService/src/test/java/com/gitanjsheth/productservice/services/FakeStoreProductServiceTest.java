@@ -0,0 +1,104 @@
+package com.gitanjsheth.productservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gitanjsheth.productservice.dtos.FakeStoreProductDto;
+import com.gitanjsheth.productservice.exceptions.ProductNotFoundException;
+import com.gitanjsheth.productservice.models.Product;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FakeStoreProductServiceTest {
+
+    @Mock
+    private RestTemplate restTemplate;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void categoryAndIdLookups_DownloadCatalogOnce() throws ProductNotFoundException {
+        // Arrange
+        FakeStoreProductService service = new FakeStoreProductService(restTemplate, new ObjectMapper(),
+                "https://fakestore.test", "");
+        when(restTemplate.getForEntity("https://fakestore.test/products/", FakeStoreProductDto[].class))
+                .thenReturn(ResponseEntity.ok(new FakeStoreProductDto[]{
+                        product(1L, "Backpack", "men's clothing"),
+                        product(2L, "Ring", "jewelery"),
+                        product(3L, "Jacket", "men's clothing")}));
+
+        // Act
+        List<Product> clothing = service.getProductsByCategoryTitle("Men's Clothing");
+        List<Product> jewelery = service.getProductsByCategoryId(1L);
+        Product ring = service.getSingleProduct(2L);
+
+        // Assert
+        assertEquals(List.of(1L, 3L), clothing.stream().map(Product::getId).toList());
+        assertEquals(List.of(2L), jewelery.stream().map(Product::getId).toList());
+        assertEquals("Ring", ring.getTitle());
+        assertEquals(1L, ring.getCategory().getId());
+        verify(restTemplate, times(1)).getForEntity(anyString(), any());
+    }
+
+    @Test
+    void localFile_ServesCatalogWithoutCallingFakeStore() throws Exception {
+        // Arrange
+        Path file = tempDir.resolve("fakestore-products.json");
+        Files.writeString(file, "[{\"id\":7,\"title\":\"Monitor\",\"price\":199,\"description\":\"27 inch\","
+                + "\"image\":\"http://img/7\",\"category\":\"electronics\",\"rating\":{\"rate\":4.1,\"count\":12}}]");
+        FakeStoreProductService service = new FakeStoreProductService(restTemplate, new ObjectMapper(),
+                "https://fakestore.test", file.toString());
+
+        // Act
+        List<Product> products = service.getAllProducts();
+
+        // Assert
+        assertEquals(1, products.size());
+        assertEquals("Monitor", products.get(0).getTitle());
+        assertThrows(ProductNotFoundException.class, () -> service.getSingleProduct(8L));
+        verifyNoInteractions(restTemplate);
+    }
+
+    @Test
+    void getSingleProduct_CatalogDownloadFails_FetchesProductDirectly() throws ProductNotFoundException {
+        // Arrange
+        FakeStoreProductService service = new FakeStoreProductService(restTemplate, new ObjectMapper(),
+                "https://fakestore.test", "");
+        when(restTemplate.getForEntity("https://fakestore.test/products/", FakeStoreProductDto[].class))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+        when(restTemplate.getForEntity("https://fakestore.test/products/2", FakeStoreProductDto.class))
+                .thenReturn(ResponseEntity.ok(product(2L, "Ring", "jewelery")));
+
+        // Act
+        Product ring = service.getSingleProduct(2L);
+
+        // Assert
+        assertEquals("Ring", ring.getTitle());
+        assertEquals("jewelery", ring.getCategory().getTitle());
+        assertNull(ring.getCategory().getId());
+    }
+
+    private static FakeStoreProductDto product(Long id, String title, String category) {
+        FakeStoreProductDto dto = new FakeStoreProductDto();
+        dto.setId(id);
+        dto.setTitle(title);
+        dto.setPrice(10);
+        dto.setCategory(category);
+        return dto;
+    }
+}
@@ -0,0 +1,263 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.CartItemAvailabilityDto;
+import com.gitanjsheth.productservice.dtos.OrderInventoryItemDto;
+import com.gitanjsheth.productservice.dtos.OrderInventoryResultDto;
+import com.gitanjsheth.productservice.models.InventoryAction;
+import com.gitanjsheth.productservice.models.InventoryHold;
+import com.gitanjsheth.productservice.models.ProcessedInventoryAction;
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.repositories.InventoryHoldRepository;
+import com.gitanjsheth.productservice.repositories.ProcessedInventoryActionRepository;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InventoryServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private InventoryHoldRepository inventoryHoldRepository;
+
+    @Mock
+    private ProcessedInventoryActionRepository processedInventoryActionRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private StockLevelTracker stockLevelTracker;
+
+    @Mock
+    private SearchOutboxService searchOutboxService;
+
+    private InventoryService inventoryService;
+
+    @BeforeEach
+    void setUp() {
+        inventoryService = new InventoryService(productRepository, inventoryHoldRepository,
+                processedInventoryActionRepository, transactionManager, stockLevelTracker, searchOutboxService);
+    }
+
+    @Test
+    void reserveInventoryForOrder_ReportsCrossingsAndQueuesReindex() {
+        // Arrange
+        Product product = new Product();
+        product.setId(3L);
+        product.setStockQuantity(5);
+        product.setLowStockThreshold(2);
+        when(productRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(product));
+
+        // Act
+        OrderInventoryResultDto result = inventoryService.reserveInventoryForOrder("order-1", 7L,
+                List.of(new OrderInventoryItemDto(3L, 5)));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertTrue(product.getIsOutOfStock());
+        assertFalse(product.getIsLowStock());
+        verify(stockLevelTracker).onStockUpdated(product, false, false);
+        verify(searchOutboxService).enqueueAll(List.of(3L));
+    }
+
+    @Test
+    void confirmInventoryForOrder_UpdatesLowStockFlag() {
+        // Arrange
+        Product product = new Product();
+        product.setId(3L);
+        product.setStockQuantity(12);
+        product.setLowStockThreshold(10);
+        when(productRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(product));
+
+        // Act
+        inventoryService.confirmInventoryForOrder("order-2", List.of(new OrderInventoryItemDto(3L, 4)));
+
+        // Assert
+        assertEquals(8, product.getStockQuantity());
+        assertTrue(product.getIsLowStock());
+        verify(stockLevelTracker).onStockUpdated(product, false, false);
+    }
+
+    @Test
+    void confirmInventoryForOrder_MissingProductLeavesEveryLineUntouched() {
+        // Arrange
+        Product product = product(3L, 10);
+        product.setReservedQuantity(4);
+        when(productRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(product));
+        when(inventoryHoldRepository.findByHoldReferenceIn(anyCollection())).thenReturn(List.of(hold(3L, "order-3", 4)));
+
+        // Act
+        OrderInventoryResultDto result = inventoryService.confirmInventoryForOrder("order-3",
+                List.of(new OrderInventoryItemDto(3L, 4), new OrderInventoryItemDto(9L, 1)));
+
+        // Assert
+        assertFalse(result.isSuccess());
+        assertEquals(10, product.getStockQuantity());
+        assertEquals(4, product.getReservedQuantity());
+        verify(productRepository).saveAll(Set.of());
+        verify(processedInventoryActionRepository).saveAll(List.of());
+        verify(inventoryHoldRepository, never()).deleteByHoldKeyIn(any());
+        verifyNoInteractions(stockLevelTracker);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void reserveInventoryForOrder_RejectedOrderCanBeRetriedOnceStockArrives() {
+        // Arrange
+        Product product = product(3L, 2);
+        when(productRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(product));
+        List<OrderInventoryItemDto> items = List.of(new OrderInventoryItemDto(3L, 5));
+
+        // Act
+        OrderInventoryResultDto rejected = inventoryService.reserveInventoryForOrder("order-4", 7L, items);
+        product.setStockQuantity(10);
+        OrderInventoryResultDto retried = inventoryService.reserveInventoryForOrder("order-4", 7L, items);
+
+        // Assert
+        assertFalse(rejected.isSuccess());
+        assertTrue(retried.isSuccess());
+        assertEquals(5, product.getReservedQuantity());
+        ArgumentCaptor<List<ProcessedInventoryAction>> ledger = ArgumentCaptor.forClass(List.class);
+        verify(processedInventoryActionRepository, times(2)).saveAll(ledger.capture());
+        assertEquals(0, ledger.getAllValues().get(0).size());
+        assertEquals(InventoryAction.RESERVE, ledger.getAllValues().get(1).get(0).getAction());
+    }
+
+    @Test
+    void confirmInventoryForOrder_ReplayedConfirmationIsNotDeductedTwice() {
+        // Arrange
+        Product product = product(3L, 6);
+        when(productRepository.findAllByIdForUpdate(anyCollection())).thenReturn(List.of(product));
+        when(processedInventoryActionRepository.findByOrderReferenceIn(anyCollection()))
+                .thenReturn(List.of(new ProcessedInventoryAction("order-5", InventoryAction.CONFIRM)));
+
+        // Act
+        OrderInventoryResultDto result = inventoryService.confirmInventoryForOrder("order-5",
+                List.of(new OrderInventoryItemDto(3L, 4)));
+
+        // Assert
+        assertTrue(result.isSuccess());
+        assertEquals("Already confirmed", result.getLines().get(0).getMessage());
+        assertEquals(6, product.getStockQuantity());
+        verify(productRepository).saveAll(Set.of());
+        verify(processedInventoryActionRepository).saveAll(List.of());
+    }
+
+    @Test
+    void releaseReservedInventory_ExpiredLegacyHoldIsNotReleasedTwice() {
+        // Arrange
+        Product product = product(3L, 10);
+        product.setReservedQuantity(2);
+        when(productRepository.findByIdForUpdate(3L)).thenReturn(Optional.of(product));
+        when(inventoryHoldRepository.findFirstByProductIdAndUserIdOrderByExpiresAtAsc(3L, 7L)).thenReturn(Optional.empty());
+
+        // Act
+        inventoryService.releaseReservedInventory(3L, 2, 7L);
+
+        // Assert
+        assertEquals(2, product.getReservedQuantity());
+        verify(productRepository, never()).save(any());
+    }
+
+    @Test
+    void confirmInventoryUsage_ReleasesTheRemovedHoldsOwnQuantity() {
+        // Arrange
+        Product product = product(3L, 10);
+        product.setReservedQuantity(5);
+        when(productRepository.findByIdForUpdate(3L)).thenReturn(Optional.of(product));
+        when(inventoryHoldRepository.findByHoldKey("3:order-6")).thenReturn(Optional.of(hold(3L, "order-6", 3)));
+        when(inventoryHoldRepository.deleteByHoldKey("3:order-6")).thenReturn(1);
+
+        // Act
+        inventoryService.confirmInventoryUsage(3L, 4, 7L, "order-6");
+
+        // Assert
+        assertEquals(6, product.getStockQuantity());
+        assertEquals(2, product.getReservedQuantity());
+    }
+
+    @Test
+    void checkCartItems_ReportsEachItemWithItsOwnReason() {
+        // Arrange
+        Product inactive = product(2L, 10);
+        inactive.setIsActive(false);
+        Product outOfStock = product(3L, 0);
+        outOfStock.updateOutOfStockStatus();
+        when(productRepository.findAllById(anyCollection()))
+                .thenReturn(List.of(product(1L, 10), inactive, outOfStock, product(4L, 3)));
+
+        // Act
+        List<CartItemAvailabilityDto> items = inventoryService.checkCartItems(List.of(
+                new InventoryService.CartItemValidation(1L, 2),
+                new InventoryService.CartItemValidation(2L, 1),
+                new InventoryService.CartItemValidation(3L, 1),
+                new InventoryService.CartItemValidation(4L, 5),
+                new InventoryService.CartItemValidation(9L, 1)));
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L, 4L, 9L), items.stream().map(CartItemAvailabilityDto::getProductId).toList());
+        assertEquals(List.of(true, false, false, false, false),
+                items.stream().map(CartItemAvailabilityDto::getAvailable).toList());
+        assertNull(items.get(0).getReason());
+        assertEquals("Product inactive", items.get(1).getReason());
+        assertEquals("Out of stock", items.get(2).getReason());
+        assertEquals("Insufficient stock", items.get(3).getReason());
+        assertEquals(2, items.get(3).getShortfall());
+        assertEquals("Product not found", items.get(4).getReason());
+        assertEquals(1, items.get(4).getShortfall());
+    }
+
+    @Test
+    void checkCartItems_LoadsEveryProductWithOneQuery() {
+        // Arrange
+        Product backordered = product(5L, 0);
+        backordered.updateOutOfStockStatus();
+        backordered.setAllowBackorder(true);
+        when(productRepository.findAllById(anyCollection())).thenReturn(List.of(product(1L, 10), backordered));
+
+        // Act
+        boolean valid = inventoryService.validateCartItems(List.of(
+                new InventoryService.CartItemValidation(1L, 2),
+                new InventoryService.CartItemValidation(5L, 4),
+                new InventoryService.CartItemValidation(1L, 1)));
+
+        // Assert
+        assertTrue(valid);
+        verify(productRepository, times(1)).findAllById(Set.of(1L, 5L));
+        verify(productRepository, never()).findById(any());
+    }
+
+    private static Product product(Long id, int stockQuantity) {
+        Product product = new Product();
+        product.setId(id);
+        product.setStockQuantity(stockQuantity);
+        product.setLowStockThreshold(1);
+        return product;
+    }
+
+    private static InventoryHold hold(Long productId, String holdReference, int quantity) {
+        InventoryHold hold = new InventoryHold();
+        hold.setHoldKey(productId + ":" + holdReference);
+        hold.setProductId(productId);
+        hold.setHoldReference(holdReference);
+        hold.setQuantity(quantity);
+        return hold;
+    }
+}
@@ -0,0 +1,147 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.FacetBucketDto;
+import com.gitanjsheth.productservice.dtos.SearchFiltersDto;
+import com.gitanjsheth.productservice.dtos.SearchResultDto;
+import com.gitanjsheth.productservice.models.Category;
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.models.ProductSearchDocument;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LuceneSearchBackendTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @TempDir
+    Path indexDir;
+
+    private LuceneSearchBackend backend;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        backend = new LuceneSearchBackend(productRepository, new int[]{100, 500}, LuceneSearchBackend.NAME, false);
+        ReflectionTestUtils.setField(backend, "indexPath", indexDir.toString());
+        ReflectionTestUtils.setField(backend, "categoryFacetSize", 20);
+        ReflectionTestUtils.setField(backend, "pageSize", 2);
+        backend.open();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        backend.close();
+    }
+
+    @Test
+    void search_MatchesTextAndCountsFacetsOverEveryHit() {
+        // Arrange
+        backend.indexProducts(catalog());
+
+        // Act
+        SearchResultDto result = backend.search("phone", new SearchFiltersDto(), 0, 2);
+
+        // Assert
+        assertEquals(3, result.getTotalElements());
+        assertEquals(2, result.getContent().size());
+        assertEquals(2, result.getTotalPages());
+        assertEquals(List.of("Electronics=2", "Accessories=1"), keysAndCounts(result.getCategoryFacets()));
+        assertEquals(List.of("*-100=2", "100-500=1", "500-*=0"), keysAndCounts(result.getPriceFacets()));
+    }
+
+    @Test
+    void search_FiltersByCategoryPriceAndStock() {
+        // Arrange
+        backend.indexProducts(catalog());
+        SearchFiltersDto inStockElectronics = new SearchFiltersDto();
+        inStockElectronics.setCategory("Electronics");
+        inStockElectronics.setInStock(true);
+        SearchFiltersDto fromHundred = new SearchFiltersDto();
+        fromHundred.setMinPrice(100);
+
+        // Act
+        SearchResultDto byCategoryAndStock = backend.search("phone", inStockElectronics, 0, 10);
+        SearchResultDto byPrice = backend.search(null, fromHundred, 0, 10);
+
+        // Assert
+        assertEquals(List.of(1L), productIds(byCategoryAndStock));
+        assertEquals(Set.of(1L, 4L), Set.copyOf(productIds(byPrice)));
+    }
+
+    @Test
+    void deleteProducts_RemovesDocumentsById() {
+        // Arrange
+        backend.indexProducts(catalog());
+
+        // Act
+        backend.deleteProducts(List.of(1L, 3L));
+
+        // Assert
+        assertEquals(List.of(2L), productIds(backend.search("phone", new SearchFiltersDto(), 0, 10)));
+    }
+
+    @Test
+    void loadIfEmpty_LoadsTheCatalogInPagesOnlyIntoAnEmptyIndex() {
+        // Arrange
+        List<Product> catalog = catalog();
+        when(productRepository.findPageAfterId(eq(0L), any(Pageable.class))).thenReturn(catalog.subList(0, 2));
+        when(productRepository.findPageAfterId(eq(2L), any(Pageable.class))).thenReturn(catalog.subList(2, 4));
+        when(productRepository.findPageAfterId(eq(4L), any(Pageable.class))).thenReturn(List.of());
+
+        // Act
+        backend.loadIfEmpty();
+        backend.loadIfEmpty();
+
+        // Assert
+        assertEquals(4, backend.search(null, new SearchFiltersDto(), 0, 10).getTotalElements());
+        verify(productRepository, times(3)).findPageAfterId(anyLong(), any(Pageable.class));
+    }
+
+    private static List<Product> catalog() {
+        return List.of(
+                product(1L, "Red phone", "Electronics", 300, 5),
+                product(2L, "Blue phone", "Electronics", 50, 0),
+                product(3L, "Phone case", "Accessories", 20, 10),
+                product(4L, "Desk lamp", "Home", 700, 3));
+    }
+
+    private static Product product(Long id, String title, String categoryTitle, int price, int stock) {
+        Category category = new Category();
+        category.setTitle(categoryTitle);
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle(title);
+        product.setCategory(category);
+        product.setPrice(price);
+        product.setStockQuantity(stock);
+        return product;
+    }
+
+    private static List<Long> productIds(SearchResultDto result) {
+        return result.getContent().stream().map(ProductSearchDocument::getProductId).toList();
+    }
+
+    private static List<String> keysAndCounts(List<FacetBucketDto> buckets) {
+        return buckets.stream().map(bucket -> bucket.getKey() + "=" + bucket.getCount()).toList();
+    }
+}
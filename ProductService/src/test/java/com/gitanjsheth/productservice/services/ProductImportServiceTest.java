@@ -0,0 +1,141 @@
+package com.gitanjsheth.productservice.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gitanjsheth.productservice.dtos.ProductImportErrorDto;
+import com.gitanjsheth.productservice.dtos.ProductImportResultDto;
+import com.gitanjsheth.productservice.models.Category;
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.repositories.CategoryRepository;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductImportServiceTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private CategoryCache categoryCache;
+
+    @Mock
+    private Validator validator;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Mock
+    private StockLevelTracker stockLevelTracker;
+
+    private ProductImportService importService;
+
+    @BeforeEach
+    void setUp() {
+        importService = new ProductImportService(jdbcTemplate, transactionManager, categoryRepository,
+                categoryCache, validator, new ObjectMapper(), catalogSnapshotService, stockLevelTracker);
+        ReflectionTestUtils.setField(importService, "chunkSize", 500);
+        ReflectionTestUtils.setField(importService, "maxErrors", 1000);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importProducts_MixedChunkInsertsValidRowsAndQueuesTheirIds() throws IOException {
+        // Arrange
+        Category electronics = new Category();
+        electronics.setId(4L);
+        electronics.setTitle("Electronics");
+        when(categoryCache.findByTitle("Electronics")).thenReturn(Optional.of(electronics));
+        when(validator.validate(any())).thenReturn(Set.of());
+        ArgumentCaptor<BatchPreparedStatementSetter> setter = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class), setter.capture(), any(GeneratedKeyHolder.class)))
+                .thenAnswer(invocation -> {
+                    GeneratedKeyHolder keyHolder = invocation.getArgument(2);
+                    keyHolder.getKeyList().add(Map.of("GENERATED_KEY", 101L));
+                    keyHolder.getKeyList().add(Map.of("GENERATED_KEY", 102L));
+                    return new int[]{1, 1};
+                });
+
+        // Act
+        ProductImportResultDto result = importService.importProducts(ndjson(
+                "{\"title\":\"Phone\",\"price\":500,\"category\":\"Electronics\"}",
+                "{\"title\":\"Cable\",\"category\":\"Electronics\"}",
+                "{\"title\":\"Charger\",\"price\":25,\"category\":\"Electronics\"}"), ProductImportService.Format.NDJSON);
+
+        // Assert
+        assertEquals(3, result.getTotalRows());
+        assertEquals(2, result.getImportedRows());
+        assertEquals(1, result.getFailedRows());
+        assertEquals(2L, result.getErrors().get(0).getLine());
+        assertEquals("Price is required", result.getErrors().get(0).getMessage());
+        assertEquals(2, setter.getValue().getBatchSize());
+
+        ArgumentCaptor<List<Object[]>> outboxRows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains("search_outbox"), outboxRows.capture());
+        assertEquals(List.of(101L, 102L), outboxRows.getValue().stream().map(row -> row[2]).toList());
+        verifyNoInteractions(categoryRepository);
+
+        InOrder afterInsert = inOrder(transactionManager, catalogSnapshotService);
+        afterInsert.verify(transactionManager).commit(any());
+        afterInsert.verify(catalogSnapshotService).publishChanges(List.of(101L, 102L));
+        ArgumentCaptor<Product> tracked = ArgumentCaptor.forClass(Product.class);
+        verify(stockLevelTracker, times(2)).onStockUpdated(tracked.capture(), eq(false), eq(false));
+        assertEquals(List.of(101L, 102L), tracked.getAllValues().stream().map(Product::getId).toList());
+    }
+
+    @Test
+    void importProducts_StopsCollectingErrorsAtMaxErrors() throws IOException {
+        // Arrange
+        ReflectionTestUtils.setField(importService, "maxErrors", 2);
+
+        // Act
+        ProductImportResultDto result = importService.importProducts(ndjson(
+                "{\"title\":\"A\",\"price\":1}",
+                "not json",
+                "{\"title\":\"C\",\"price\":1,\"category\":\"X\"}",
+                "{\"title\":\"D\",\"price\":1}"), ProductImportService.Format.NDJSON);
+
+        // Assert
+        assertEquals(4, result.getTotalRows());
+        assertEquals(0, result.getImportedRows());
+        assertEquals(4, result.getFailedRows());
+        assertEquals(List.of(1L, 2L), result.getErrors().stream().map(ProductImportErrorDto::getLine).toList());
+        verifyNoInteractions(jdbcTemplate, catalogSnapshotService, stockLevelTracker);
+    }
+
+    private static InputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,94 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.ProductDto;
+import com.gitanjsheth.productservice.exceptions.ProductNotFoundException;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.utils.CatalogVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ProductQueryServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryCache categoryCache;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private ProductQueryService productQueryService;
+
+    @BeforeEach
+    void setUp() {
+        productQueryService = new ProductQueryService(productRepository, categoryCache, catalogSnapshotService);
+    }
+
+    @Test
+    void getProducts_ReturnsSelectedFieldsInRequestedOrder() {
+        // Arrange
+        when(productRepository.findDtosByIdIn(anyCollection())).thenReturn(List.of(product(1L, "Phone"), product(3L, "Cable")));
+
+        // Act
+        List<Map<String, Object>> products = productQueryService.getProducts(List.of(3L, 9L, 1L, 3L), Set.of("title", "price"));
+
+        // Assert
+        assertEquals(2, products.size());
+        assertEquals(Map.of("id", 3L, "title", "Cable", "price", 100), products.get(0));
+        assertEquals(Map.of("id", 1L, "title", "Phone", "price", 100), products.get(1));
+    }
+
+    @Test
+    void getProducts_NoFieldsReturnsEveryField() {
+        // Arrange
+        when(productRepository.findDtosByIdIn(anyCollection())).thenReturn(List.of(product(1L, "Phone")));
+
+        // Act
+        List<Map<String, Object>> products = productQueryService.getProducts(List.of(1L), Set.of());
+
+        // Assert
+        assertEquals(14, products.get(0).size());
+        assertEquals(10, products.get(0).get("availableQuantity"));
+    }
+
+    @Test
+    void getProducts_UnknownFieldIsRejectedBeforeQuerying() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> productQueryService.getProducts(List.of(1L), Set.of("title", "costPrice")));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getProductVersion_ServedFromSnapshotSkipsTheStampQuery() throws ProductNotFoundException {
+        // Arrange
+        when(catalogSnapshotService.servedAsOfMillis(5L)).thenReturn(1_700_000_000_000L);
+        when(categoryCache.getVersion()).thenReturn(CatalogVersion.of("categories", 3, null));
+
+        // Act
+        CatalogVersion version = productQueryService.getProductVersion(5L);
+
+        // Assert
+        assertEquals(1_700_000_000_000L, version.getLastModifiedMillis());
+        assertTrue(version.getEtag().startsWith("\"p5s-1-1700000000000."));
+        verify(productRepository, never()).findStampById(anyLong());
+    }
+
+    private static ProductDto product(Long id, String title) {
+        return new ProductDto(id, title, 100, null, null, 1L, "Electronics", 10, 0, false, true, false, 5, true);
+    }
+}
@@ -32,6 +32,12 @@ class ProductServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private SearchOutboxService searchOutboxService;
+
+    @Mock
+    private CategoryCache categoryCache;
+
     @InjectMocks
     private SelfProductService productService;
 
@@ -99,7 +105,7 @@ class ProductServiceTest {
     @Test
     void createProduct_WithExistingCategory_ReturnsCreatedProduct() throws CategoryNotFoundException {
         // Arrange
-        when(categoryRepository.findByTitle("Electronics")).thenReturn(Optional.of(testCategory));
+        when(categoryCache.findByTitle("Electronics")).thenReturn(Optional.of(testCategory));
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
         // Act
@@ -108,7 +114,8 @@ class ProductServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(testProduct.getId(), result.getId());
-        verify(categoryRepository, times(1)).findByTitle("Electronics");
+        verify(categoryCache, times(1)).findByTitle("Electronics");
+        verify(categoryRepository, never()).findByTitle(anyString());
         verify(productRepository, times(1)).save(testProduct);
         verify(categoryRepository, never()).save(any(Category.class));
     }
@@ -116,7 +123,7 @@ class ProductServiceTest {
     @Test
     void createProduct_WithNewCategory_CreatesNewCategoryAndProduct() throws CategoryNotFoundException {
         // Arrange
-        when(categoryRepository.findByTitle("Electronics")).thenReturn(Optional.empty());
+        when(categoryCache.findByTitle("Electronics")).thenReturn(Optional.empty());
         when(categoryRepository.save(any(Category.class))).thenReturn(testCategory);
         when(productRepository.save(any(Product.class))).thenReturn(testProduct);
 
@@ -126,7 +133,8 @@ class ProductServiceTest {
         // Assert
         assertNotNull(result);
         assertEquals(testProduct.getId(), result.getId());
-        verify(categoryRepository, times(1)).findByTitle("Electronics");
+        verify(categoryCache, times(1)).findByTitle("Electronics");
+        verify(categoryCache, times(1)).onCategorySaved(testCategory);
         verify(categoryRepository, times(1)).save(any(Category.class)); // Changed to any(Category.class) since a new instance is created
         verify(productRepository, times(1)).save(testProduct);
     }
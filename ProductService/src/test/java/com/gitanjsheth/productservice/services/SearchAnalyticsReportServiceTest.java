@@ -0,0 +1,138 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.LatencyPercentilesDto;
+import com.gitanjsheth.productservice.dtos.SearchAnalyticsEventPageDto;
+import com.gitanjsheth.productservice.models.SearchAnalytics;
+import com.gitanjsheth.productservice.repositories.SearchAnalyticsRepository;
+import com.gitanjsheth.productservice.repositories.SearchAnalyticsRollupRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchAnalyticsReportServiceTest {
+
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime TO = FROM.plusDays(1);
+
+    @Mock
+    private SearchAnalyticsRollupRepository rollupRepository;
+
+    @Mock
+    private SearchAnalyticsRepository analyticsRepository;
+
+    private SearchAnalyticsReportService reportService;
+
+    @BeforeEach
+    void setUp() {
+        reportService = new SearchAnalyticsReportService(rollupRepository, analyticsRepository);
+    }
+
+    @Test
+    void getLatencyPercentiles_ReportsTheUpperBoundOfTheBucketHoldingEachRank() {
+        // Arrange: 50 searches <=10ms, 40 <=100ms, 5 <=500ms, 4 <=1000ms, 1 slower
+        when(rollupRepository.sumLatencyHistogram(FROM, TO)).thenReturn(histogram(100, 2400, 50, 0, 0, 40, 0, 5, 4, 1));
+
+        // Act
+        LatencyPercentilesDto percentiles = reportService.getLatencyPercentiles(FROM, TO);
+
+        // Assert
+        assertEquals(100, percentiles.getSearchCount());
+        assertEquals(10, percentiles.getP50Ms());   // rank 50 is the last one in the first bucket
+        assertEquals(100, percentiles.getP90Ms());
+        assertEquals(500, percentiles.getP95Ms());
+        assertEquals(1000, percentiles.getP99Ms());
+        assertEquals(2400, percentiles.getMaxLatencyMs());
+    }
+
+    @Test
+    void getLatencyPercentiles_OpenLastBucketReportsTheMaximum() {
+        // Arrange
+        when(rollupRepository.sumLatencyHistogram(FROM, TO)).thenReturn(histogram(10, 3200, 5, 0, 0, 0, 0, 0, 0, 5));
+
+        // Act
+        LatencyPercentilesDto percentiles = reportService.getLatencyPercentiles(FROM, TO);
+
+        // Assert
+        assertEquals(10, percentiles.getP50Ms());
+        assertEquals(3200, percentiles.getP90Ms());
+        assertEquals(3200, percentiles.getP99Ms());
+    }
+
+    @Test
+    void getLatencyPercentiles_BucketBoundIsCappedAtTheObservedMaximum() {
+        // Arrange
+        when(rollupRepository.sumLatencyHistogram(FROM, TO)).thenReturn(histogram(4, 180, 0, 0, 0, 0, 4, 0, 0, 0));
+
+        // Act
+        LatencyPercentilesDto percentiles = reportService.getLatencyPercentiles(FROM, TO);
+
+        // Assert
+        assertEquals(180, percentiles.getP50Ms());
+        assertEquals(180, percentiles.getP99Ms());
+    }
+
+    @Test
+    void getLatencyPercentiles_EmptyRangeReportsNothing() {
+        // Arrange
+        Object[] noRows = new Object[10];
+        when(rollupRepository.sumLatencyHistogram(FROM, TO)).thenReturn(Collections.singletonList(noRows));
+
+        // Act
+        LatencyPercentilesDto percentiles = reportService.getLatencyPercentiles(FROM, TO);
+
+        // Assert
+        assertEquals(0, percentiles.getSearchCount());
+        assertEquals(0, percentiles.getP99Ms());
+        assertEquals(FROM, percentiles.getFrom());
+    }
+
+    @Test
+    void getEvents_FullPagePointsAtItsLastIdAndShortPageEndsPaging() {
+        // Arrange
+        when(analyticsRepository.findPageAfterId(eq(0L), eq(FROM), eq(TO), eq("phone"), any(PageRequest.class)))
+                .thenReturn(List.of(event(3L), event(7L)));
+        when(analyticsRepository.findPageAfterId(eq(7L), eq(FROM), eq(TO), eq("phone"), any(PageRequest.class)))
+                .thenReturn(List.of(event(9L)));
+
+        // Act
+        SearchAnalyticsEventPageDto first = reportService.getEvents(null, FROM, TO, "phone", 2);
+        SearchAnalyticsEventPageDto last = reportService.getEvents(first.getNextAfterId(), FROM, TO, "phone", 2);
+
+        // Assert
+        assertEquals(7L, first.getNextAfterId());
+        assertEquals(1, last.getItems().size());
+        assertNull(last.getNextAfterId());
+        verify(analyticsRepository).findPageAfterId(0L, FROM, TO, "phone", PageRequest.of(0, 2));
+    }
+
+    // [searches, max, bucket counts...] as returned by sumLatencyHistogram
+    private static List<Object[]> histogram(long searches, long max, long... buckets) {
+        Object[] row = new Object[2 + buckets.length];
+        row[0] = searches;
+        row[1] = max;
+        for (int i = 0; i < buckets.length; i++) {
+            row[2 + i] = buckets[i];
+        }
+        return Collections.singletonList(row);
+    }
+
+    private static SearchAnalytics event(Long id) {
+        SearchAnalytics event = new SearchAnalytics();
+        event.setId(id);
+        event.setQuery("phone");
+        return event;
+    }
+}
@@ -0,0 +1,130 @@
+package com.gitanjsheth.productservice.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchAnalyticsServiceTest {
+
+    private static final String EVENTS_TABLE = "INTO search_analytics (";
+    private static final String ROLLUP_TABLE = "INTO search_analytics_rollup (";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void record_FullBufferDropsTheEventAndCountsIt() {
+        // Arrange
+        SearchAnalyticsService analyticsService = service(2, 1000);
+
+        // Act
+        analyticsService.record("phone", 12, 3, "agent", "10.0.0.1");
+        analyticsService.record("cable", 8, 1, "agent", "10.0.0.1");
+        analyticsService.record("charger", 30, 0, "agent", "10.0.0.1");
+        analyticsService.flush();
+
+        // Assert
+        assertEquals(1, analyticsService.getDroppedCount());
+        assertEquals(1.0, meterRegistry.get("search.analytics.dropped").functionCounter().count());
+        ArgumentCaptor<List<Object[]>> events = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains(EVENTS_TABLE), events.capture());
+        assertEquals(List.of("phone", "cable"), events.getValue().stream().map(row -> row[2]).toList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_DrainsTheBufferInBatchesOfBatchSize() {
+        // Arrange
+        SearchAnalyticsService analyticsService = service(10, 2);
+        for (int i = 0; i < 5; i++) {
+            analyticsService.record("query " + i, 5, 1, null, null);
+        }
+
+        // Act
+        analyticsService.flush();
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> events = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate, times(3)).batchUpdate(contains(EVENTS_TABLE), events.capture());
+        assertEquals(List.of(2, 2, 1), events.getAllValues().stream().map(List::size).toList());
+        verify(jdbcTemplate, times(3)).batchUpdate(contains(ROLLUP_TABLE), anyList());
+        assertEquals(0, analyticsService.getDroppedCount());
+    }
+
+    @Test
+    void flush_FailedBatchDoesNotStopTheNextOne() {
+        // Arrange
+        SearchAnalyticsService analyticsService = service(10, 1);
+        analyticsService.record("phone", 5, 1, null, null);
+        analyticsService.record("cable", 5, 1, null, null);
+        when(jdbcTemplate.batchUpdate(contains(EVENTS_TABLE), anyList()))
+                .thenThrow(new IllegalStateException("Database down"))
+                .thenReturn(new int[]{1});
+
+        // Act
+        analyticsService.flush();
+
+        // Assert
+        verify(jdbcTemplate, times(2)).batchUpdate(contains(EVENTS_TABLE), anyList());
+        verify(jdbcTemplate, times(1)).batchUpdate(contains(ROLLUP_TABLE), anyList());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_RollupCountsEachLatencyInTheFirstBucketWhoseBoundItDoesNotExceed() {
+        // Arrange
+        SearchAnalyticsService analyticsService = service(10, 1000);
+        for (long latencyMs : new long[]{10, 11, 25, 1000, 1001}) {
+            analyticsService.record("phone", latencyMs, latencyMs == 1001 ? 0 : 4, null, null);
+        }
+
+        // Act
+        analyticsService.flush();
+
+        // Assert
+        ArgumentCaptor<List<Object[]>> rollups = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(contains(ROLLUP_TABLE), rollups.capture());
+        // Columns 8..15: <=10, <=25, <=50, <=100, <=250, <=500, <=1000, >1000
+        assertArrayEquals(new long[]{1, 2, 0, 0, 0, 0, 1, 1}, column(rollups.getValue(), 8, 8));
+        assertEquals(5, column(rollups.getValue(), 4, 1)[0]);
+        assertEquals(1, column(rollups.getValue(), 5, 1)[0]);
+    }
+
+    private SearchAnalyticsService service(int bufferCapacity, int batchSize) {
+        SearchAnalyticsService analyticsService = new SearchAnalyticsService(jdbcTemplate, meterRegistry, bufferCapacity);
+        ReflectionTestUtils.setField(analyticsService, "batchSize", batchSize);
+        return analyticsService;
+    }
+
+    // Sums the given columns over every rollup row, in case the events straddled a minute boundary
+    private static long[] column(List<Object[]> rows, int from, int count) {
+        long[] sums = new long[count];
+        for (Object[] row : rows) {
+            for (int i = 0; i < count; i++) {
+                sums[i] += (Long) row[from + i];
+            }
+        }
+        return sums;
+    }
+}
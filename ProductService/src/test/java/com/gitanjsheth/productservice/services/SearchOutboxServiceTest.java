@@ -0,0 +1,97 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.models.SearchOutboxEntry;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import com.gitanjsheth.productservice.repositories.SearchOutboxRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchOutboxServiceTest {
+
+    @Mock
+    private SearchOutboxRepository outboxRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private AutocompleteService autocompleteService;
+
+    @Mock
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SearchOutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new SearchOutboxService(outboxRepository, productRepository, searchService,
+                autocompleteService, catalogSnapshotService, kafkaTemplate, transactionManager, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(outboxService, "batchSize", 500);
+    }
+
+    @Test
+    void relay_AppliesClaimedRowsOnceAndDeletesThemInTheSameTransaction() {
+        // Arrange
+        Product phone = new Product();
+        phone.setId(1L);
+        when(outboxRepository.claimOldest(500)).thenReturn(List.of(entry(10L, 1L), entry(11L, 2L), entry(12L, 1L)));
+        when(productRepository.findAllWithCategoryByIdIn(anyCollection())).thenReturn(List.of(phone));
+
+        // Act
+        outboxService.relay();
+
+        // Assert
+        verify(searchService).bulkIndexProducts(List.of(phone));
+        verify(searchService).deleteProductIndexes(Set.of(2L));
+        verify(outboxRepository).deleteByIdIn(List.of(10L, 11L, 12L));
+        verify(kafkaTemplate).send(eq(CatalogSnapshotService.TOPIC), any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void relay_SkipsTheRunWhileAnotherInstanceHoldsTheRows() {
+        // Arrange
+        when(outboxRepository.claimOldest(500)).thenThrow(new CannotAcquireLockException("NOWAIT is set"));
+
+        // Act
+        outboxService.relay();
+
+        // Assert
+        verifyNoInteractions(searchService, autocompleteService, kafkaTemplate);
+        verify(outboxRepository, never()).deleteByIdIn(anyCollection());
+        verify(transactionManager).rollback(any());
+    }
+
+    private static SearchOutboxEntry entry(Long id, Long productId) {
+        SearchOutboxEntry entry = new SearchOutboxEntry(productId);
+        entry.setId(id);
+        return entry;
+    }
+}
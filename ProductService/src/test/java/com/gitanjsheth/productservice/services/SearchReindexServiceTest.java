@@ -0,0 +1,155 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.ReindexStatusDto;
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.models.ProductSearchDocument;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.index.AliasActions;
+import org.springframework.data.elasticsearch.core.index.Settings;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchReindexServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ElasticsearchOperations elasticsearchOperations;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private ElasticsearchSearchBackend elasticsearchSearchBackend;
+
+    @Mock
+    private IndexOperations aliasOps;
+
+    @Mock
+    private IndexOperations targetOps;
+
+    @Mock
+    private IndexOperations previousOps;
+
+    @Mock
+    private IndexOperations documentOps;
+
+    private SearchReindexService reindexService;
+
+    @BeforeEach
+    void setUp() {
+        reindexService = new SearchReindexService(productRepository, elasticsearchOperations, searchService,
+                elasticsearchSearchBackend);
+        ReflectionTestUtils.setField(reindexService, "aliasName", "products");
+        ReflectionTestUtils.setField(reindexService, "pageSize", 500);
+        ReflectionTestUtils.setField(reindexService, "parallelism", 1);
+        ReflectionTestUtils.setField(reindexService, "maxInFlight", 2);
+        when(elasticsearchOperations.indexOps(any(IndexCoordinates.class))).thenAnswer(invocation -> {
+            String indexName = invocation.<IndexCoordinates>getArgument(0).getIndexName();
+            return switch (indexName) {
+                case "products" -> aliasOps;
+                case "products_v1" -> previousOps;
+                default -> targetOps;
+            };
+        });
+        when(elasticsearchOperations.indexOps(ProductSearchDocument.class)).thenReturn(documentOps);
+        when(documentOps.createSettings()).thenReturn(new Settings());
+        when(documentOps.createMapping()).thenReturn(Document.create());
+        when(productRepository.findPageAfterId(anyLong(), any(Pageable.class))).thenReturn(List.of(product(1L)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        reindexService.shutdown();
+    }
+
+    @Test
+    void startReindex_ReplaysChangesMadeDuringTheJobAfterTheAliasSwap() throws InterruptedException {
+        // Arrange
+        Product updated = product(2L);
+        Product updatedSinceStart = product(4L);
+        when(aliasOps.getAliases("products")).thenReturn(Map.of("products_v1", Set.of()));
+        when(productRepository.findUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of());
+        // 2 was re-indexed and 3 removed through the old index; 4 was written without reaching this instance
+        when(searchService.stopRecordingChanges()).thenReturn(Set.of(2L, 3L));
+        when(productRepository.findIdsUpdatedSince(any(LocalDateTime.class))).thenReturn(List.of(4L));
+        when(productRepository.findAllWithCategoryByIdIn(anyCollection())).thenReturn(List.of(updated, updatedSinceStart));
+
+        // Act
+        LocalDateTime before = LocalDateTime.now();
+        reindexService.startReindex();
+        ReindexStatusDto status = awaitCompletion();
+
+        // Assert
+        assertEquals("COMPLETED", status.getState());
+        InOrder inOrder = inOrder(searchService, aliasOps, elasticsearchSearchBackend);
+        inOrder.verify(searchService).startRecordingChanges();
+        inOrder.verify(aliasOps).alias(any(AliasActions.class));
+        inOrder.verify(elasticsearchSearchBackend).indexProducts(List.of(updated, updatedSinceStart));
+        inOrder.verify(elasticsearchSearchBackend).deleteProducts(Set.of(3L));
+        inOrder.verify(searchService).onIndexSwapped();
+        verify(previousOps).delete();
+
+        ArgumentCaptor<LocalDateTime> catchUpFrom = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(productRepository).findUpdatedSince(catchUpFrom.capture());
+        assertTrue(catchUpFrom.getValue().isBefore(before.minusSeconds(4)));
+    }
+
+    @Test
+    void startReindex_FailedBulkStopsRecordingAndDropsThePartialIndex() throws InterruptedException {
+        // Arrange
+        when(elasticsearchOperations.bulkIndex(anyList(), any(IndexCoordinates.class)))
+                .thenThrow(new IllegalStateException("Connection refused"));
+
+        // Act
+        reindexService.startReindex();
+        ReindexStatusDto status = awaitCompletion();
+
+        // Assert
+        assertEquals("FAILED", status.getState());
+        verify(searchService).stopRecordingChanges();
+        verify(targetOps).delete();
+        verify(aliasOps, never()).alias(any(AliasActions.class));
+        verify(elasticsearchSearchBackend, never()).indexProducts(anyList());
+    }
+
+    private ReindexStatusDto awaitCompletion() throws InterruptedException {
+        for (int i = 0; i < 100 && "RUNNING".equals(reindexService.getStatus().getState()); i++) {
+            Thread.sleep(50);
+        }
+        return reindexService.getStatus();
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        product.setTitle("Product " + id);
+        return product;
+    }
+}
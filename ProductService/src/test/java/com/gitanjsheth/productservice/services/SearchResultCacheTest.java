@@ -0,0 +1,64 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.dtos.SearchFiltersDto;
+import com.gitanjsheth.productservice.dtos.SearchResultDto;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchResultCacheTest {
+
+    @Test
+    void get_ServesAResultUnderItsNormalizedQueryUntilTheGenerationChanges() {
+        // Arrange
+        SearchResultCache cache = new SearchResultCache(100, 60_000);
+        SearchResultDto result = new SearchResultDto();
+        cache.put("Phone", new SearchFiltersDto(), 0, 20, cache.currentGeneration(), result);
+
+        // Act
+        SearchResultDto beforeWrite = cache.get("  phone ", new SearchFiltersDto(), 0, 20);
+        cache.bumpGeneration();
+        SearchResultDto afterWrite = cache.get("phone", new SearchFiltersDto(), 0, 20);
+
+        // Assert
+        assertSame(result, beforeWrite);
+        assertNull(afterWrite);
+    }
+
+    @Test
+    void put_ResultComputedBeforeAConcurrentWriteIsNeverServed() {
+        // Arrange
+        SearchResultCache cache = new SearchResultCache(100, 60_000);
+        long computedAt = cache.currentGeneration();
+        cache.bumpGeneration();
+
+        // Act
+        cache.put("phone", new SearchFiltersDto(), 0, 20, computedAt, new SearchResultDto());
+
+        // Assert
+        assertNull(cache.get("phone", new SearchFiltersDto(), 0, 20));
+    }
+
+    @Test
+    void get_ExpiredEntryIsAMiss() {
+        // Arrange
+        SearchResultCache cache = new SearchResultCache(100, 0);
+        cache.put("phone", new SearchFiltersDto(), 0, 20, cache.currentGeneration(), new SearchResultDto());
+
+        // Act & Assert
+        assertNull(cache.get("phone", new SearchFiltersDto(), 0, 20));
+    }
+
+    @Test
+    void get_DifferentFiltersOrPageAreSeparateEntries() {
+        // Arrange
+        SearchResultCache cache = new SearchResultCache(100, 60_000);
+        SearchFiltersDto inStock = new SearchFiltersDto();
+        inStock.setInStock(true);
+        cache.put("phone", new SearchFiltersDto(), 0, 20, cache.currentGeneration(), new SearchResultDto());
+
+        // Act & Assert
+        assertNull(cache.get("phone", inStock, 0, 20));
+        assertNull(cache.get("phone", new SearchFiltersDto(), 1, 20));
+    }
+}
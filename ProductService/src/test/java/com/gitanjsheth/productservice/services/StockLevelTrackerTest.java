@@ -0,0 +1,119 @@
+package com.gitanjsheth.productservice.services;
+
+import com.gitanjsheth.productservice.models.Product;
+import com.gitanjsheth.productservice.repositories.ProductRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLevelTrackerTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private StockLevelTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        tracker = new StockLevelTracker(productRepository, kafkaTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void onStockUpdated_CrossingUpdatesSetsAndIsPublished() {
+        // Arrange
+        Product product = product(5L, 0, 0, 10);
+
+        // Act
+        tracker.onStockUpdated(product, false, false);
+
+        // Assert
+        assertEquals(Set.of(5L), tracker.getOutOfStockIds());
+        assertEquals(Set.of(5L), tracker.getLowStockIds());
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(eq(StockLevelTracker.TOPIC), eq("5"), event.capture());
+        assertEquals("OUT_OF_STOCK", ((Map<?, ?>) event.getValue()).get("eventType"));
+    }
+
+    @Test
+    void onStockUpdated_WithoutCrossingPublishesNothing() {
+        // Arrange
+        Product product = product(5L, 50, 10, 10);
+
+        // Act
+        tracker.onStockUpdated(product, false, false);
+
+        // Assert
+        assertTrue(tracker.getOutOfStockIds().isEmpty());
+        assertTrue(tracker.getLowStockIds().isEmpty());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void reconcile_CorrectsFlagsThenReplacesSets() {
+        // Arrange
+        tracker.onStockUpdated(product(1L, 0, 0, 10), false, false);
+        when(productRepository.findOutOfStockIds()).thenReturn(List.of(2L));
+        when(productRepository.findLowStockIds()).thenReturn(List.of(2L, 3L));
+
+        // Act
+        tracker.reconcile();
+
+        // Assert
+        verify(productRepository).markLowStock();
+        verify(productRepository).clearLowStock();
+        verify(productRepository).markOutOfStock();
+        verify(productRepository).clearOutOfStock();
+        assertEquals(Set.of(2L), tracker.getOutOfStockIds());
+        assertEquals(Set.of(2L, 3L), tracker.getLowStockIds());
+    }
+
+    @Test
+    void handleStockLevelEvent_AppliesOtherInstancesAndSkipsOwn() {
+        // Arrange
+        tracker.onStockUpdated(product(1L, 0, 0, 10), false, false);
+        ArgumentCaptor<Object> own = ArgumentCaptor.forClass(Object.class);
+        verify(kafkaTemplate).send(anyString(), anyString(), own.capture());
+
+        // Act
+        tracker.handleStockLevelEvent(Map.of("productId", 1, "lowStock", false, "outOfStock", false,
+                "origin", ((Map<?, ?>) own.getValue()).get("origin")));
+        tracker.handleStockLevelEvent(Map.of("productId", 9, "lowStock", true, "outOfStock", false,
+                "origin", "another-instance"));
+
+        // Assert
+        assertEquals(Set.of(1L), tracker.getOutOfStockIds());
+        assertEquals(Set.of(1L, 9L), tracker.getLowStockIds());
+        verify(kafkaTemplate, times(1)).send(anyString(), anyString(), any());
+    }
+
+    // Flags computed as InventoryService does before notifying the tracker
+    private static Product product(Long id, int stock, int reserved, int lowStockThreshold) {
+        Product product = new Product();
+        product.setId(id);
+        product.setStockQuantity(stock);
+        product.setReservedQuantity(reserved);
+        product.setLowStockThreshold(lowStockThreshold);
+        product.updateOutOfStockStatus();
+        product.updateLowStockStatus();
+        return product;
+    }
+}
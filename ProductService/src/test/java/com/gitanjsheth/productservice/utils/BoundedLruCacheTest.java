@@ -0,0 +1,48 @@
+package com.gitanjsheth.productservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BoundedLruCacheTest {
+
+    @Test
+    void put_BeyondCapacityEvictsTheLeastRecentlyUsedEntry() {
+        // Arrange
+        BoundedLruCache<String, Integer> cache = new BoundedLruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+
+        // Act
+        cache.put("c", 3);
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.get("a"));
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c"));
+    }
+
+    @Test
+    void put_ExistingKeyReplacesWithoutEvicting() {
+        // Arrange
+        BoundedLruCache<String, Integer> cache = new BoundedLruCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        // Act
+        cache.put("a", 10);
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertEquals(10, cache.get("a"));
+        assertEquals(2, cache.get("b"));
+    }
+
+    @Test
+    void constructor_RejectsNonPositiveCapacity() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new BoundedLruCache<String, Integer>(0));
+    }
+}
@@ -0,0 +1,62 @@
+package com.gitanjsheth.productservice.utils;
+
+import com.gitanjsheth.productservice.dtos.ProductDto;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeThenOpen_FindsEveryProductById() throws IOException {
+        // Arrange
+        Path file = tempDir.resolve("catalog.snapshot");
+        try (CatalogSnapshotFile.Writer writer = new CatalogSnapshotFile.Writer(file, 1_700_000_000_000L)) {
+            writer.add(new ProductDto(3L, "Phone", 499, "A phone", "http://img/3", 1L, "Électronique",
+                    20, 5, false, true, false, 10, true));
+            writer.add(new ProductDto(7L, "Cable", null, null, null, null, null,
+                    0, 0, true, null, true, null, false));
+            writer.finish();
+        }
+
+        // Act
+        CatalogSnapshotFile snapshot = CatalogSnapshotFile.open(file);
+        ProductDto phone = snapshot.find(3L);
+        ProductDto cable = snapshot.find(7L);
+
+        // Assert
+        assertEquals(2, snapshot.size());
+        assertEquals(1_700_000_000_000L, snapshot.getAsOfMillis());
+        assertEquals("Phone", phone.getTitle());
+        assertEquals(499, phone.getPrice());
+        assertEquals("Électronique", phone.getCategory().getTitle());
+        assertEquals(15, phone.getAvailableQuantity());
+        assertEquals(10, phone.getLowStockThreshold());
+        assertTrue(phone.getIsActive());
+        assertNull(cable.getPrice());
+        assertNull(cable.getDescription());
+        assertNull(cable.getCategory());
+        assertNull(cable.getShowWhenOutOfStock());
+        assertTrue(cable.getIsOutOfStock());
+        assertNull(snapshot.find(5L));
+    }
+
+    @Test
+    void add_OutOfOrderId_ThrowsException() throws IOException {
+        // Arrange
+        try (CatalogSnapshotFile.Writer writer = new CatalogSnapshotFile.Writer(tempDir.resolve("catalog.snapshot"), 0)) {
+            writer.add(new ProductDto(5L, "Phone", 1, null, null, null, null, 0, 0, false, true, false, 10, true));
+
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () ->
+                    writer.add(new ProductDto(4L, "Cable", 1, null, null, null, null, 0, 0, false, true, false, 10, true)));
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.gitanjsheth.productservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeWatermarkTest {
+
+    private final AtomicLong clock = new AtomicLong(100_000);
+    private final ChangeWatermark watermark = new ChangeWatermark(clock::get);
+    private final List<LocalDateTime> reads = new ArrayList<>();
+
+    @Test
+    void poll_EachReadStartsOverlapMsBeforeThePreviousPollBegan() {
+        // Act
+        poll(true);
+        clock.set(160_000);
+        poll(true);
+        clock.set(170_000);
+        poll(true);
+
+        // Assert
+        assertEquals(List.of(
+                at(100_000 - ChangeWatermark.OVERLAP_MS),
+                at(100_000 - ChangeWatermark.OVERLAP_MS),
+                at(160_000 - ChangeWatermark.OVERLAP_MS)), reads);
+    }
+
+    @Test
+    void poll_FailedApplyKeepsTheWatermark() {
+        // Act
+        poll(false);
+        clock.set(160_000);
+        poll(true);
+        clock.set(170_000);
+        poll(true);
+
+        // Assert
+        assertEquals(at(100_000 - ChangeWatermark.OVERLAP_MS), reads.get(1));
+        assertEquals(at(160_000 - ChangeWatermark.OVERLAP_MS), reads.get(2));
+    }
+
+    @Test
+    void resetTo_RestartsFromTheGivenTime() {
+        // Arrange
+        watermark.resetTo(40_000);
+
+        // Act
+        poll(true);
+
+        // Assert
+        assertEquals(at(40_000 - ChangeWatermark.OVERLAP_MS), reads.get(0));
+    }
+
+    private void poll(boolean applied) {
+        watermark.poll(since -> {
+            reads.add(since);
+            return List.of(1L, 1L);
+        }, ids -> {
+            assertEquals(Set.of(1L), ids);
+            return applied;
+        });
+    }
+
+    private static LocalDateTime at(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,95 @@
+package com.gitanjsheth.productservice.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CircuitBreakerTest {
+
+    private AtomicLong now;
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong(1_000L);
+        breaker = new CircuitBreaker(3, 500L, now::get);
+    }
+
+    @Test
+    void recordFailure_OpensAfterThresholdConsecutiveFailures() {
+        // Arrange
+        breaker.recordFailure();
+        breaker.recordFailure();
+        breaker.recordSuccess();
+        breaker.recordFailure();
+        breaker.recordFailure();
+
+        // Act & Assert
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        breaker.recordFailure();
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void allowRequest_LetsOneTrialThroughAfterOpenDuration() {
+        // Arrange
+        tripBreaker();
+        now.addAndGet(500L);
+
+        // Act
+        boolean first = breaker.allowRequest();
+        boolean second = breaker.allowRequest();
+
+        // Assert
+        assertTrue(first);
+        assertFalse(second);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void trialOutcome_ClosesOnSuccessAndReopensOnFailure() {
+        // Arrange
+        tripBreaker();
+        now.addAndGet(500L);
+        assertTrue(breaker.allowRequest());
+
+        // Act
+        breaker.recordFailure();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        now.addAndGet(500L);
+        assertTrue(breaker.allowRequest());
+        breaker.recordSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void releasePermit_FreesAbandonedTrialWithoutChangingState() {
+        // Arrange
+        tripBreaker();
+        now.addAndGet(500L);
+        assertTrue(breaker.allowRequest());
+
+        // Act
+        breaker.releasePermit();
+
+        // Assert
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertFalse(breaker.allowRequest());
+    }
+
+    private void tripBreaker() {
+        for (int i = 0; i < 3; i++) {
+            breaker.recordFailure();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.gitanjsheth.productservice.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarProductIndexTest {
+
+    private ColumnarProductIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ColumnarProductIndex();
+        index.upsert(1L, 500, 10L, true);
+        index.upsert(2L, 100, 10L, false);
+        index.upsert(3L, 300, 10L, true);
+        index.upsert(4L, 200, 20L, true);
+    }
+
+    @Test
+    void query_FiltersByCategoryPriceAndStock_SortedByPrice() {
+        // Act
+        ColumnarProductIndex.Page page = index.query(10L, 100, 400, false,
+                ColumnarProductIndex.Sort.PRICE_ASC, 0, 10);
+        ColumnarProductIndex.Page inStock = index.query(10L, null, null, true,
+                ColumnarProductIndex.Sort.PRICE_DESC, 0, 10);
+
+        // Assert
+        assertArrayEquals(new long[]{2L, 3L}, page.getProductIds());
+        assertEquals(2, page.getTotalMatches());
+        assertArrayEquals(new long[]{1L, 3L}, inStock.getProductIds());
+    }
+
+    @Test
+    void query_PagesThroughMatchesAndReportsTotal() {
+        // Act
+        ColumnarProductIndex.Page page = index.query(null, null, null, false,
+                ColumnarProductIndex.Sort.PRICE_ASC, 1, 2);
+
+        // Assert
+        assertArrayEquals(new long[]{4L, 3L}, page.getProductIds());
+        assertEquals(4, page.getTotalMatches());
+    }
+
+    @Test
+    void upsertAndRemove_ApplyIncrementally() {
+        // Act
+        index.upsert(3L, 300, 20L, true);   // moved to another category
+        index.remove(1L);
+        index.setInStock(2L, true);
+        index.upsert(5L, 50, 10L, true);    // reuses the freed slot
+
+        // Assert
+        assertArrayEquals(new long[]{5L, 2L}, index.query(10L, null, null, true,
+                ColumnarProductIndex.Sort.PRICE_ASC, 0, 10).getProductIds());
+        assertArrayEquals(new long[]{4L, 3L}, index.query(20L, null, null, false,
+                ColumnarProductIndex.Sort.PRICE_ASC, 0, 10).getProductIds());
+        assertEquals(4, index.size());
+    }
+}
@@ -0,0 +1,102 @@
+package com.gitanjsheth.productservice.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompletionTrieTest {
+
+    private CompletionTrie trie;
+
+    @BeforeEach
+    void setUp() {
+        trie = new CompletionTrie(3, 8);
+    }
+
+    @Test
+    void complete_RanksByWeightThenTitle() {
+        // Arrange
+        trie.put(1L, "Phone Case", 5);
+        trie.put(2L, "Phone Charger", 20);
+        trie.put(3L, "Phone Stand", 5);
+
+        // Act
+        List<String> result = trie.complete("pho", 10);
+
+        // Assert
+        assertEquals(List.of("Phone Charger", "Phone Case", "Phone Stand"), result);
+    }
+
+    @Test
+    void complete_MatchesWordsInsideTitle() {
+        // Arrange
+        trie.put(1L, "Smart Phone X", 1);
+
+        // Act & Assert
+        assertEquals(List.of("Smart Phone X"), trie.complete("PHONE", 5));
+        assertEquals(List.of("Smart Phone X"), trie.complete("smart  ph", 5));
+        assertTrue(trie.complete("mart", 5).isEmpty());
+    }
+
+    @Test
+    void remove_PromotesNextBestCompletion() {
+        // Arrange
+        trie.put(1L, "usb cable a", 10);
+        trie.put(2L, "usb cable b", 9);
+        trie.put(3L, "usb cable c", 8);
+        trie.put(4L, "usb cable d", 7);
+
+        // Act
+        trie.remove(1L);
+
+        // Assert
+        assertEquals(List.of("usb cable b", "usb cable c", "usb cable d"), trie.complete("usb", 3));
+        assertEquals(3, trie.size());
+    }
+
+    @Test
+    void put_ExistingId_ReplacesTitleAndWeight() {
+        // Arrange
+        trie.put(1L, "Old Laptop", 1);
+
+        // Act
+        trie.put(1L, "New Laptop", 1);
+
+        // Assert
+        assertTrue(trie.complete("old", 5).isEmpty());
+        assertEquals(List.of("New Laptop"), trie.complete("lap", 5));
+    }
+
+    @Test
+    void complete_PrefixLongerThanKeys_FiltersDeepestNode() {
+        // Arrange
+        trie.put(1L, "wireless keyboard", 1);
+        trie.put(2L, "wireless mouse", 1);
+
+        // Act
+        List<String> result = trie.complete("wireless k", 5);
+
+        // Assert
+        assertEquals(List.of("wireless keyboard"), result);
+    }
+
+    @Test
+    void complete_DuplicateTitlesTakeOneSlot() {
+        // Arrange
+        trie.put(1L, "Phone Case", 5);
+        trie.put(2L, "phone  case", 4);
+        trie.put(3L, "Phone Charger", 3);
+        trie.put(4L, "Phone Stand", 2);
+
+        // Act
+        List<String> result = trie.complete("pho", 10);
+        trie.remove(1L);
+
+        // Assert
+        assertEquals(List.of("Phone Case", "Phone Charger", "Phone Stand"), result);
+        assertEquals(List.of("phone  case", "Phone Charger", "Phone Stand"), trie.complete("pho", 10));
+    }
+}
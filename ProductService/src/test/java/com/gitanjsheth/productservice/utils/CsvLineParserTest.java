@@ -0,0 +1,34 @@
+package com.gitanjsheth.productservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvLineParserTest {
+
+    @Test
+    void parse_SplitsPlainFieldsKeepingEmptyOnes() {
+        // Act
+        List<String> fields = CsvLineParser.parse("Phone,499,,Electronics,");
+
+        // Assert
+        assertEquals(List.of("Phone", "499", "", "Electronics", ""), fields);
+    }
+
+    @Test
+    void parse_HandlesQuotedCommasAndEscapedQuotes() {
+        // Act
+        List<String> fields = CsvLineParser.parse("\"Cable, 2m\",\"The \"\"best\"\" cable\",10");
+
+        // Assert
+        assertEquals(List.of("Cable, 2m", "The \"best\" cable", "10"), fields);
+    }
+
+    @Test
+    void parse_UnterminatedQuote_ThrowsException() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> CsvLineParser.parse("\"Phone,499"));
+    }
+}
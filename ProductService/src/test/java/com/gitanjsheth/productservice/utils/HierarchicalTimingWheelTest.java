@@ -0,0 +1,101 @@
+package com.gitanjsheth.productservice.utils;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    private HierarchicalTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        // 1s ticks, 10 slots per level -> levels of 10s, 100s, 1000s
+        wheel = new HierarchicalTimingWheel<>(1000, 10, 0);
+    }
+
+    @Test
+    void advance_BeforeDeadline_ReturnsNothing() {
+        // Arrange
+        wheel.schedule("hold-1", 5_500);
+
+        // Act
+        List<String> expired = wheel.advance(5_000);
+
+        // Assert
+        assertTrue(expired.isEmpty());
+        assertTrue(wheel.contains("hold-1"));
+    }
+
+    @Test
+    void advance_PastDeadline_ExpiresWithinOneTick() {
+        // Arrange
+        wheel.schedule("hold-1", 5_500);
+
+        // Act
+        List<String> expired = wheel.advance(6_000);
+
+        // Assert
+        assertEquals(List.of("hold-1"), expired);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_DeadlinesOnOverflowLevels_CascadeAndExpireInOrder() {
+        // Arrange
+        wheel.schedule("far", 950_000);
+        wheel.schedule("mid", 42_000);
+        wheel.schedule("near", 3_000);
+
+        // Act & Assert
+        assertEquals(List.of("near"), wheel.advance(3_000));
+        assertTrue(wheel.advance(41_999).isEmpty());
+        assertEquals(List.of("mid"), wheel.advance(42_000));
+        assertTrue(wheel.advance(949_000).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(950_000));
+    }
+
+    @Test
+    void cancel_ScheduledKey_IsNeverExpired() {
+        // Arrange
+        wheel.schedule("hold-1", 2_000);
+        wheel.schedule("hold-2", 2_000);
+
+        // Act
+        boolean cancelled = wheel.cancel("hold-1");
+        List<String> expired = wheel.advance(10_000);
+
+        // Assert
+        assertTrue(cancelled);
+        assertEquals(List.of("hold-2"), expired);
+    }
+
+    @Test
+    void schedule_PastDeadline_ReturnsFalse() {
+        // Arrange
+        wheel.advance(10_000);
+
+        // Act
+        boolean scheduled = wheel.schedule("late", 9_000);
+
+        // Assert
+        assertFalse(scheduled);
+        assertFalse(wheel.contains("late"));
+    }
+
+    @Test
+    void schedule_ExistingKey_Reschedules() {
+        // Arrange
+        wheel.schedule("hold-1", 2_000);
+
+        // Act
+        wheel.schedule("hold-1", 20_000);
+
+        // Assert
+        assertTrue(wheel.advance(10_000).isEmpty());
+        assertEquals(List.of("hold-1"), wheel.advance(20_000));
+    }
+}
@@ -0,0 +1,45 @@
+package com.gitanjsheth.productservice.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PriceBucketsTest {
+
+    private final PriceBuckets buckets = new PriceBuckets(new int[]{100, 500});
+
+    @Test
+    void bucketOf_BreakBelongsToTheBucketItOpens() {
+        // Act & Assert
+        assertEquals(0, buckets.bucketOf(0));
+        assertEquals(0, buckets.bucketOf(99));
+        assertEquals(1, buckets.bucketOf(100));
+        assertEquals(1, buckets.bucketOf(499));
+        assertEquals(2, buckets.bucketOf(500));
+        assertEquals(2, buckets.bucketOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void key_OpenEndsAreStars() {
+        // Act & Assert
+        assertEquals(3, buckets.size());
+        assertEquals("*-100", buckets.key(0));
+        assertEquals("100-500", buckets.key(1));
+        assertEquals("500-*", buckets.key(2));
+        assertNull(buckets.from(0));
+        assertNull(buckets.to(2));
+    }
+
+    @Test
+    void constructor_CopiesTheBreaks() {
+        // Arrange
+        int[] breaks = {100, 500};
+        PriceBuckets copied = new PriceBuckets(breaks);
+
+        // Act
+        breaks[0] = 200;
+
+        // Assert
+        assertEquals(1, copied.bucketOf(150));
+    }
+}